@@ -1,23 +1,31 @@
 package io.github.togar2.pvp;
 
 import io.github.togar2.pvp.enchantment.CombatEnchantments;
+import io.github.togar2.pvp.feature.CombatFeatureSet;
 import io.github.togar2.pvp.feature.CombatFeatures;
 import io.github.togar2.pvp.feature.config.CombatFeatureRegistry;
+import io.github.togar2.pvp.feature.effect.ActiveEffects;
 import io.github.togar2.pvp.player.CombatPlayer;
 import io.github.togar2.pvp.player.CombatPlayerImpl;
 import io.github.togar2.pvp.potion.effect.CombatPotionEffects;
 import io.github.togar2.pvp.potion.item.CombatPotionTypes;
+import io.github.togar2.pvp.utils.CombatClassification;
+import io.github.togar2.pvp.utils.EntityUtil;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.attribute.AttributeInstance;
+import net.minestom.server.event.EventFilter;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.event.trait.InstanceEvent;
+import net.minestom.server.instance.Instance;
 
 /**
  * The main class of MinestomPvP, which contains the {@link MinestomPvP#init()} method.
  * <p>
- * It can also be used to set legacy attack for a player, see {@link MinestomPvP#setLegacyAttack(Player, boolean)}.
+ * It can also be used to set legacy attack for a player, see {@link MinestomPvP#setLegacyAttack(Player, boolean)},
+ * and to enable combat for a single instance, see {@link MinestomPvP#register(Instance, CombatFeatureSet)}.
  */
 public class MinestomPvP {
 	/**
@@ -57,15 +65,58 @@ public class MinestomPvP {
 	/**
 	 * Initializes the PvP library registries,
 	 * and then registers a custom player implementation to Minestom.
+	 * <p>
+	 * The listeners for player initialization and jumping are registered to the global event handler.
 	 */
 	public static void init() {
+		init(true);
+	}
+	
+	/**
+	 * Initializes the PvP library registries,
+	 * and then registers a custom player implementation to Minestom.
+	 * <p>
+	 * If {@code registerGlobally} is false, the listeners for player initialization and jumping are not registered
+	 * to the global event handler. In that case, combat should be enabled per instance
+	 * using {@link MinestomPvP#register(Instance, CombatFeatureSet)}.
+	 * The listeners which track active effects (see {@link ActiveEffects}) are always registered globally.
+	 *
+	 * @param registerGlobally whether to register the player listeners to the global event handler
+	 */
+	public static void init(boolean registerGlobally) {
 		CombatEnchantments.registerAll();
 		CombatPotionEffects.registerAll();
 		CombatPotionTypes.registerAll();
+		CombatClassification.refresh();
+		EntityUtil.init();
+		ActiveEffects.init();
 		
-		CombatFeatureRegistry.init();
+		if (registerGlobally) CombatFeatureRegistry.init();
 		
 		MinecraftServer.getConnectionManager().setPlayerProvider(CombatPlayerImpl::new);
-		CombatPlayer.init(MinecraftServer.getGlobalEventHandler());
+		if (registerGlobally) CombatPlayer.init(MinecraftServer.getGlobalEventHandler());
+	}
+	
+	/**
+	 * Enables combat within an instance, by adding a node to the event node of the instance.
+	 * Besides the listeners of the feature set, the node contains the listeners for player initialization and jumping,
+	 * which means the library should have been initialized using {@code MinestomPvP.init(false)}.
+	 * <p>
+	 * Events of other instances will not pass through this node,
+	 * so instances without combat have no overhead.
+	 * The node can be removed again using {@code instance.eventNode().removeChild(node)}.
+	 *
+	 * @param instance the instance to enable combat in
+	 * @param featureSet the feature set to use within the instance
+	 * @return the node which has been added to the instance
+	 */
+	public static EventNode<InstanceEvent> register(Instance instance, CombatFeatureSet featureSet) {
+		EventNode<InstanceEvent> node = EventNode.type("minestompvp-" + instance.getUniqueId(), EventFilter.INSTANCE);
+		CombatFeatureRegistry.init(node);
+		CombatPlayer.init(node);
+		node.addChild(featureSet.createNode());
+		
+		instance.eventNode().addChild(node);
+		return node;
 	}
 }
@@ -0,0 +1,155 @@
+package io.github.togar2.pvp.damage;
+
+import net.minestom.server.coordinate.Point;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.damage.Damage;
+import net.minestom.server.entity.damage.DamageType;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.registry.DynamicRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Damage of the same type, source and attacker which is dealt to multiple entities at once,
+ * for example by an explosion or a sweeping attack. Every target has its own amount.
+ * <p>
+ * A batch is passed to {@link io.github.togar2.pvp.feature.damage.DamageFeature#damage(DamageBatch, ResultHandler)},
+ * which resolves everything the targets have in common only once.
+ * Targets can be cancelled individually, for example by a listener of {@link io.github.togar2.pvp.events.DamageBatchEvent}.
+ */
+public final class DamageBatch {
+	private final Instance instance;
+	private final DynamicRegistry.Key<DamageType> type;
+	private final Entity source;
+	private final Entity attacker;
+	private final Point sourcePosition;
+	
+	private final List<LivingEntity> targets = new ArrayList<>();
+	private float[] amounts = new float[8];
+	private final BitSet cancelled = new BitSet();
+	
+	public DamageBatch(@NotNull Instance instance, @NotNull DynamicRegistry.Key<DamageType> type,
+	                   @Nullable Entity source, @Nullable Entity attacker, @Nullable Point sourcePosition) {
+		this.instance = instance;
+		this.type = type;
+		this.source = source;
+		this.attacker = attacker;
+		this.sourcePosition = sourcePosition;
+	}
+	
+	/**
+	 * Creates a batch with the type, source, attacker and source position of the given damage.
+	 * The amount of the damage is ignored, since every target has its own amount.
+	 *
+	 * @param instance the instance the damage is dealt in
+	 * @param template the damage to copy the values from
+	 * @return the new batch
+	 */
+	public static @NotNull DamageBatch of(@NotNull Instance instance, @NotNull Damage template) {
+		return new DamageBatch(instance, template.getType(), template.getSource(),
+				template.getAttacker(), template.getSourcePosition());
+	}
+	
+	/**
+	 * Adds a target to this batch.
+	 *
+	 * @param target the target
+	 * @param amount the amount of damage to deal to the target
+	 */
+	public void add(@NotNull LivingEntity target, float amount) {
+		int index = targets.size();
+		if (index == amounts.length) amounts = Arrays.copyOf(amounts, index * 2);
+		targets.add(target);
+		amounts[index] = amount;
+	}
+	
+	/**
+	 * Creates the damage which should be dealt to the target at the given index.
+	 * A new object is created every time, since the damage is modified and kept by the target.
+	 *
+	 * @param index the index of the target
+	 * @return the damage for the target
+	 */
+	public @NotNull Damage createDamage(int index) {
+		return new Damage(type, source, attacker, sourcePosition, amounts[index]);
+	}
+	
+	public @NotNull Instance getInstance() {
+		return instance;
+	}
+	
+	public @NotNull DynamicRegistry.Key<DamageType> getType() {
+		return type;
+	}
+	
+	public @Nullable Entity getSource() {
+		return source;
+	}
+	
+	public @Nullable Entity getAttacker() {
+		return attacker;
+	}
+	
+	public @Nullable Point getSourcePosition() {
+		return sourcePosition;
+	}
+	
+	/**
+	 * @return the amount of targets in this batch
+	 */
+	public int size() {
+		return targets.size();
+	}
+	
+	public @NotNull LivingEntity getTarget(int index) {
+		return targets.get(index);
+	}
+	
+	public float getAmount(int index) {
+		return amounts[index];
+	}
+	
+	public void setAmount(int index, float amount) {
+		amounts[index] = amount;
+	}
+	
+	/**
+	 * @param index the index of the target
+	 * @return whether the damage to the target at the given index has been cancelled
+	 */
+	public boolean isCancelled(int index) {
+		return cancelled.get(index);
+	}
+	
+	/**
+	 * Sets whether the damage to the target at the given index should be cancelled.
+	 * Cancelled targets are not damaged, and are reported to the {@link ResultHandler} as not damaged.
+	 *
+	 * @param index the index of the target
+	 * @param cancel true to cancel the damage to the target
+	 */
+	public void setCancelled(int index, boolean cancel) {
+		cancelled.set(index, cancel);
+	}
+	
+	/**
+	 * Receives the result for every target of a batch, in the order the targets were added.
+	 */
+	@FunctionalInterface
+	public interface ResultHandler {
+		ResultHandler NONE = (target, amount, damaged) -> {};
+		
+		/**
+		 * @param target the target
+		 * @param amount the amount of damage the target was supposed to take
+		 * @param damaged whether the target has actually been damaged
+		 */
+		void accept(@NotNull LivingEntity target, float amount, boolean damaged);
+	}
+}
@@ -0,0 +1,108 @@
+package io.github.togar2.pvp.damage;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.damage.Damage;
+import net.minestom.server.entity.damage.DamageType;
+import net.minestom.server.registry.DynamicRegistry;
+import net.minestom.server.registry.Registry;
+import net.minestom.server.sound.SoundEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Everything the combat features need to know about a damage type, bundled together.
+ * <p>
+ * Profiles are stored in a table indexed by the registry id of the damage type,
+ * so the damage type only has to be looked up once for each damage, after which the profile is passed along.
+ * The table is filled the first time each damage type is used,
+ * which means damage types registered after startup are picked up as well.
+ * <p>
+ * Modifying {@link DamageTypeInfo#INFO_MAP} (e.g. using {@link DamageTypeInfo#register(DynamicRegistry.Key, DamageTypeInfo)})
+ * calls {@link #invalidate()}, so the changes are picked up.
+ *
+ * @param id the registry id of the damage type, or -1 if it is not registered
+ * @param key the key of the damage type
+ * @param type the damage type, or null if it is not registered
+ * @param info the combat info of the damage type
+ * @param exhaustion the exhaustion caused by the damage type
+ * @param effects the effects of the damage type (e.g. "thorns" or "burning"), or null if it has none
+ * @param playerHurtSound the sound a player makes when hurt by this damage type, or null for the default sound
+ * @param messageId the message id of the damage type, used for death messages
+ */
+public record DamageProfile(int id, @NotNull DynamicRegistry.Key<DamageType> key, @Nullable DamageType type,
+                            @NotNull DamageTypeInfo info, float exhaustion, @Nullable String effects,
+                            @Nullable SoundEvent playerHurtSound, @NotNull String messageId) {
+	private static final Object LOCK = new Object();
+	private static volatile DamageProfile[] profiles = new DamageProfile[0];
+	
+	/**
+	 * @param damage the damage
+	 * @return the profile of the type of the damage
+	 */
+	public static @NotNull DamageProfile of(@NotNull Damage damage) {
+		return of(damage.getType());
+	}
+	
+	/**
+	 * @param type the damage type
+	 * @return the profile of the damage type
+	 */
+	public static @NotNull DamageProfile of(@NotNull DamageType type) {
+		return of(MinecraftServer.getDamageTypeRegistry().getKey(type));
+	}
+	
+	/**
+	 * @param key the key of the damage type
+	 * @return the profile of the damage type
+	 */
+	public static @NotNull DamageProfile of(@NotNull DynamicRegistry.Key<DamageType> key) {
+		int id = MinecraftServer.getDamageTypeRegistry().getId(key);
+		if (id < 0) return create(id, key);
+		
+		DamageProfile[] profiles = DamageProfile.profiles;
+		if (id < profiles.length) {
+			DamageProfile profile = profiles[id];
+			if (profile != null && profile.key.equals(key)) return profile;
+		}
+		
+		synchronized (LOCK) {
+			DamageProfile profile = create(id, key);
+			DamageProfile[] newProfiles = DamageProfile.profiles;
+			if (id >= newProfiles.length) newProfiles = Arrays.copyOf(newProfiles, id + 1);
+			else newProfiles = newProfiles.clone();
+			newProfiles[id] = profile;
+			DamageProfile.profiles = newProfiles;
+			return profile;
+		}
+	}
+	
+	/**
+	 * Clears all the profiles, so they are created again the next time they are used.
+	 */
+	public static void invalidate() {
+		synchronized (LOCK) {
+			profiles = new DamageProfile[0];
+		}
+	}
+	
+	private static DamageProfile create(int id, DynamicRegistry.Key<DamageType> key) {
+		DamageType type = MinecraftServer.getDamageTypeRegistry().get(key);
+		DamageTypeInfo info = DamageTypeInfo.of(key);
+		if (type == null) return new DamageProfile(id, key, null, info, 0, null, null, "generic");
+		
+		Registry.DamageTypeEntry entry = type.registry();
+		String effects = entry == null ? null : entry.effects();
+		SoundEvent playerHurtSound = effects == null ? null : switch (effects) {
+			case "thorns" -> SoundEvent.ENCHANT_THORNS_HIT;
+			case "drowning" -> SoundEvent.ENTITY_PLAYER_HURT_DROWN;
+			case "burning" -> SoundEvent.ENTITY_PLAYER_HURT_ON_FIRE;
+			case "poking" -> SoundEvent.ENTITY_PLAYER_HURT_SWEET_BERRY_BUSH;
+			case "freezing" -> SoundEvent.ENTITY_PLAYER_HURT_FREEZE;
+			default -> null;
+		};
+		
+		return new DamageProfile(id, key, type, info, type.exhaustion(), effects, playerHurtSound, type.messageId());
+	}
+}
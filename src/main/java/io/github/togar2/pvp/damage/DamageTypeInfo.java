@@ -1,13 +1,17 @@
 package io.github.togar2.pvp.damage;
 
+import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.registry.DynamicRegistry;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public record DamageTypeInfo(boolean damagesHelmet, boolean bypassesArmor, boolean outOfWorld,
                              boolean unblockable, boolean fire, ScaleWithDifficulty scaleWithDifficulty,
@@ -27,8 +31,22 @@ public record DamageTypeInfo(boolean damagesHelmet, boolean bypassesArmor, boole
 		return INFO_MAP.getOrDefault(type, DEFAULT);
 	}
 	
+	/**
+	 * Sets the combat info of a damage type, replacing the current info.
+	 *
+	 * @param type the damage type
+	 * @param info the combat info of the damage type
+	 */
+	public static void register(DynamicRegistry.Key<DamageType> type, DamageTypeInfo info) {
+		INFO_MAP.put(type, info);
+	}
+	
+	/**
+	 * The combat info of all damage types. Modifying this map through its own methods invalidates
+	 * the cached {@link DamageProfile}s, modifying it through its views (e.g. {@link Map.Entry#setValue(Object)}) does not.
+	 */
 	//TODO check source and add missing
-	public static final Map<DynamicRegistry.Key<DamageType>, DamageTypeInfo> INFO_MAP = new HashMap<>() {
+	public static final Map<DynamicRegistry.Key<DamageType>, DamageTypeInfo> INFO_MAP = new InfoMap() {
 		{
 			put(DamageType.IN_FIRE, new DamageTypeInfo().bypassesArmor(true).fire(true));
 			put(DamageType.ON_FIRE, new DamageTypeInfo().bypassesArmor(true).fire(true));
@@ -180,6 +198,104 @@ public record DamageTypeInfo(boolean damagesHelmet, boolean bypassesArmor, boole
 		);
 	}
 	
+	/**
+	 * Map which invalidates the cached {@link DamageProfile}s when it is modified.
+	 */
+	private static class InfoMap extends HashMap<DynamicRegistry.Key<DamageType>, DamageTypeInfo> {
+		@Override
+		public DamageTypeInfo put(DynamicRegistry.Key<DamageType> key, DamageTypeInfo value) {
+			DamageTypeInfo previous = super.put(key, value);
+			DamageProfile.invalidate();
+			return previous;
+		}
+		
+		@Override
+		public void putAll(Map<? extends DynamicRegistry.Key<DamageType>, ? extends DamageTypeInfo> map) {
+			super.putAll(map);
+			DamageProfile.invalidate();
+		}
+		
+		@Override
+		public DamageTypeInfo putIfAbsent(DynamicRegistry.Key<DamageType> key, DamageTypeInfo value) {
+			DamageTypeInfo previous = super.putIfAbsent(key, value);
+			DamageProfile.invalidate();
+			return previous;
+		}
+		
+		@Override
+		public DamageTypeInfo remove(Object key) {
+			DamageTypeInfo previous = super.remove(key);
+			DamageProfile.invalidate();
+			return previous;
+		}
+		
+		@Override
+		public boolean remove(Object key, Object value) {
+			boolean removed = super.remove(key, value);
+			DamageProfile.invalidate();
+			return removed;
+		}
+		
+		@Override
+		public DamageTypeInfo replace(DynamicRegistry.Key<DamageType> key, DamageTypeInfo value) {
+			DamageTypeInfo previous = super.replace(key, value);
+			DamageProfile.invalidate();
+			return previous;
+		}
+		
+		@Override
+		public boolean replace(DynamicRegistry.Key<DamageType> key, DamageTypeInfo oldValue, DamageTypeInfo newValue) {
+			boolean replaced = super.replace(key, oldValue, newValue);
+			DamageProfile.invalidate();
+			return replaced;
+		}
+		
+		@Override
+		public void replaceAll(BiFunction<? super DynamicRegistry.Key<DamageType>, ? super DamageTypeInfo,
+				? extends DamageTypeInfo> function) {
+			super.replaceAll(function);
+			DamageProfile.invalidate();
+		}
+		
+		@Override
+		public DamageTypeInfo compute(DynamicRegistry.Key<DamageType> key, BiFunction<? super DynamicRegistry.Key<DamageType>,
+				? super DamageTypeInfo, ? extends DamageTypeInfo> function) {
+			DamageTypeInfo value = super.compute(key, function);
+			DamageProfile.invalidate();
+			return value;
+		}
+		
+		@Override
+		public DamageTypeInfo computeIfAbsent(DynamicRegistry.Key<DamageType> key,
+		                                      Function<? super DynamicRegistry.Key<DamageType>, ? extends DamageTypeInfo> function) {
+			DamageTypeInfo value = super.computeIfAbsent(key, function);
+			DamageProfile.invalidate();
+			return value;
+		}
+		
+		@Override
+		public DamageTypeInfo computeIfPresent(DynamicRegistry.Key<DamageType> key, BiFunction<? super DynamicRegistry.Key<DamageType>,
+				? super DamageTypeInfo, ? extends DamageTypeInfo> function) {
+			DamageTypeInfo value = super.computeIfPresent(key, function);
+			DamageProfile.invalidate();
+			return value;
+		}
+		
+		@Override
+		public DamageTypeInfo merge(DynamicRegistry.Key<DamageType> key, DamageTypeInfo value,
+		                            BiFunction<? super DamageTypeInfo, ? super DamageTypeInfo, ? extends DamageTypeInfo> function) {
+			DamageTypeInfo merged = super.merge(key, value, function);
+			DamageProfile.invalidate();
+			return merged;
+		}
+		
+		@Override
+		public void clear() {
+			super.clear();
+			DamageProfile.invalidate();
+		}
+	}
+	
 	public enum ScaleWithDifficulty {
 		ALWAYS,
 		WHEN_CAUSED_BY_LIVING_NON_PLAYER,
@@ -187,9 +303,17 @@ public record DamageTypeInfo(boolean damagesHelmet, boolean bypassesArmor, boole
 	}
 	
 	public boolean shouldScaleWithDifficulty(Damage damage) {
+		return shouldScaleWithDifficulty(damage.getAttacker());
+	}
+	
+	/**
+	 * @param attacker the attacker of the damage
+	 * @return whether damage of this type by the given attacker should scale with difficulty
+	 */
+	public boolean shouldScaleWithDifficulty(@Nullable Entity attacker) {
 		return switch (scaleWithDifficulty) {
 			case ALWAYS -> true;
-			case WHEN_CAUSED_BY_LIVING_NON_PLAYER -> damage.getAttacker() instanceof LivingEntity living && !(living instanceof Player);
+			case WHEN_CAUSED_BY_LIVING_NON_PLAYER -> attacker instanceof LivingEntity living && !(living instanceof Player);
 			case NEVER -> false;
 		};
 	}
@@ -1,8 +1,10 @@
 package io.github.togar2.pvp.damage.combat;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.damage.DamageTypeInfo;
 import io.github.togar2.pvp.feature.fall.FallFeature;
 import io.github.togar2.pvp.feature.state.PlayerStateFeature;
+import io.github.togar2.pvp.utils.CombatClassification;
 import io.github.togar2.pvp.utils.EntityUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
@@ -51,11 +53,7 @@ public class CombatManager {
 			return null;
 		}
 		
-		if (lastClimbedBlock.compare(Block.LADDER) || lastClimbedBlock.compare(Block.ACACIA_TRAPDOOR)
-				|| lastClimbedBlock.compare(Block.BIRCH_TRAPDOOR) || lastClimbedBlock.compare(Block.CRIMSON_TRAPDOOR)
-				|| lastClimbedBlock.compare(Block.IRON_TRAPDOOR) || lastClimbedBlock.compare(Block.DARK_OAK_TRAPDOOR)
-				|| lastClimbedBlock.compare(Block.JUNGLE_TRAPDOOR) || lastClimbedBlock.compare(Block.OAK_TRAPDOOR)
-				|| lastClimbedBlock.compare(Block.SPRUCE_TRAPDOOR) || lastClimbedBlock.compare(Block.WARPED_TRAPDOOR)) {
+		if (CombatClassification.isLadderLike(lastClimbedBlock)) {
 			return "ladder";
 		}
 		
@@ -147,9 +145,9 @@ public class CombatManager {
 			return Component.translatable("death.attack.badRespawnPoint.message", player.getName(), BAD_RESPAWN_POINT_MESSAGE);
 		}
 		
-		DamageType damageType = MinecraftServer.getDamageTypeRegistry().get(damage.getType());
-		if (damageType == null) return Component.empty();
-		String id = "death.attack." + damageType.messageId();
+		DamageProfile profile = DamageProfile.of(damage);
+		if (profile.type() == null) return Component.empty();
+		String id = "death.attack." + profile.messageId();
 		
 		Entity source = damage.getSource();
 		Entity attacker = damage.getAttacker();
@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.enchantment;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
@@ -40,6 +41,17 @@ public class CombatEnchantment {
 		return dependencies;
 	}
 	
+	/**
+	 * @param slot the equipment slot
+	 * @return whether this enchantment has effect on items in the specified slot
+	 */
+	public boolean isSlotType(EquipmentSlot slot) {
+		for (EquipmentSlot slotType : slotTypes) {
+			if (slotType == slot) return true;
+		}
+		return false;
+	}
+	
 	public Map<EquipmentSlot, ItemStack> getEquipment(LivingEntity entity) {
 		Map<EquipmentSlot, ItemStack> map = new HashMap<>();
 		
@@ -57,6 +69,10 @@ public class CombatEnchantment {
 		return 0;
 	}
 	
+	public int getProtectionAmount(int level, DamageProfile profile, EnchantmentFeature feature, FeatureConfiguration configuration) {
+		return getProtectionAmount(level, profile.type(), feature, configuration);
+	}
+	
 	public float getAttackDamage(int level, EntityGroup group, EnchantmentFeature feature, FeatureConfiguration configuration) {
 		return 0.0F;
 	}
@@ -16,6 +16,7 @@ import java.util.Set;
 
 public class CombatEnchantments {
 	private static final Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> ENCHANTMENTS = new HashMap<>();
+	private static volatile int version = 0;
 	
 	public static CombatEnchantment get(DynamicRegistry.Key<Enchantment> enchantment) {
 		return ENCHANTMENTS.get(enchantment);
@@ -25,6 +26,14 @@ public class CombatEnchantments {
 		for (CombatEnchantment enchantment : enchantments) {
 			ENCHANTMENTS.put(enchantment.getEnchantment(), enchantment);
 		}
+		version++;
+	}
+	
+	/**
+	 * @return a number which changes every time enchantments are registered, so cached lookups can be invalidated
+	 */
+	public static int getVersion() {
+		return version;
 	}
 	
 	public static FeatureType<?>[] getAllFeatureDependencies() {
@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.enchantment;
 
+import io.github.togar2.pvp.utils.CombatClassification;
 import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.LivingEntity;
 
@@ -11,7 +12,17 @@ public enum EntityGroup {
 	AQUATIC;
 	
 	public static EntityGroup ofEntity(LivingEntity entity) {
-		EntityType entityType = entity.getEntityType();
+		return CombatClassification.getEntityGroup(entity.getEntityType());
+	}
+	
+	/**
+	 * Determines the entity group of an entity type.
+	 * This is slow, use {@link #ofEntity(LivingEntity)} which reads the result from {@link CombatClassification}.
+	 *
+	 * @param entityType the entity type
+	 * @return the entity group
+	 */
+	public static EntityGroup classify(EntityType entityType) {
 		if (entityType == EntityType.BEE || entityType == EntityType.CAVE_SPIDER || entityType == EntityType.ENDERMITE || entityType == EntityType.SILVERFISH || entityType == EntityType.SPIDER) {
 			return EntityGroup.ARTHROPOD;
 		} else if (entityType == EntityType.COD || entityType == EntityType.DOLPHIN || entityType == EntityType.ELDER_GUARDIAN || entityType == EntityType.GUARDIAN || entityType == EntityType.PUFFERFISH || entityType == EntityType.SALMON || entityType == EntityType.SQUID || entityType == EntityType.TROPICAL_FISH || entityType == EntityType.TURTLE) {
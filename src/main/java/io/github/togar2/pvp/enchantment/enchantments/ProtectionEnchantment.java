@@ -1,10 +1,10 @@
 package io.github.togar2.pvp.enchantment.enchantments;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.damage.DamageTypeInfo;
 import io.github.togar2.pvp.enchantment.CombatEnchantment;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.item.enchant.Enchantment;
@@ -21,7 +21,13 @@ public class ProtectionEnchantment extends CombatEnchantment {
 	@Override
 	public int getProtectionAmount(int level, DamageType damageType,
 	                               EnchantmentFeature feature, FeatureConfiguration configuration) {
-		DamageTypeInfo damageTypeInfo = DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(damageType));
+		return getProtectionAmount(level, DamageProfile.of(damageType), feature, configuration);
+	}
+	
+	@Override
+	public int getProtectionAmount(int level, DamageProfile profile,
+	                               EnchantmentFeature feature, FeatureConfiguration configuration) {
+		DamageTypeInfo damageTypeInfo = profile.info();
 		if (damageTypeInfo.outOfWorld()) {
 			return 0;
 		} else if (type == Type.ALL) {
@@ -0,0 +1,305 @@
+package io.github.togar2.pvp.entity;
+
+import io.github.togar2.pvp.player.CombatPlayerImpl;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.tag.Tag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Per-entity storage for the primitive values combat features keep track of (fall distance, exhaustion, ...).
+ * <p>
+ * Features claim their slots once, as static fields next to their {@link io.github.togar2.pvp.feature.config.DefinedFeature},
+ * using {@link CombatState#longSlot(String, long)} and similar methods.
+ * Reading or writing a slot is then a plain array access, instead of a tag lookup.
+ * Objects which are accessed very often can be stored the same way, using {@link CombatState#objectSlot(String)}.
+ * <p>
+ * Entities implementing {@link Holder} (like {@link CombatPlayerImpl}) carry their state as a field,
+ * other entities get their state attached using a transient tag the first time it is requested.
+ */
+public final class CombatState {
+	private static final Tag<CombatState> STATE = Tag.Transient("combatState");
+	
+	private static final Object LOCK = new Object();
+	private static volatile long[] defaults = new long[0];
+	private static volatile int objectSlotCount;
+	
+	private long[] values;
+	private Object[] objects;
+	
+	public CombatState() {
+		this.values = defaults.clone();
+		this.objects = new Object[objectSlotCount];
+	}
+	
+	/**
+	 * Gets the combat state of an entity, creating it if it does not exist yet.
+	 *
+	 * @param entity the entity
+	 * @return the combat state of the entity
+	 */
+	public static @NotNull CombatState of(@NotNull LivingEntity entity) {
+		if (entity instanceof Holder holder) return holder.getCombatState();
+		
+		CombatState state = entity.getTag(STATE);
+		if (state != null) return state;
+		
+		// Created atomically, so threads racing to create the state all get the same one
+		return entity.updateAndGetTag(STATE, current -> current != null ? current : new CombatState());
+	}
+	
+	/**
+	 * Resets the specified slot to its default value.
+	 *
+	 * @param slot the slot to reset
+	 */
+	public void reset(@NotNull Slot slot) {
+		write(slot.index, slot.defaultBits);
+	}
+	
+	private long read(int index) {
+		if (index >= values.length) grow();
+		return values[index];
+	}
+	
+	private void write(int index, long bits) {
+		if (index >= values.length) grow();
+		values[index] = bits;
+	}
+	
+	private void grow() {
+		long[] currentDefaults = defaults;
+		long[] newValues = Arrays.copyOf(values, currentDefaults.length);
+		System.arraycopy(currentDefaults, values.length, newValues, values.length, currentDefaults.length - values.length);
+		values = newValues;
+	}
+	
+	private Object readObject(int index) {
+		return index < objects.length ? objects[index] : null;
+	}
+	
+	private void writeObject(int index, Object value) {
+		if (index >= objects.length) objects = Arrays.copyOf(objects, objectSlotCount);
+		objects[index] = value;
+	}
+	
+	private static int claim(long defaultBits) {
+		synchronized (LOCK) {
+			int index = defaults.length;
+			long[] newDefaults = Arrays.copyOf(defaults, index + 1);
+			newDefaults[index] = defaultBits;
+			defaults = newDefaults;
+			return index;
+		}
+	}
+	
+	public static LongSlot longSlot(String name, long defaultValue) {
+		return new LongSlot(name, defaultValue);
+	}
+	
+	public static IntSlot intSlot(String name, int defaultValue) {
+		return new IntSlot(name, defaultValue);
+	}
+	
+	public static FloatSlot floatSlot(String name, float defaultValue) {
+		return new FloatSlot(name, defaultValue);
+	}
+	
+	public static DoubleSlot doubleSlot(String name, double defaultValue) {
+		return new DoubleSlot(name, defaultValue);
+	}
+	
+	public static BooleanSlot booleanSlot(String name, boolean defaultValue) {
+		return new BooleanSlot(name, defaultValue);
+	}
+	
+	public static <T> ObjectSlot<T> objectSlot(String name) {
+		synchronized (LOCK) {
+			return new ObjectSlot<>(name, objectSlotCount++);
+		}
+	}
+	
+	/**
+	 * An entity which carries its own {@link CombatState}, so it does not have to be looked up using a tag.
+	 */
+	public interface Holder {
+		@NotNull CombatState getCombatState();
+	}
+	
+	/**
+	 * A claimed index in every {@link CombatState}. Values are stored as raw bits, subclasses take care of the conversion.
+	 */
+	public static abstract sealed class Slot permits LongSlot, IntSlot, FloatSlot, DoubleSlot, BooleanSlot {
+		private final String name;
+		final int index;
+		final long defaultBits;
+		
+		private Slot(String name, long defaultBits) {
+			this.name = name;
+			this.index = claim(defaultBits);
+			this.defaultBits = defaultBits;
+		}
+		
+		public String name() {
+			return name;
+		}
+		
+		public void reset(LivingEntity entity) {
+			CombatState.of(entity).reset(this);
+		}
+	}
+	
+	public static final class LongSlot extends Slot {
+		private final long defaultValue;
+		
+		private LongSlot(String name, long defaultValue) {
+			super(name, defaultValue);
+			this.defaultValue = defaultValue;
+		}
+		
+		public long defaultValue() {
+			return defaultValue;
+		}
+		
+		public long get(CombatState state) {
+			return state.read(index);
+		}
+		
+		public void set(CombatState state, long value) {
+			state.write(index, value);
+		}
+		
+		public long get(LivingEntity entity) {
+			return get(CombatState.of(entity));
+		}
+		
+		public void set(LivingEntity entity, long value) {
+			set(CombatState.of(entity), value);
+		}
+	}
+	
+	public static final class IntSlot extends Slot {
+		private IntSlot(String name, int defaultValue) {
+			super(name, defaultValue);
+		}
+		
+		public int get(CombatState state) {
+			return (int) state.read(index);
+		}
+		
+		public void set(CombatState state, int value) {
+			state.write(index, value);
+		}
+		
+		public int get(LivingEntity entity) {
+			return get(CombatState.of(entity));
+		}
+		
+		public void set(LivingEntity entity, int value) {
+			set(CombatState.of(entity), value);
+		}
+	}
+	
+	public static final class FloatSlot extends Slot {
+		private FloatSlot(String name, float defaultValue) {
+			super(name, Float.floatToRawIntBits(defaultValue));
+		}
+		
+		public float get(CombatState state) {
+			return Float.intBitsToFloat((int) state.read(index));
+		}
+		
+		public void set(CombatState state, float value) {
+			state.write(index, Float.floatToRawIntBits(value));
+		}
+		
+		public float get(LivingEntity entity) {
+			return get(CombatState.of(entity));
+		}
+		
+		public void set(LivingEntity entity, float value) {
+			set(CombatState.of(entity), value);
+		}
+	}
+	
+	public static final class DoubleSlot extends Slot {
+		private DoubleSlot(String name, double defaultValue) {
+			super(name, Double.doubleToRawLongBits(defaultValue));
+		}
+		
+		public double get(CombatState state) {
+			return Double.longBitsToDouble(state.read(index));
+		}
+		
+		public void set(CombatState state, double value) {
+			state.write(index, Double.doubleToRawLongBits(value));
+		}
+		
+		public double get(LivingEntity entity) {
+			return get(CombatState.of(entity));
+		}
+		
+		public void set(LivingEntity entity, double value) {
+			set(CombatState.of(entity), value);
+		}
+	}
+	
+	public static final class BooleanSlot extends Slot {
+		private BooleanSlot(String name, boolean defaultValue) {
+			super(name, defaultValue ? 1 : 0);
+		}
+		
+		public boolean get(CombatState state) {
+			return state.read(index) != 0;
+		}
+		
+		public void set(CombatState state, boolean value) {
+			state.write(index, value ? 1 : 0);
+		}
+		
+		public boolean get(LivingEntity entity) {
+			return get(CombatState.of(entity));
+		}
+		
+		public void set(LivingEntity entity, boolean value) {
+			set(CombatState.of(entity), value);
+		}
+	}
+	
+	/**
+	 * A claimed index for an object in every {@link CombatState}, the value is null by default.
+	 * This is meant for objects which are accessed very often, for other objects a tag is sufficient.
+	 */
+	public static final class ObjectSlot<T> {
+		private final String name;
+		private final int index;
+		
+		private ObjectSlot(String name, int index) {
+			this.name = name;
+			this.index = index;
+		}
+		
+		public String name() {
+			return name;
+		}
+		
+		@SuppressWarnings("unchecked")
+		public @Nullable T get(CombatState state) {
+			return (T) state.readObject(index);
+		}
+		
+		public void set(CombatState state, @Nullable T value) {
+			state.writeObject(index, value);
+		}
+		
+		public @Nullable T get(LivingEntity entity) {
+			return get(CombatState.of(entity));
+		}
+		
+		public void set(LivingEntity entity, @Nullable T value) {
+			set(CombatState.of(entity), value);
+		}
+	}
+}
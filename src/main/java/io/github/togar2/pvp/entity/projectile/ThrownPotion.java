@@ -1,6 +1,7 @@
 package io.github.togar2.pvp.entity.projectile;
 
 import io.github.togar2.pvp.feature.effect.EffectFeature;
+import io.github.togar2.pvp.feature.effect.ResolvedPotionContents;
 import io.github.togar2.pvp.utils.EffectUtil;
 import net.minestom.server.collision.BoundingBox;
 import net.minestom.server.coordinate.Pos;
@@ -10,8 +11,6 @@ import net.minestom.server.entity.metadata.item.ThrownPotionMeta;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
-import net.minestom.server.item.component.PotionContents;
-import net.minestom.server.potion.Potion;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,10 +44,10 @@ public class ThrownPotion extends CustomEntityProjectile implements ItemHoldingP
 	public void splash(@Nullable Entity entity) {
 		ItemStack item = getItem();
 		
-		PotionContents potionContents = item.get(ItemComponent.POTION_CONTENTS);
-		List<Potion> potions = effectFeature.getAllPotions(potionContents);
+		// Resolved once for all entities in range
+		ResolvedPotionContents potionContents = effectFeature.resolve(item.get(ItemComponent.POTION_CONTENTS));
 		
-		if (!potions.isEmpty()) {
+		if (!potionContents.isEmpty()) {
 			if (item.material() == Material.LINGERING_POTION) {
 				//TODO lingering
 			} else {
@@ -58,23 +57,15 @@ public class ThrownPotion extends CustomEntityProjectile implements ItemHoldingP
 		
 		Pos position = getPosition();
 		
-		boolean instantEffect = false;
-		for (Potion potion : potions) {
-			if (potion.effect().registry().isInstantaneous()) {
-				instantEffect = true;
-				break;
-			}
-		}
-		
-		Effects effect = instantEffect ? Effects.INSTANT_SPLASH : Effects.SPLASH_POTION;
+		Effects effect = potionContents.instant() ? Effects.INSTANT_SPLASH : Effects.SPLASH_POTION;
 		EffectUtil.sendNearby(
 				Objects.requireNonNull(getInstance()), effect, position.blockX(),
-				position.blockY(), position.blockZ(), effectFeature.getPotionColor(potionContents),
+				position.blockY(), position.blockZ(), potionContents.color(),
 				64.0, false
 		);
 	}
 	
-	private void applySplash(PotionContents potionContents, @Nullable Entity hitEntity) {
+	private void applySplash(ResolvedPotionContents potionContents, @Nullable Entity hitEntity) {
 		BoundingBox boundingBox = getBoundingBox().expand(8.0, 4.0, 8.0);
 		List<LivingEntity> entities = Objects.requireNonNull(getInstance()).getEntities().stream()
 				.filter(entity -> boundingBox.intersectEntity(getPosition().add(0, -2, 0), entity))
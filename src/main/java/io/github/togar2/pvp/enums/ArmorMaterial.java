@@ -104,13 +104,20 @@ public enum ArmorMaterial {
 	}
 	
 	public static EquipmentSlot getRequiredSlot(Material material) {
-		EquipmentSlot slot = material.registry().equipmentSlot();
-		return slot == null ? EquipmentSlot.HELMET : slot;
+		return CombatMaterialProfile.of(material).armorSlot();
 	}
 	
 	private static final Map<Material, ArmorMaterial> MATERIAL_TO_ARMOR_MATERIAL = new HashMap<>();
 	
+	/**
+	 * @param material the material
+	 * @return the armor material of the material, see {@link CombatMaterialProfile#armorMaterial()}
+	 */
 	public static ArmorMaterial fromMaterial(Material material) {
+		return CombatMaterialProfile.of(material).armorMaterial();
+	}
+	
+	static ArmorMaterial byMaterial(Material material) {
 		return MATERIAL_TO_ARMOR_MATERIAL.get(material);
 	}
 	
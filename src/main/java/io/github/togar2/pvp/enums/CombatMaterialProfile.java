@@ -0,0 +1,107 @@
+package io.github.togar2.pvp.enums;
+
+import net.minestom.server.entity.EquipmentSlot;
+import net.minestom.server.item.Material;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Everything the combat features need to know about a material, like its tool and armor data.
+ * <p>
+ * Profiles are stored in a table indexed by {@link Material#id()}, which is built once from {@link Tool},
+ * {@link ToolMaterial} and {@link ArmorMaterial}. Looking up the profile of an item is thus a single array access,
+ * and no string operations are needed when an item is used.
+ * <p>
+ * The behavior of a material can be customized by registering a different profile for it
+ * using {@link #register(CombatMaterialProfile)}, for example to give a custom item the stats of a sword.
+ *
+ * @param material the material
+ * @param tool the tool of the material, or null if it is not a tool
+ * @param toolMaterial the tool material of the material, or null if it is not a tool
+ * @param armorMaterial the armor material of the material, or null if it is not armor
+ * @param armorSlot the slot the material should be worn in to count as armor
+ * @param sword whether the material is a sword (used for sweeping)
+ * @param axe whether the material is an axe (used for disabling shields)
+ * @param fireResistant whether armor of this material is not damaged by fire
+ * @param legacyBlockable whether the material can be used to block in legacy combat
+ */
+public record CombatMaterialProfile(@NotNull Material material, @Nullable Tool tool, @Nullable ToolMaterial toolMaterial,
+                                    @Nullable ArmorMaterial armorMaterial, @NotNull EquipmentSlot armorSlot,
+                                    boolean sword, boolean axe, boolean fireResistant, boolean legacyBlockable) {
+	private static final Object LOCK = new Object();
+	private static volatile CombatMaterialProfile[] profiles;
+	
+	/**
+	 * @param material the material
+	 * @return the profile of the material
+	 */
+	public static @NotNull CombatMaterialProfile of(@NotNull Material material) {
+		CombatMaterialProfile[] profiles = profiles();
+		int id = material.id();
+		if (id >= 0 && id < profiles.length) {
+			CombatMaterialProfile profile = profiles[id];
+			if (profile != null) return profile;
+		}
+		
+		return createDefault(material);
+	}
+	
+	/**
+	 * Registers a profile, replacing the current profile of its material.
+	 *
+	 * @param profile the profile to register
+	 */
+	public static void register(@NotNull CombatMaterialProfile profile) {
+		synchronized (LOCK) {
+			CombatMaterialProfile[] newProfiles = profiles().clone();
+			int id = profile.material().id();
+			if (id >= newProfiles.length) newProfiles = Arrays.copyOf(newProfiles, id + 1);
+			newProfiles[id] = profile;
+			CombatMaterialProfile.profiles = newProfiles;
+		}
+	}
+	
+	/**
+	 * Creates the default profile of a material, which is based on the values in {@link Tool},
+	 * {@link ToolMaterial} and {@link ArmorMaterial}. This can be used to create a modified profile.
+	 *
+	 * @param material the material
+	 * @return the default profile of the material
+	 */
+	public static @NotNull CombatMaterialProfile createDefault(@NotNull Material material) {
+		Tool tool = Tool.byMaterial(material);
+		EquipmentSlot armorSlot = material.registry().equipmentSlot();
+		String name = material.namespace().value();
+		
+		return new CombatMaterialProfile(
+				material, tool, ToolMaterial.byMaterial(material), ArmorMaterial.byMaterial(material),
+				armorSlot == null ? EquipmentSlot.HELMET : armorSlot,
+				tool != null && tool.isSword(), tool != null && tool.isAxe(),
+				name.contains("netherite"), name.contains("sword")
+		);
+	}
+	
+	private static CombatMaterialProfile[] profiles() {
+		CombatMaterialProfile[] profiles = CombatMaterialProfile.profiles;
+		if (profiles != null) return profiles;
+		
+		synchronized (LOCK) {
+			if (CombatMaterialProfile.profiles != null) return CombatMaterialProfile.profiles;
+			
+			int maxId = 0;
+			for (Material material : Material.values()) {
+				maxId = Math.max(maxId, material.id());
+			}
+			
+			profiles = new CombatMaterialProfile[maxId + 1];
+			for (Material material : Material.values()) {
+				profiles[material.id()] = createDefault(material);
+			}
+			
+			CombatMaterialProfile.profiles = profiles;
+			return profiles;
+		}
+	}
+}
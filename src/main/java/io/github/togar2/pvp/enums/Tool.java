@@ -57,6 +57,9 @@ public enum Tool {
 	// 5.0 seems to be balanced
 	TRIDENT(null, 8.0F, 5.0F, -2.9F);
 	
+	// values() creates a new array every call
+	private static final Tool[] VALUES = values();
+	
 	private final Material material;
 	private boolean isAxe = false;
 	private boolean isSword = false;
@@ -115,8 +118,16 @@ public enum Tool {
 		return isSword;
 	}
 	
+	/**
+	 * @param material the material
+	 * @return the tool of the material, see {@link CombatMaterialProfile#tool()}
+	 */
 	public static Tool fromMaterial(Material material) {
-		for (Tool tool : values()) {
+		return CombatMaterialProfile.of(material).tool();
+	}
+	
+	static Tool byMaterial(Material material) {
+		for (Tool tool : VALUES) {
 			if (tool.material == material) {
 				return tool;
 			}
@@ -39,7 +39,15 @@ public enum ToolMaterial {
 	
 	private static final Map<Material, ToolMaterial> MATERIAL_TO_TOOL_MATERIAL = new HashMap<>();
 	
+	/**
+	 * @param material the material
+	 * @return the tool material of the material, see {@link CombatMaterialProfile#toolMaterial()}
+	 */
 	public static ToolMaterial fromMaterial(Material material) {
+		return CombatMaterialProfile.of(material).toolMaterial();
+	}
+	
+	static ToolMaterial byMaterial(Material material) {
 		return MATERIAL_TO_TOOL_MATERIAL.get(material);
 	}
 	
@@ -0,0 +1,49 @@
+package io.github.togar2.pvp.events;
+
+import io.github.togar2.pvp.damage.DamageBatch;
+import net.minestom.server.event.trait.CancellableEvent;
+import net.minestom.server.event.trait.InstanceEvent;
+import net.minestom.server.instance.Instance;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called once before the targets of a {@link DamageBatch} are damaged (e.g. by an explosion or a sweeping attack).
+ * The amounts can be changed and targets can be cancelled individually through {@link #getBatch()},
+ * cancelling this event cancels the damage to all targets.
+ * <p>
+ * Every target which is not cancelled will still call the normal damage events.
+ */
+public class DamageBatchEvent implements InstanceEvent, CancellableEvent {
+	
+	private final DamageBatch batch;
+	
+	private boolean cancelled;
+	
+	public DamageBatchEvent(@NotNull DamageBatch batch) {
+		this.batch = batch;
+	}
+	
+	/**
+	 * Gets the batch of damage, which can be used to change the amounts or cancel individual targets.
+	 *
+	 * @return the batch
+	 */
+	public @NotNull DamageBatch getBatch() {
+		return batch;
+	}
+	
+	@Override
+	public @NotNull Instance getInstance() {
+		return batch.getInstance();
+	}
+	
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	@Override
+	public void setCancelled(boolean cancel) {
+		this.cancelled = cancel;
+	}
+}
@@ -1,13 +1,24 @@
 package io.github.togar2.pvp.feature;
 
+import io.github.togar2.pvp.feature.config.CombatConfiguration;
+import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.trait.EntityInstanceEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A container for multiple {@link CombatFeature}s. Use {@link CombatFeatureSet#createNode()} to get an event node.
+ * <p>
+ * Use {@link CombatFeatureSet#createCompiledNode()} to get an event node with exactly one listener per event type,
+ * instead of a child node for every feature.
  */
 public class CombatFeatureSet extends FeatureConfiguration implements RegistrableFeature {
+	private final Map<FeatureType<?>, DefinedFeature<?>> definitions = new HashMap<>();
+	
 	@Override
 	public void init(EventNode<EntityInstanceEvent> node) {
 		for (CombatFeature feature : listFeatures()) {
@@ -16,6 +27,49 @@ public class CombatFeatureSet extends FeatureConfiguration implements Registrabl
 		}
 	}
 	
+	/**
+	 * Collects the listeners of all features in this set, grouped by event type and ordered by priority.
+	 *
+	 * @return the compiled feature set
+	 */
+	public CompiledFeatureSet compile() {
+		return new CompiledFeatureSet(this);
+	}
+	
+	/**
+	 * Creates an event node with all the listeners of this feature set attached,
+	 * but with only one listener per event type. The behavior is the same as the node of {@link #createNode()}.
+	 *
+	 * @return the compiled event node
+	 * @see CompiledFeatureSet
+	 */
+	public EventNode<EntityInstanceEvent> createCompiledNode() {
+		return compile().createNode();
+	}
+	
+	/**
+	 * Records the {@link DefinedFeature} from which the feature of the specified type has been constructed.
+	 * This is done by {@link CombatConfiguration#build()}.
+	 *
+	 * @param type the feature type
+	 * @param definition the definition of the feature
+	 * @throws IllegalStateException if this feature set has been frozen
+	 */
+	public void setDefinition(FeatureType<?> type, DefinedFeature<?> definition) {
+		if (isFrozen()) throw new IllegalStateException("Cannot modify a frozen feature set");
+		definitions.put(type, definition);
+	}
+	
+	/**
+	 * Gets the {@link DefinedFeature} from which the feature of the specified type has been constructed.
+	 *
+	 * @param type the feature type
+	 * @return the definition, or null if the feature was added as an instance or is not present
+	 */
+	public @Nullable DefinedFeature<?> getDefinition(FeatureType<?> type) {
+		return definitions.get(type);
+	}
+	
 	@Override
 	public void initDependencies() {
 		for (CombatFeature feature : listFeatures()) {
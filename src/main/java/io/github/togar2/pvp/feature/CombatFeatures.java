@@ -18,6 +18,7 @@ import io.github.togar2.pvp.feature.enchantment.VanillaEnchantmentFeature;
 import io.github.togar2.pvp.feature.explosion.VanillaExplosionFeature;
 import io.github.togar2.pvp.feature.explosion.VanillaExplosiveFeature;
 import io.github.togar2.pvp.feature.fall.VanillaFallFeature;
+import io.github.togar2.pvp.feature.feedback.CoalescingFeedbackFeature;
 import io.github.togar2.pvp.feature.food.VanillaExhaustionFeature;
 import io.github.togar2.pvp.feature.food.VanillaFoodFeature;
 import io.github.togar2.pvp.feature.food.VanillaRegenerationFeature;
@@ -28,6 +29,7 @@ import io.github.togar2.pvp.feature.projectile.*;
 import io.github.togar2.pvp.feature.provider.DifficultyProvider;
 import io.github.togar2.pvp.feature.spectate.VanillaSpectateFeature;
 import io.github.togar2.pvp.feature.state.VanillaPlayerStateFeature;
+import io.github.togar2.pvp.feature.tick.FusedPlayerTickFeature;
 import io.github.togar2.pvp.feature.totem.VanillaTotemFeature;
 import io.github.togar2.pvp.feature.tracking.VanillaDeathMessageFeature;
 import io.github.togar2.pvp.utils.CombatVersion;
@@ -164,6 +166,35 @@ public class CombatFeatures {
 	 */
 	public static final DefinedFeature<VanillaDeathMessageFeature> VANILLA_DEATH_MESSAGE = VanillaDeathMessageFeature.DEFINED;
 	
+	/**
+	 * Optional feature which calls the player tick logic of all features from one listener,
+	 * it is not part of the vanilla feature sets.
+	 *
+	 * @see FusedPlayerTickFeature
+	 */
+	public static final DefinedFeature<FusedPlayerTickFeature> FUSED_PLAYER_TICK = FusedPlayerTickFeature.DEFINED;
+	/**
+	 * Alternative to {@link CombatFeatures#VANILLA_ATTACK} which resolves all attacks of a tick in one pass
+	 * at the end of the tick, it is not part of the vanilla feature sets.
+	 *
+	 * @see VanillaAttackFeature#BATCHED
+	 */
+	public static final DefinedFeature<VanillaAttackFeature> BATCHED_VANILLA_ATTACK = VanillaAttackFeature.BATCHED;
+	/**
+	 * Optional feature which merges the damage and attack feedback (animations, sounds, particles) of an entity per tick,
+	 * it is not part of the vanilla feature sets.
+	 *
+	 * @see CoalescingFeedbackFeature
+	 */
+	public static final DefinedFeature<CoalescingFeedbackFeature> COALESCING_FEEDBACK = CoalescingFeedbackFeature.DEFINED;
+	/**
+	 * Alternative to {@link CombatFeatures#VANILLA_ITEM_DAMAGE} which applies all armor durability damage of a tick at once
+	 * at the end of the tick, it is not part of the vanilla feature sets.
+	 *
+	 * @see VanillaItemDamageFeature#DEFERRED
+	 */
+	public static final DefinedFeature<VanillaItemDamageFeature> DEFERRED_ITEM_DAMAGE = VanillaItemDamageFeature.DEFERRED;
+	
 	/**
 	 * @see LegacyVanillaBlockFeature
 	 */
@@ -180,11 +211,16 @@ public class CombatFeatures {
 			VANILLA_TOTEM, VANILLA_DEATH_MESSAGE
 	);
 	
-	private static final CombatFeatureSet MODERN_VANILLA = getVanilla(CombatVersion.MODERN, DifficultyProvider.DEFAULT).build();
+	// Holder classes, so the vanilla feature sets are only built when they are first used
+	private static final class ModernVanilla {
+		private static final CombatFeatureSet SET = getVanilla(CombatVersion.MODERN, DifficultyProvider.DEFAULT).build();
+	}
 	
-	private static final CombatFeatureSet LEGACY_VANILLA = getVanilla(CombatVersion.LEGACY, DifficultyProvider.DEFAULT)
-			.add(LEGACY_VANILLA_BLOCK)
-			.build();
+	private static final class LegacyVanilla {
+		private static final CombatFeatureSet SET = getVanilla(CombatVersion.LEGACY, DifficultyProvider.DEFAULT)
+				.add(LEGACY_VANILLA_BLOCK)
+				.build();
+	}
 	
 	/**
 	 * Returns a feature set for the full modern vanilla experience. Use {@link CombatFeatureSet#createNode()} to get an event node.
@@ -192,7 +228,7 @@ public class CombatFeatures {
 	 * @return the {@link CombatFeatureSet} with all modern features
 	 */
 	public static CombatFeatureSet modernVanilla() {
-		return MODERN_VANILLA;
+		return ModernVanilla.SET;
 	}
 	
 	/**
@@ -201,7 +237,7 @@ public class CombatFeatures {
 	 * @return the {@link CombatFeatureSet} with all legacy features
 	 */
 	public static CombatFeatureSet legacyVanilla() {
-		return LEGACY_VANILLA;
+		return LegacyVanilla.SET;
 	}
 	
 	/**
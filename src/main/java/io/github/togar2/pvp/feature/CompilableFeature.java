@@ -0,0 +1,26 @@
+package io.github.togar2.pvp.feature;
+
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+
+/**
+ * A {@link RegistrableFeature} which adds all its listeners through a {@link ListenerCollector}.
+ * <p>
+ * The listeners of these features can be collected by {@link CompiledFeatureSet},
+ * so they can be called from one listener per event type instead of from a separate event node.
+ * Subclasses should add their listeners in {@link CompilableFeature#init(ListenerCollector)};
+ * if {@link RegistrableFeature#init(EventNode)} is overridden, the feature is not compiled and gets its own event node.
+ */
+public interface CompilableFeature extends RegistrableFeature {
+	/**
+	 * Initializes this feature by adding its listeners to the given collector.
+	 *
+	 * @param collector the collector to add the listeners to
+	 */
+	void init(ListenerCollector collector);
+	
+	@Override
+	default void init(EventNode<EntityInstanceEvent> node) {
+		init(ListenerCollector.of(node));
+	}
+}
@@ -0,0 +1,164 @@
+package io.github.togar2.pvp.feature;
+
+import net.minestom.server.event.EventListener;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A {@link CombatFeatureSet} of which the listeners have been collected into one list.
+ * Use {@link CombatFeatureSet#compile()} to obtain one.
+ * <p>
+ * The listeners are collected from all {@link CompilableFeature}s through a {@link ListenerCollector}.
+ * The event node created by {@link CompiledFeatureSet#createNode()} contains exactly one listener per event type,
+ * which calls the listeners of all features in order of their priority (see {@link RegistrableFeature#getPriority()}),
+ * and in order of registration within one feature. Like in an {@link EventNode}, a listener only receives events
+ * of exactly its event type, or of its subtypes if they are a {@link net.minestom.server.event.trait.RecursiveEvent}.
+ * In that case listeners of the supertype and the subtype are also called in this order. Listeners which expire (see {@link EventListener.Result#EXPIRED}) are not called anymore.
+ * <p>
+ * Features which are not a {@link CompilableFeature} are added to the compiled node as a normal child node.
+ */
+public final class CompiledFeatureSet {
+	private final CombatFeatureSet featureSet;
+	private final List<CompiledListener<?>> listeners;
+	private final Set<Class<? extends EntityInstanceEvent>> eventTypes;
+	private final List<RegistrableFeature> uncompiled;
+	
+	// The listeners which should be called for an event class, in order
+	private final ClassValue<CompiledListener<?>[]> eventListeners = new ClassValue<>() {
+		@Override
+		protected CompiledListener<?>[] computeValue(Class<?> eventClass) {
+			return listeners.stream()
+					.filter(listener -> Dispatchers.receives(listener.eventType, eventClass))
+					.toArray(CompiledListener<?>[]::new);
+		}
+	};
+	
+	CompiledFeatureSet(CombatFeatureSet featureSet) {
+		this.featureSet = featureSet;
+		
+		List<CompiledListener<?>> listeners = new ArrayList<>();
+		List<RegistrableFeature> uncompiled = new ArrayList<>();
+		collect(featureSet, new ListenerCollector() {
+			@Override
+			public <E extends EntityInstanceEvent> void addListener(@NotNull EventListener<E> listener) {
+				listeners.add(new CompiledListener<>(listener));
+			}
+		}, uncompiled);
+		
+		Set<Class<? extends EntityInstanceEvent>> eventTypes = new LinkedHashSet<>();
+		for (CompiledListener<?> listener : listeners) {
+			eventTypes.add(listener.eventType);
+		}
+		
+		this.listeners = List.copyOf(listeners);
+		this.eventTypes = Collections.unmodifiableSet(eventTypes);
+		this.uncompiled = List.copyOf(uncompiled);
+	}
+	
+	/**
+	 * @return the feature set this has been compiled from
+	 */
+	public @NotNull CombatFeatureSet featureSet() {
+		return featureSet;
+	}
+	
+	/**
+	 * @return all the event types which have at least one compiled listener
+	 */
+	public @NotNull Set<Class<? extends EntityInstanceEvent>> eventTypes() {
+		return eventTypes;
+	}
+	
+	/**
+	 * Calls all compiled listeners which accept the given event, in the order they should be called.
+	 *
+	 * @param event the event
+	 */
+	public void call(@NotNull EntityInstanceEvent event) {
+		for (CompiledListener<?> listener : eventListeners.get(event.getClass())) {
+			listener.run(event);
+		}
+	}
+	
+	/**
+	 * @return the features which could not be compiled and need their own event node
+	 */
+	public @NotNull List<RegistrableFeature> uncompiledFeatures() {
+		return uncompiled;
+	}
+	
+	/**
+	 * Creates an event node with one listener per event type, calling all the compiled listeners.
+	 *
+	 * @return the event node
+	 */
+	public EventNode<EntityInstanceEvent> createNode() {
+		EventNode<EntityInstanceEvent> node = EventNode.type(
+				featureSet.getClass().getTypeName(), RegistrableFeature.ENTITY_INSTANCE_FILTER);
+		node.setPriority(featureSet.getPriority());
+		
+		new Dispatchers(node, this::call).add(eventTypes);
+		
+		for (RegistrableFeature feature : uncompiled) {
+			node.addChild(feature.createNode());
+		}
+		
+		return node;
+	}
+	
+	static List<RegistrableFeature> sortedFeatures(CombatFeatureSet featureSet) {
+		List<RegistrableFeature> features = new ArrayList<>();
+		for (CombatFeature feature : featureSet.listFeatures()) {
+			if (feature instanceof RegistrableFeature registrable) features.add(registrable);
+		}
+		
+		// Stable sort, same as the ordering of child nodes
+		features.sort(Comparator.comparingInt(RegistrableFeature::getPriority));
+		return features;
+	}
+	
+	private static void collect(CombatFeatureSet featureSet, ListenerCollector collector,
+	                            List<RegistrableFeature> uncompiled) {
+		for (RegistrableFeature feature : sortedFeatures(featureSet)) {
+			if (feature instanceof CombatFeatureSet nested) {
+				// Nested sets are flattened, their priority applies to all their features
+				collect(nested, collector, uncompiled);
+			} else if (feature instanceof CompilableFeature compilable && !overridesNodeInit(compilable)) {
+				compilable.init(collector);
+			} else {
+				uncompiled.add(feature);
+			}
+		}
+	}
+	
+	/**
+	 * Checks whether a subclass has overridden {@link CompilableFeature#init(EventNode)}.
+	 * Listeners added there would not be collected, so the feature needs its own node.
+	 */
+	private static boolean overridesNodeInit(CompilableFeature feature) {
+		try {
+			return feature.getClass().getMethod("init", EventNode.class).getDeclaringClass() != CompilableFeature.class;
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static final class CompiledListener<E extends EntityInstanceEvent> {
+		private final Class<E> eventType;
+		private final EventListener<E> listener;
+		private volatile boolean expired = false;
+		
+		private CompiledListener(EventListener<E> listener) {
+			this.eventType = listener.eventType();
+			this.listener = listener;
+		}
+		
+		private void run(EntityInstanceEvent event) {
+			if (expired) return;
+			if (listener.run(eventType.cast(event)) == EventListener.Result.EXPIRED) expired = true;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package io.github.togar2.pvp.feature;
+
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.event.trait.RecursiveEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Adds one listener per event type to an event node, which all pass their events to the same handler.
+ * <p>
+ * Like an {@link EventNode}, a listener only receives events of exactly its event type,
+ * or also of its subtypes if those are a {@link RecursiveEvent} (see {@link #receives(Class, Class)}).
+ * A recursive event which is received by multiple of the event types is handled only once,
+ * by the listener of the event type which was added first. The handler is responsible for calling
+ * the listeners of all matching types, so their order does not depend on the order of the dispatchers.
+ */
+final class Dispatchers {
+	private final EventNode<EntityInstanceEvent> node;
+	private final Consumer<EntityInstanceEvent> handler;
+	private final List<Class<? extends EntityInstanceEvent>> eventTypes = new ArrayList<>();
+	
+	private volatile ClassValue<Class<?>> owners = owners(List.of());
+	
+	Dispatchers(EventNode<EntityInstanceEvent> node, Consumer<EntityInstanceEvent> handler) {
+		this.node = node;
+		this.handler = handler;
+	}
+	
+	/**
+	 * Adds a dispatcher for each of the event types which do not have one yet.
+	 *
+	 * @param types the event types
+	 */
+	synchronized void add(Collection<Class<? extends EntityInstanceEvent>> types) {
+		List<Class<? extends EntityInstanceEvent>> added = new ArrayList<>();
+		for (Class<? extends EntityInstanceEvent> type : types) {
+			if (eventTypes.contains(type)) continue;
+			eventTypes.add(type);
+			added.add(type);
+		}
+		if (added.isEmpty()) return;
+		
+		// Only events which were not dispatched before get a new owner, so this can be done before adding the listeners
+		owners = owners(List.copyOf(eventTypes));
+		for (Class<? extends EntityInstanceEvent> type : added) {
+			addDispatcher(type);
+		}
+	}
+	
+	private void addDispatcher(Class<? extends EntityInstanceEvent> eventType) {
+		node.addListener(eventType, event -> {
+			if (owners.get(event.getClass()) == eventType) handler.accept(event);
+		});
+	}
+	
+	/**
+	 * Checks whether a listener of the given event type receives events of the given class when added to an {@link EventNode}.
+	 * This is only the case for the exact event class, and for its superclasses if it is a {@link RecursiveEvent}.
+	 *
+	 * @param eventType the event type of the listener
+	 * @param eventClass the class of the event
+	 * @return whether the listener receives the event
+	 */
+	static boolean receives(Class<?> eventType, Class<?> eventClass) {
+		if (eventType == eventClass) return true;
+		if (!RecursiveEvent.class.isAssignableFrom(eventClass)) return false;
+		
+		for (Class<?> type = eventClass.getSuperclass(); type != null; type = type.getSuperclass()) {
+			if (type == eventType) return true;
+		}
+		return false;
+	}
+	
+	private static ClassValue<Class<?>> owners(List<Class<? extends EntityInstanceEvent>> eventTypes) {
+		return new ClassValue<>() {
+			@Override
+			protected Class<?> computeValue(Class<?> eventClass) {
+				for (Class<?> type : eventTypes) {
+					if (receives(type, eventClass)) return type;
+				}
+				return null;
+			}
+		};
+	}
+}
@@ -0,0 +1,205 @@
+package io.github.togar2.pvp.feature;
+
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.entity.projectile.CustomEntityProjectile;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.entity.EntityDamageEvent;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Routes events to one of multiple {@link CombatFeatureSet}s, depending on which feature set has been
+ * assigned to the entity of the event. This allows for example legacy and modern players to play in the same instance,
+ * while the event only passes through one node.
+ * <p>
+ * The node contains one listener per event type. The assigned feature set is stored as an index in the
+ * {@link CombatState} of the entity (in a single slot shared by all routers), so finding the feature set to call is a single array access.
+ * Entities without an assignment use the default feature set.
+ * <p>
+ * Events are handled by the feature set of the entity the event is about ({@link EntityInstanceEvent#getEntity()}),
+ * with the following rules for interactions between entities with different feature sets:
+ * <ul>
+ *     <li>An attack is handled by the feature set of the attacker, since the attacker is the entity of the attack event.
+ *     This means the attack damage, cooldown, sweeping and knockback strength follow the rules of the attacker.</li>
+ *     <li>Damage is handled by the feature set of the victim with {@link CrossSetRule#VICTIM} (the default),
+ *     so armor, blocking and invulnerability follow the rules of the victim.
+ *     With {@link CrossSetRule#ATTACKER}, damage with an attacker is handled by the feature set of the attacker instead.</li>
+ *     <li>Events of projectiles are handled by the feature set of the shooter.</li>
+ * </ul>
+ * Features which could not be compiled (see {@link CompiledFeatureSet}) are not supported by the router,
+ * since they need their own event node. An exception is thrown when assigning such a feature set.
+ */
+public final class FeatureSetRouter {
+	private static final CombatState.ObjectSlot<Assignment> ASSIGNMENT = CombatState.objectSlot("featureSetRouter");
+	
+	private final EventNode<EntityInstanceEvent> node;
+	private final CombatFeatureSet defaultSet;
+	private final CrossSetRule crossSetRule;
+	
+	private final Map<CombatFeatureSet, Integer> setIndices = new IdentityHashMap<>();
+	private final List<CompiledFeatureSet> sets = new ArrayList<>();
+	private final Dispatchers dispatchers;
+	
+	/**
+	 * The compiled feature sets, indexed by the index stored in the {@link CombatState} of entities
+	 */
+	private volatile CompiledFeatureSet[] table = new CompiledFeatureSet[0];
+	
+	public FeatureSetRouter(@NotNull CombatFeatureSet defaultSet) {
+		this(defaultSet, CrossSetRule.VICTIM);
+	}
+	
+	public FeatureSetRouter(@NotNull CombatFeatureSet defaultSet, @NotNull CrossSetRule crossSetRule) {
+		this.node = EventNode.type(getClass().getTypeName(), RegistrableFeature.ENTITY_INSTANCE_FILTER);
+		this.defaultSet = defaultSet;
+		this.crossSetRule = crossSetRule;
+		this.dispatchers = new Dispatchers(node, this::dispatch);
+		register(defaultSet);
+	}
+	
+	/**
+	 * Returns the event node of this router. It should only be registered once.
+	 *
+	 * @return the event node
+	 */
+	public @NotNull EventNode<EntityInstanceEvent> getNode() {
+		return node;
+	}
+	
+	/**
+	 * @return the feature set used for entities without an assignment
+	 */
+	public @NotNull CombatFeatureSet getDefault() {
+		return defaultSet;
+	}
+	
+	/**
+	 * @param entity the entity
+	 * @return the feature set assigned to the entity
+	 */
+	public @NotNull CombatFeatureSet getAssigned(@NotNull LivingEntity entity) {
+		synchronized (this) {
+			return sets.get(getIndex(entity)).featureSet();
+		}
+	}
+	
+	/**
+	 * Assigns a feature set to an entity. Events of the entity which are fired after this call
+	 * will be handled by the new feature set.
+	 * <p>
+	 * If the entity is a player, the {@link io.github.togar2.pvp.feature.config.DefinedFeature.PlayerInit}
+	 * is run for features which are new or have a different definition, like when swapping a {@link SwappableFeatureSet}.
+	 *
+	 * @param entity the entity
+	 * @param featureSet the feature set to assign
+	 * @throws IllegalArgumentException if the feature set contains features which could not be compiled
+	 */
+	public void assign(@NotNull LivingEntity entity, @NotNull CombatFeatureSet featureSet) {
+		CombatFeatureSet previous;
+		int index;
+		synchronized (this) {
+			index = register(featureSet);
+			previous = sets.get(getIndex(entity)).featureSet();
+		}
+		
+		if (previous == featureSet) return;
+		if (entity instanceof Player player)
+			SwappableFeatureSet.migrate(previous, featureSet, List.of(player));
+		
+		setIndex(entity, index);
+	}
+	
+	/**
+	 * Assigns the default feature set to an entity.
+	 *
+	 * @param entity the entity
+	 */
+	public void unassign(@NotNull LivingEntity entity) {
+		assign(entity, getDefault());
+	}
+	
+	private synchronized int register(CombatFeatureSet featureSet) {
+		Integer existing = setIndices.get(featureSet);
+		if (existing != null) return existing;
+		
+		CompiledFeatureSet compiled = featureSet.compile();
+		if (!compiled.uncompiledFeatures().isEmpty())
+			throw new IllegalArgumentException("Feature set contains features which can not be routed: "
+					+ compiled.uncompiledFeatures());
+		
+		int index = sets.size();
+		sets.add(compiled);
+		setIndices.put(featureSet, index);
+		
+		this.table = sets.toArray(CompiledFeatureSet[]::new);
+		
+		// Register dispatchers for event types which have not been seen before
+		dispatchers.add(compiled.eventTypes());
+		return index;
+	}
+	
+	private int resolve(EntityInstanceEvent event) {
+		Entity entity = event.getEntity();
+		
+		if (crossSetRule == CrossSetRule.ATTACKER && event instanceof EntityDamageEvent damageEvent
+				&& damageEvent.getDamage().getAttacker() instanceof LivingEntity attacker) {
+			entity = attacker;
+		}
+		
+		if (entity instanceof CustomEntityProjectile projectile && projectile.getShooter() != null)
+			entity = projectile.getShooter();
+		
+		return entity instanceof LivingEntity living ? getIndex(living) : 0;
+	}
+	
+	private int getIndex(LivingEntity entity) {
+		for (Assignment assignment = ASSIGNMENT.get(entity); assignment != null; assignment = assignment.next()) {
+			if (assignment.router() == this) return assignment.index();
+		}
+		return 0;
+	}
+	
+	private void setIndex(LivingEntity entity, int index) {
+		CombatState state = CombatState.of(entity);
+		Assignment others = without(ASSIGNMENT.get(state));
+		ASSIGNMENT.set(state, index == 0 ? others : new Assignment(this, index, others));
+	}
+	
+	private @Nullable Assignment without(@Nullable Assignment assignment) {
+		if (assignment == null) return null;
+		if (assignment.router() == this) return assignment.next();
+		return new Assignment(assignment.router(), assignment.index(), without(assignment.next()));
+	}
+	
+	/**
+	 * The index of the feature set assigned to an entity by a router.
+	 * Entities are usually only assigned by one router, others are chained through {@code next}.
+	 */
+	private record Assignment(FeatureSetRouter router, int index, @Nullable Assignment next) {}
+	
+	private void dispatch(EntityInstanceEvent event) {
+		CompiledFeatureSet[] table = this.table;
+		int set = resolve(event);
+		if (set < table.length) table[set].call(event);
+	}
+	
+	/**
+	 * Decides which feature set handles damage between two entities with a different feature set.
+	 */
+	public enum CrossSetRule {
+		/**
+		 * Damage is handled by the feature set of the victim
+		 */
+		VICTIM,
+		/**
+		 * Damage with an attacker is handled by the feature set of the attacker
+		 */
+		ATTACKER
+	}
+}
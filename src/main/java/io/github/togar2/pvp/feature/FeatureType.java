@@ -15,6 +15,7 @@ import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.feature.explosion.ExplosionFeature;
 import io.github.togar2.pvp.feature.explosion.ExplosiveFeature;
 import io.github.togar2.pvp.feature.fall.FallFeature;
+import io.github.togar2.pvp.feature.feedback.FeedbackFeature;
 import io.github.togar2.pvp.feature.food.ExhaustionFeature;
 import io.github.togar2.pvp.feature.food.FoodFeature;
 import io.github.togar2.pvp.feature.food.RegenerationFeature;
@@ -25,18 +26,26 @@ import io.github.togar2.pvp.feature.projectile.*;
 import io.github.togar2.pvp.feature.provider.DifficultyProvider;
 import io.github.togar2.pvp.feature.spectate.SpectateFeature;
 import io.github.togar2.pvp.feature.state.PlayerStateFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
 import io.github.togar2.pvp.feature.totem.TotemFeature;
 import io.github.togar2.pvp.feature.tracking.TrackingFeature;
 import io.github.togar2.pvp.utils.CombatVersion;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a type of {@link CombatFeature}.
  *
- * @param name the name of the feature
- * @param defaultFeature the default instance of the feature (no op)
+ * Every feature type has a unique, dense id which is used by {@link io.github.togar2.pvp.feature.config.FeatureConfiguration}
+ * to look up features by array index. Feature types can therefore only be created using {@link FeatureType#of(String, CombatFeature)},
+ * which assigns the next id.
+ *
  * @param <F> the class of the feature
  */
-public record FeatureType<F extends CombatFeature>(String name, F defaultFeature) {
+public final class FeatureType<F extends CombatFeature> {
+	// Must be initialized before the feature types below
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	
 	public static final FeatureType<CombatVersion> VERSION = of("VERSION", CombatVersion.MODERN);
 	public static final FeatureType<ArmorFeature> ARMOR = of("ARMOR", ArmorFeature.NO_OP);
 	public static final FeatureType<AttackFeature> ATTACK = of("ATTACK", AttackFeature.NO_OP);
@@ -70,8 +79,55 @@ public record FeatureType<F extends CombatFeature>(String name, F defaultFeature
 	public static final FeatureType<PlayerStateFeature> PLAYER_STATE = of("PLAYER_STATE", PlayerStateFeature.NO_OP);
 	public static final FeatureType<TotemFeature> TOTEM = of("TOTEM", TotemFeature.NO_OP);
 	public static final FeatureType<TrackingFeature> TRACKING = of("TRACKING", TrackingFeature.NO_OP);
+	public static final FeatureType<PlayerTickFeature> PLAYER_TICK = of("PLAYER_TICK", PlayerTickFeature.DEFAULT);
+	public static final FeatureType<FeedbackFeature> FEEDBACK = of("FEEDBACK", FeedbackFeature.DEFAULT);
+	
+	private final String name;
+	private final F defaultFeature;
+	private final int id;
+	
+	private FeatureType(String name, F defaultFeature, int id) {
+		this.name = name;
+		this.defaultFeature = defaultFeature;
+		this.id = id;
+	}
 	
 	public static <F extends CombatFeature> FeatureType<F> of(String name, F noopFeature) {
-		return new FeatureType<>(name, noopFeature);
+		return new FeatureType<>(name, noopFeature, NEXT_ID.getAndIncrement());
+	}
+	
+	/**
+	 * @return the name of the feature
+	 */
+	public String name() {
+		return name;
+	}
+	
+	/**
+	 * @return the default instance of the feature (no op)
+	 */
+	public F defaultFeature() {
+		return defaultFeature;
+	}
+	
+	/**
+	 * @return the unique id of this feature type
+	 */
+	public int id() {
+		return id;
+	}
+	
+	/**
+	 * Returns the amount of feature types which have been created, which is one higher than the highest id.
+	 *
+	 * @return the amount of feature types
+	 */
+	public static int count() {
+		return NEXT_ID.get();
+	}
+	
+	@Override
+	public String toString() {
+		return "FeatureType[name=" + name + ", id=" + id + "]";
 	}
 }
@@ -0,0 +1,48 @@
+package io.github.togar2.pvp.feature;
+
+import net.minestom.server.event.EventListener;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Receives the listeners of a {@link CompilableFeature}.
+ * <p>
+ * The listeners are either added to an event node (see {@link ListenerCollector#of(EventNode)}),
+ * or collected by {@link CompiledFeatureSet} to be called from a single listener per event type.
+ */
+public interface ListenerCollector {
+	/**
+	 * Adds a listener.
+	 *
+	 * @param listener the listener
+	 */
+	<E extends EntityInstanceEvent> void addListener(@NotNull EventListener<E> listener);
+	
+	/**
+	 * Adds a listener for the given event type.
+	 *
+	 * @param eventType the event type
+	 * @param listener the listener
+	 */
+	default <E extends EntityInstanceEvent> void addListener(@NotNull Class<E> eventType, @NotNull Consumer<E> listener) {
+		addListener(EventListener.of(eventType, listener));
+	}
+	
+	/**
+	 * Creates a collector which adds all listeners to the given event node.
+	 *
+	 * @param node the event node
+	 * @return the collector
+	 */
+	static @NotNull ListenerCollector of(@NotNull EventNode<EntityInstanceEvent> node) {
+		return new ListenerCollector() {
+			@Override
+			public <E extends EntityInstanceEvent> void addListener(@NotNull EventListener<E> listener) {
+				node.addListener(listener);
+			}
+		};
+	}
+}
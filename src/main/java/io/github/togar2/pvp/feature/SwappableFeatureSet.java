@@ -0,0 +1,115 @@
+package io.github.togar2.pvp.feature;
+
+import io.github.togar2.pvp.feature.config.DefinedFeature;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.instance.Instance;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A holder for a {@link CombatFeatureSet} which can be swapped out for another one at any time.
+ * The event node of this holder should be registered only once (e.g. to an instance),
+ * after which {@link SwappableFeatureSet#swap(CombatFeatureSet, Collection)} can be used to change the active feature set.
+ * <p>
+ * The node contains one listener per event type, which calls the compiled listeners (see {@link CompiledFeatureSet})
+ * of the currently active feature set. Swapping the feature set replaces a single volatile reference,
+ * so events are always handled completely by either the old or the new feature set.
+ * Listeners are only added to the node the first time a feature set uses a new event type.
+ * <p>
+ * Features which could not be compiled are added to the node as a child node,
+ * these are not swapped atomically.
+ */
+public final class SwappableFeatureSet {
+	private final EventNode<EntityInstanceEvent> node;
+	private final Dispatchers dispatchers;
+	private volatile Routing routing;
+	
+	private record Routing(CompiledFeatureSet compiled, List<EventNode<EntityInstanceEvent>> uncompiledNodes) {}
+	
+	public SwappableFeatureSet(@NotNull CombatFeatureSet featureSet) {
+		this.node = EventNode.type(getClass().getTypeName(), RegistrableFeature.ENTITY_INSTANCE_FILTER);
+		this.dispatchers = new Dispatchers(node, event -> routing.compiled().call(event));
+		this.routing = new Routing(null, List.of());
+		swap(featureSet, List.of());
+	}
+	
+	/**
+	 * Returns the event node of this holder. It should only be registered once.
+	 *
+	 * @return the event node
+	 */
+	public @NotNull EventNode<EntityInstanceEvent> getNode() {
+		return node;
+	}
+	
+	/**
+	 * @return the currently active feature set
+	 */
+	public @NotNull CombatFeatureSet get() {
+		return routing.compiled().featureSet();
+	}
+	
+	/**
+	 * Swaps the active feature set, see {@link #swap(CombatFeatureSet, Collection)}.
+	 * The state of all players in the instance will be migrated.
+	 *
+	 * @param featureSet the new feature set
+	 * @param instance the instance this holder has been registered to
+	 */
+	public void swap(@NotNull CombatFeatureSet featureSet, @NotNull Instance instance) {
+		swap(featureSet, instance.getPlayers());
+	}
+	
+	/**
+	 * Swaps the active feature set. Events which are fired after this call will be handled by the new feature set.
+	 * <p>
+	 * The per-player state of features which are present with the same definition in both feature sets is kept.
+	 * For features which are new or have a different definition, the {@link DefinedFeature.PlayerInit} is run
+	 * for the given players, so the new features are ready to use.
+	 *
+	 * @param featureSet the new feature set
+	 * @param players the players of which the state should be migrated
+	 */
+	public synchronized void swap(@NotNull CombatFeatureSet featureSet, @NotNull Collection<? extends Player> players) {
+		CompiledFeatureSet compiled = featureSet.compile();
+		
+		List<EventNode<EntityInstanceEvent>> uncompiledNodes = new ArrayList<>();
+		for (RegistrableFeature feature : compiled.uncompiledFeatures()) {
+			uncompiledNodes.add(feature.createNode());
+		}
+		
+		Routing previous = routing;
+		
+		// Players should be ready for the new features before they receive events
+		if (previous.compiled() != null) migrate(previous.compiled().featureSet(), featureSet, players);
+		
+		routing = new Routing(compiled, List.copyOf(uncompiledNodes));
+		
+		// Register dispatchers for event types which have not been seen before
+		dispatchers.add(compiled.eventTypes());
+		
+		previous.uncompiledNodes().forEach(node::removeChild);
+		uncompiledNodes.forEach(node::addChild);
+	}
+	
+	static void migrate(CombatFeatureSet previous, CombatFeatureSet current,
+	                    Collection<? extends Player> players) {
+		if (players.isEmpty()) return;
+		
+		for (FeatureType<?> type : current.listTypes()) {
+			DefinedFeature<?> definition = current.getDefinition(type);
+			if (definition == null || definition.playerInit() == null) continue;
+			if (previous.getDefinition(type) == definition) continue; // Same feature, keep the state
+			
+			DefinedFeature.PlayerInit playerInit = definition.playerInit();
+			for (Player player : players) {
+				playerInit.init(player, false);
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.feature.armor;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.feature.CombatFeature;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.damage.DamageType;
@@ -11,4 +12,12 @@ public interface ArmorFeature extends CombatFeature {
 	ArmorFeature NO_OP = (entity, type, amount) -> amount;
 	
 	float getDamageWithProtection(LivingEntity entity, DamageType type, float amount);
+	
+	/**
+	 * Same as {@link #getDamageWithProtection(LivingEntity, DamageType, float)},
+	 * but with the profile of the damage type which has already been resolved.
+	 */
+	default float getDamageWithProtection(LivingEntity entity, DamageProfile profile, float amount) {
+		return getDamageWithProtection(entity, profile.type(), amount);
+	}
 }
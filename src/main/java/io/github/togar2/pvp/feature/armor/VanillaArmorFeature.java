@@ -1,18 +1,18 @@
 package io.github.togar2.pvp.feature.armor;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.damage.DamageTypeInfo;
 import io.github.togar2.pvp.feature.CombatFeature;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.effect.EffectFeature;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.utils.CombatVersion;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.potion.PotionEffect;
-import net.minestom.server.potion.TimedPotion;
 import net.minestom.server.utils.MathUtils;
 
 /**
@@ -21,11 +21,12 @@ import net.minestom.server.utils.MathUtils;
 public class VanillaArmorFeature implements ArmorFeature, CombatFeature {
 	public static final DefinedFeature<VanillaArmorFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.ARMOR, VanillaArmorFeature::new,
-			FeatureType.ENCHANTMENT, FeatureType.VERSION
+			FeatureType.ENCHANTMENT, FeatureType.EFFECT, FeatureType.VERSION
 	);
 	
 	private final FeatureConfiguration configuration;
 	private EnchantmentFeature enchantmentFeature;
+	private EffectFeature effectFeature;
 	private CombatVersion version;
 	
 	public VanillaArmorFeature(FeatureConfiguration configuration) {
@@ -35,14 +36,19 @@ public class VanillaArmorFeature implements ArmorFeature, CombatFeature {
 	@Override
 	public void initDependencies() {
 		this.enchantmentFeature = configuration.get(FeatureType.ENCHANTMENT);
+		this.effectFeature = configuration.get(FeatureType.EFFECT);
 		this.version = configuration.get(FeatureType.VERSION);
 	}
 	
 	@Override
 	public float getDamageWithProtection(LivingEntity entity, DamageType type, float amount) {
-		DamageTypeInfo info = DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(type));
-		amount = getDamageWithArmor(entity, info, amount);
-		return getDamageWithEnchantments(entity, type, amount);
+		return getDamageWithProtection(entity, DamageProfile.of(type), amount);
+	}
+	
+	@Override
+	public float getDamageWithProtection(LivingEntity entity, DamageProfile profile, float amount) {
+		amount = getDamageWithArmor(entity, profile.info(), amount);
+		return getDamageWithEnchantments(entity, profile, amount);
 	}
 	
 	protected float getDamageWithArmor(LivingEntity entity, DamageTypeInfo typeInfo, float amount) {
@@ -60,14 +66,12 @@ public class VanillaArmorFeature implements ArmorFeature, CombatFeature {
 		}
 	}
 	
-	protected float getDamageWithEnchantments(LivingEntity entity, DamageType damageType, float amount) {
-		DamageTypeInfo damageTypeInfo = DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(damageType));
-		if (damageTypeInfo.unblockable()) return amount;
+	protected float getDamageWithEnchantments(LivingEntity entity, DamageProfile profile, float amount) {
+		if (profile.info().unblockable()) return amount;
 		
 		int k;
-		TimedPotion effect = entity.getEffect(PotionEffect.RESISTANCE);
-		if (effect != null) {
-			k = (effect.potion().amplifier() + 1) * 5;
+		if (effectFeature.hasEffect(entity, PotionEffect.RESISTANCE)) {
+			k = (effectFeature.getEffectAmplifier(entity, PotionEffect.RESISTANCE) + 1) * 5;
 			int j = 25 - k;
 			float f = amount * (float) j;
 			amount = Math.max(f / 25, 0);
@@ -76,7 +80,7 @@ public class VanillaArmorFeature implements ArmorFeature, CombatFeature {
 		if (amount <= 0) {
 			return 0;
 		} else {
-			k = enchantmentFeature.getProtectionAmount(entity, damageType);
+			k = enchantmentFeature.getProtectionAmount(entity, profile);
 			if (version.modern()) {
 				if (k > 0) {
 					amount = getDamageAfterProtectionEnchantment(amount, (float) k);
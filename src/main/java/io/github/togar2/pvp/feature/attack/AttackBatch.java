@@ -0,0 +1,94 @@
+package io.github.togar2.pvp.feature.attack;
+
+import io.github.togar2.pvp.events.PrepareAttackEvent;
+import io.github.togar2.pvp.player.CombatPlayer;
+import io.github.togar2.pvp.utils.EndOfTickBuffer;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventDispatcher;
+import net.minestom.server.instance.Instance;
+
+import java.util.*;
+
+/**
+ * Per-instance buffer of attacks which are resolved together at the end of the tick,
+ * used by {@link VanillaAttackFeature#BATCHED}.
+ * <p>
+ * The attacks are resolved in two phases. First, the values of all attacks are calculated,
+ * reading the values of each attacker which do not depend on the target only once (see {@link VanillaAttackFeature#readAttacker(AttackContext)}).
+ * Then all the attacks are applied. Since no attack has been applied while calculating,
+ * two players hitting each other in the same tick both land their hit, no matter whose packet arrived first.
+ * <p>
+ * Velocity updates of {@link CombatPlayer} targets are only sent after all attacks have been applied,
+ * so each target receives at most one velocity packet for all the attacks of a tick.
+ */
+final class AttackBatch {
+	private static final EndOfTickBuffer<List<QueuedAttack>> BUFFER =
+			new EndOfTickBuffer<>("attackBatch", ArrayList::new, AttackBatch::resolve);
+	
+	private record QueuedAttack(VanillaAttackFeature feature, Player attacker, Entity target, Instance instance) {}
+	
+	private record PreparedAttack(VanillaAttackFeature feature, AttackContext context) {}
+	
+	static void queue(VanillaAttackFeature feature, Player attacker, Entity target) {
+		Instance instance = attacker.getInstance();
+		if (instance == null) return;
+		
+		QueuedAttack attack = new QueuedAttack(feature, attacker, target, instance);
+		BUFFER.update(instance, attacks -> attacks.add(attack));
+	}
+	
+	private static void resolve(List<QueuedAttack> attacks) {
+		// Calculate all attacks before any of them is applied
+		Map<Player, AttackContext> previousAttacks = new IdentityHashMap<>();
+		List<PreparedAttack> prepared = new ArrayList<>(attacks.size());
+		for (QueuedAttack attack : attacks) {
+			Player attacker = attack.attacker();
+			Entity target = attack.target();
+			if (attacker.isRemoved() || target.isRemoved()) continue;
+			if (attacker.getInstance() != attack.instance() || target.getInstance() != attack.instance()) continue;
+			if (!attack.feature().canAttack(attacker, target)) continue;
+			
+			if (EventDispatcher.getHandle(PrepareAttackEvent.class).hasListener()) {
+				PrepareAttackEvent prepareAttackEvent = new PrepareAttackEvent(attacker, target);
+				EventDispatcher.call(prepareAttackEvent);
+				if (prepareAttackEvent.isCancelled()) continue;
+			}
+			
+			AttackContext context = new AttackContext();
+			context.attacker = attacker;
+			context.target = target;
+			
+			if (attack.feature().usesLegacyPrepareAttack()) {
+				if (!attack.feature().prepareLegacyAttack(context)) continue; // Event cancelled
+				prepared.add(new PreparedAttack(attack.feature(), context));
+				continue;
+			}
+			
+			// The values of the attacker are only read for its first attack
+			AttackContext previous = previousAttacks.get(attacker);
+			if (previous != null) {
+				context.copyAttacker(previous);
+			} else {
+				attack.feature().readAttacker(context);
+			}
+			previousAttacks.put(attacker, context);
+			
+			if (!attack.feature().prepareAttack(context)) continue; // Event cancelled
+			prepared.add(new PreparedAttack(attack.feature(), context));
+		}
+		
+		Set<CombatPlayer> knockedBack = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (PreparedAttack attack : prepared) {
+			if (attack.feature().applyAttack(attack.context())
+					&& attack.context().target() instanceof CombatPlayer custom) {
+				knockedBack.add(custom);
+			}
+		}
+		
+		// One velocity packet per target, containing the result of all knockback of this tick
+		for (CombatPlayer custom : knockedBack) {
+			custom.sendImmediateVelocityUpdate();
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package io.github.togar2.pvp.feature.attack;
+
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Mutable holder for the values of an attack while it is being calculated and applied.
+ * This replaces the chain of {@link AttackValues} records, so a normal attack does not create any garbage for its values.
+ * <p>
+ * One context is kept per thread and reused for every attack performed by that thread,
+ * so it should not be kept after the attack. An attack which is started while another attack
+ * on the same thread is still using the context (e.g. from an event listener) gets a new context.
+ */
+public final class AttackContext {
+	private static final ThreadLocal<AttackContext> CONTEXT = ThreadLocal.withInitial(AttackContext::new);
+	
+	private boolean inUse = false;
+	
+	LivingEntity attacker;
+	Entity target;
+	
+	// Values of the attacker, which do not depend on the target
+	float attackDamage;
+	ItemStack mainHand;
+	int knockbackLevel;
+	int fireAspectLevel;
+	double cooldownProgressAfterReset;
+	
+	float damage;
+	float magicalDamage;
+	double cooldownProgress;
+	boolean strong;
+	boolean sprint;
+	boolean critical;
+	boolean sweeping;
+	int knockback;
+	int fireAspect;
+	boolean sounds;
+	boolean playSoundsOnFail;
+	
+	AttackContext() {}
+	
+	/**
+	 * Gets the context of the current thread, and marks it as used.
+	 * {@link #release()} should be called when the attack is done.
+	 */
+	static @NotNull AttackContext acquire(LivingEntity attacker, Entity target) {
+		AttackContext context = CONTEXT.get();
+		
+		// Attack started from within another attack (e.g. from an event listener)
+		if (context.inUse) context = new AttackContext();
+		
+		context.inUse = true;
+		context.attacker = attacker;
+		context.target = target;
+		return context;
+	}
+	
+	/**
+	 * Marks this context as unused, and clears the references to entities and items so they are not kept alive.
+	 */
+	void release() {
+		inUse = false;
+		attacker = null;
+		target = null;
+		mainHand = null;
+	}
+	
+	/**
+	 * Copies the values of the attacker from another context with the same attacker,
+	 * as if the attack in this context is performed right after the attack in the other context.
+	 */
+	void copyAttacker(AttackContext other) {
+		attackDamage = other.attackDamage;
+		mainHand = other.mainHand;
+		knockbackLevel = other.knockbackLevel;
+		fireAspectLevel = other.fireAspectLevel;
+		cooldownProgress = other.cooldownProgressAfterReset;
+		cooldownProgressAfterReset = other.cooldownProgressAfterReset;
+	}
+	
+	public LivingEntity attacker() {
+		return attacker;
+	}
+	
+	public Entity target() {
+		return target;
+	}
+	
+	public float damage() {
+		return damage;
+	}
+	
+	public float magicalDamage() {
+		return magicalDamage;
+	}
+	
+	public double cooldownProgress() {
+		return cooldownProgress;
+	}
+	
+	public boolean strong() {
+		return strong;
+	}
+	
+	public boolean sprint() {
+		return sprint;
+	}
+	
+	public boolean critical() {
+		return critical;
+	}
+	
+	public boolean sweeping() {
+		return sweeping;
+	}
+	
+	public int knockback() {
+		return knockback;
+	}
+	
+	public int fireAspect() {
+		return fireAspect;
+	}
+	
+	public boolean sounds() {
+		return sounds;
+	}
+	
+	public boolean playSoundsOnFail() {
+		return playSoundsOnFail;
+	}
+	
+	/**
+	 * @return whether the attack has extra damage from enchantments
+	 */
+	public boolean magical() {
+		return magicalDamage > 0;
+	}
+	
+	AttackValues.PreCritical toPreCritical() {
+		return new AttackValues.PreCritical(
+				damage, magicalDamage, cooldownProgress,
+				strong, sprint, knockback, fireAspect
+		);
+	}
+	
+	AttackValues.PreSweeping toPreSweeping() {
+		return toPreCritical().withCritical(critical);
+	}
+	
+	/**
+	 * Sets the values of the attack to values which have been calculated by {@link VanillaAttackFeature#prepareAttack(LivingEntity, Entity)}.
+	 */
+	void load(AttackValues.Final values) {
+		damage = values.damage();
+		// Only whether the attack had extra damage from enchantments is known, it is already part of the damage
+		magicalDamage = values.magical() ? Float.MIN_VALUE : 0;
+		strong = values.strong();
+		sprint = values.sprint();
+		critical = values.critical();
+		sweeping = values.sweeping();
+		knockback = values.knockback();
+		fireAspect = values.fireAspect();
+		sounds = values.sounds();
+		playSoundsOnFail = values.playSoundsOnFail();
+	}
+	
+	AttackValues.Final toFinal() {
+		return new AttackValues.Final(
+				damage, strong, sprint, knockback, critical,
+				magical(), fireAspect, sweeping,
+				sounds, playSoundsOnFail
+		);
+	}
+}
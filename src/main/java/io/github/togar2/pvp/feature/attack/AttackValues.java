@@ -14,6 +14,10 @@ public class AttackValues {
 	public record PreSweeping(float damage, float magicalDamage, double cooldownProgress,
 	                          boolean strong, boolean sprint, boolean critical,
 	                          int knockback, int fireAspect) {
+		/**
+		 * @deprecated the values after sweeping are not used anymore, attacks are calculated in an {@link AttackContext}
+		 */
+		@Deprecated
 		public PreSounds withSweeping(boolean sweeping) {
 			return new PreSounds(
 					damage, magicalDamage, cooldownProgress,
@@ -23,6 +27,10 @@ public class AttackValues {
 		}
 	}
 	
+	/**
+	 * @deprecated the values after sweeping are not used anymore, attacks are calculated in an {@link AttackContext}
+	 */
+	@Deprecated
 	public record PreSounds(float damage, float magicalDamage, double cooldownProgress,
 	                  boolean strong, boolean sprint, boolean critical, boolean sweeping,
 	                  int knockback, int fireAspect) {}
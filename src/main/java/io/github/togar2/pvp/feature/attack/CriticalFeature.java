@@ -13,6 +13,11 @@ public interface CriticalFeature extends CombatFeature {
 			return false;
 		}
 		
+		@Override
+		public boolean shouldCrit(LivingEntity attacker, AttackContext context) {
+			return false;
+		}
+		
 		@Override
 		public float applyToDamage(float damage) {
 			return damage;
@@ -21,6 +26,19 @@ public interface CriticalFeature extends CombatFeature {
 	
 	boolean shouldCrit(LivingEntity attacker, AttackValues.PreCritical values);
 	
+	/**
+	 * Determines whether an attack is critical, using the values of the attack which is being calculated.
+	 * Implementations should override this to avoid the creation of {@link AttackValues.PreCritical},
+	 * by default the values are copied and passed to {@link #shouldCrit(LivingEntity, AttackValues.PreCritical)}.
+	 *
+	 * @param attacker the attacking entity
+	 * @param context the context of the attack, in which critical has not been determined yet
+	 * @return whether the attack is critical
+	 */
+	default boolean shouldCrit(LivingEntity attacker, AttackContext context) {
+		return shouldCrit(attacker, context.toPreCritical());
+	}
+	
 	/**
 	 * Determines the new damage amount when the attack was critical.
 	 *
@@ -13,6 +13,11 @@ public interface SweepingFeature extends CombatFeature {
 			return false;
 		}
 		
+		@Override
+		public boolean shouldSweep(LivingEntity attacker, AttackContext context) {
+			return false;
+		}
+		
 		@Override
 		public float getSweepingDamage(LivingEntity attacker, float damage) {
 			return 0;
@@ -24,6 +29,19 @@ public interface SweepingFeature extends CombatFeature {
 	
 	boolean shouldSweep(LivingEntity attacker, AttackValues.PreSweeping values);
 	
+	/**
+	 * Determines whether an attack is a sweeping attack, using the values of the attack which is being calculated.
+	 * Implementations should override this to avoid the creation of {@link AttackValues.PreSweeping},
+	 * by default the values are copied and passed to {@link #shouldSweep(LivingEntity, AttackValues.PreSweeping)}.
+	 *
+	 * @param attacker the attacking entity
+	 * @param context the context of the attack, in which sweeping has not been determined yet
+	 * @return whether the attack is a sweeping attack
+	 */
+	default boolean shouldSweep(LivingEntity attacker, AttackContext context) {
+		return shouldSweep(attacker, context.toPreSweeping());
+	}
+	
 	float getSweepingDamage(LivingEntity attacker, float damage);
 	
 	void applySweeping(LivingEntity attacker, LivingEntity target, float damage);
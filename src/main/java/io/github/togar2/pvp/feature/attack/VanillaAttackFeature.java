@@ -4,33 +4,27 @@ import io.github.togar2.pvp.enchantment.EntityGroup;
 import io.github.togar2.pvp.enums.Tool;
 import io.github.togar2.pvp.events.FinalAttackEvent;
 import io.github.togar2.pvp.events.PrepareAttackEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.cooldown.AttackCooldownFeature;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
+import io.github.togar2.pvp.feature.feedback.FeedbackFeature;
 import io.github.togar2.pvp.feature.food.ExhaustionFeature;
 import io.github.togar2.pvp.feature.item.ItemDamageFeature;
 import io.github.togar2.pvp.feature.knockback.KnockbackFeature;
 import io.github.togar2.pvp.player.CombatPlayer;
 import io.github.togar2.pvp.utils.CombatVersion;
-import io.github.togar2.pvp.utils.ViewUtil;
-import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.sound.Sound;
 import net.minestom.server.ServerFlag;
-import net.minestom.server.coordinate.Pos;
 import net.minestom.server.entity.*;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityAttackEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
-import net.minestom.server.network.packet.server.play.EntityAnimationPacket;
-import net.minestom.server.network.packet.server.play.ParticlePacket;
-import net.minestom.server.particle.Particle;
 import net.minestom.server.sound.SoundEvent;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,17 +32,40 @@ import org.jetbrains.annotations.Nullable;
  * Vanilla implementation of {@link AttackFeature}
  * <p>
  * Listens on {@link EntityAttackEvent}
+ * <p>
+ * The {@link #BATCHED} definition does not perform attacks while the attack packet is handled,
+ * but queues them and resolves them together at the end of the tick (see {@link AttackBatch}).
  */
-public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
+public class VanillaAttackFeature implements AttackFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaAttackFeature> DEFINED = new DefinedFeature<>(
 		FeatureType.ATTACK, VanillaAttackFeature::new,
 		FeatureType.ATTACK_COOLDOWN, FeatureType.EXHAUSTION, FeatureType.ITEM_DAMAGE,
-		FeatureType.ENCHANTMENT, FeatureType.CRITICAL, FeatureType.SWEEPING, FeatureType.KNOCKBACK, FeatureType.VERSION
+		FeatureType.ENCHANTMENT, FeatureType.CRITICAL, FeatureType.SWEEPING, FeatureType.KNOCKBACK,
+		FeatureType.FEEDBACK, FeatureType.VERSION
+	);
+
+	/**
+	 * Same as {@link #DEFINED}, but attacks are queued and resolved in one pass at the end of the tick
+	 */
+	public static final DefinedFeature<VanillaAttackFeature> BATCHED = new DefinedFeature<>(
+		FeatureType.ATTACK, configuration -> new VanillaAttackFeature(configuration, true),
+		FeatureType.ATTACK_COOLDOWN, FeatureType.EXHAUSTION, FeatureType.ITEM_DAMAGE,
+		FeatureType.ENCHANTMENT, FeatureType.CRITICAL, FeatureType.SWEEPING, FeatureType.KNOCKBACK,
+		FeatureType.FEEDBACK, FeatureType.VERSION
 	);
 
 	private static final double MAX_DISTANCE_SQUARED = 36.0;
 
+	private static final Sound NO_DAMAGE_SOUND = attackSound(SoundEvent.ENTITY_PLAYER_ATTACK_NODAMAGE);
+	private static final Sound KNOCKBACK_SOUND = attackSound(SoundEvent.ENTITY_PLAYER_ATTACK_KNOCKBACK);
+	private static final Sound SWEEP_SOUND = attackSound(SoundEvent.ENTITY_PLAYER_ATTACK_SWEEP);
+	private static final Sound CRIT_SOUND = attackSound(SoundEvent.ENTITY_PLAYER_ATTACK_CRIT);
+	private static final Sound STRONG_SOUND = attackSound(SoundEvent.ENTITY_PLAYER_ATTACK_STRONG);
+	private static final Sound WEAK_SOUND = attackSound(SoundEvent.ENTITY_PLAYER_ATTACK_WEAK);
+
 	private final FeatureConfiguration configuration;
+	private final boolean batched;
+	private final boolean legacyPrepareAttack;
 
 	private AttackCooldownFeature cooldownFeature;
 	private ExhaustionFeature exhaustionFeature;
@@ -58,11 +75,33 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 	private CriticalFeature criticalFeature;
 	private SweepingFeature sweepingFeature;
 	private KnockbackFeature knockbackFeature;
+	private FeedbackFeature feedbackFeature;
 
 	private CombatVersion version;
 
 	public VanillaAttackFeature(FeatureConfiguration configuration) {
+		this(configuration, false);
+	}
+
+	public VanillaAttackFeature(FeatureConfiguration configuration, boolean batched) {
 		this.configuration = configuration;
+		this.batched = batched;
+		this.legacyPrepareAttack = overridesLegacyPrepareAttack();
+	}
+
+	/**
+	 * Checks whether a subclass has overridden {@link #prepareAttack(LivingEntity, Entity)},
+	 * in which case attacks should still be calculated through it.
+	 */
+	private boolean overridesLegacyPrepareAttack() {
+		// The method is protected, so it can only be found on the class which declares it
+		for (Class<?> type = getClass(); type != VanillaAttackFeature.class; type = type.getSuperclass()) {
+			try {
+				type.getDeclaredMethod("prepareAttack", LivingEntity.class, Entity.class);
+				return true;
+			} catch (NoSuchMethodException ignored) {}
+		}
+		return false;
 	}
 
 	@Override
@@ -74,28 +113,70 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		this.criticalFeature = configuration.get(FeatureType.CRITICAL);
 		this.sweepingFeature = configuration.get(FeatureType.SWEEPING);
 		this.knockbackFeature = configuration.get(FeatureType.KNOCKBACK);
+		this.feedbackFeature = configuration.get(FeatureType.FEEDBACK);
 		this.version = configuration.get(FeatureType.VERSION);
 	}
 
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EntityAttackEvent.class, event -> {
-			if (event.getEntity() instanceof Player player
-				&& player.getGameMode() != GameMode.SPECTATOR
-				&& !player.isDead()
-				&& player.getDistanceSquared(event.getTarget()) < MAX_DISTANCE_SQUARED) {
-				performAttack(player, event.getTarget());
+	public void init(ListenerCollector collector) {
+		collector.addListener(EntityAttackEvent.class, event -> {
+			if (event.getEntity() instanceof Player player && canAttack(player, event.getTarget())) {
+				if (batched) {
+					AttackBatch.queue(this, player, event.getTarget());
+				} else {
+					performAttack(player, event.getTarget());
+				}
 			}
 		});
 	}
 
+	private static Sound attackSound(SoundEvent event) {
+		return Sound.sound(event, Sound.Source.PLAYER, 1.0f, 1.0f);
+	}
+
+	protected boolean canAttack(Player player, Entity target) {
+		return player.getGameMode() != GameMode.SPECTATOR
+			&& !player.isDead()
+			&& player.getDistanceSquared(target) < MAX_DISTANCE_SQUARED;
+	}
+
 	@Override
 	public boolean performAttack(LivingEntity attacker, Entity target) {
-		PrepareAttackEvent prepareAttackEvent = new PrepareAttackEvent(attacker, target);
-		EventDispatcher.call(prepareAttackEvent);
-		if (prepareAttackEvent.isCancelled()) return false;
-		AttackValues.Final attack = prepareAttack(attacker, target);
-		if (attack == null) return false; // Event cancelled
+		if (EventDispatcher.getHandle(PrepareAttackEvent.class).hasListener()) {
+			PrepareAttackEvent prepareAttackEvent = new PrepareAttackEvent(attacker, target);
+			EventDispatcher.call(prepareAttackEvent);
+			if (prepareAttackEvent.isCancelled()) return false;
+		}
+
+		AttackContext context = AttackContext.acquire(attacker, target);
+		try {
+			if (legacyPrepareAttack) {
+				if (!prepareLegacyAttack(context)) return false; // Event cancelled
+			} else {
+				readAttacker(context);
+				if (!prepareAttack(context)) return false; // Event cancelled
+			}
+			if (!applyAttack(context)) return false;
+		} finally {
+			context.release();
+		}
+
+		if (target instanceof CombatPlayer custom)
+			custom.sendImmediateVelocityUpdate();
+
+		return true;
+	}
+
+	/**
+	 * Applies the damage and all the side effects of an attack of which the values have already been calculated.
+	 * Velocity updates of the target are not sent, this is up to the caller.
+	 *
+	 * @param attack the context of the attack
+	 * @return whether the attack was successful
+	 */
+	protected boolean applyAttack(AttackContext attack) {
+		LivingEntity attacker = attack.attacker();
+		Entity target = attack.target();
 
 		float originalHealth = 0;
 		boolean damageSucceeded = false;
@@ -111,10 +192,7 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		if (!damageSucceeded) {
 			// No damage sound
 			if (attack.sounds() && attack.playSoundsOnFail()) {
-				ViewUtil.viewersAndSelf(attacker).playSound(Sound.sound(
-					SoundEvent.ENTITY_PLAYER_ATTACK_NODAMAGE, Sound.Source.PLAYER,
-					1.0f, 1.0f
-				), attacker);
+				feedbackFeature.playAttackSound(attacker, NO_DAMAGE_SOUND);
 			}
 			return false;
 		}
@@ -126,47 +204,19 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		knockbackFeature.applyAttackKnockback(attacker, living, attack.knockback());
 		if (attack.sweeping()) sweepingFeature.applySweeping(attacker, living, attack.damage());
 
-		if (target instanceof CombatPlayer custom)
-			custom.sendImmediateVelocityUpdate();
-
 		// Play attack sounds
 		if (attack.sounds()) {
-			Audience audience = attacker.getViewersAsAudience();
-			if (attacker instanceof Player player)
-				audience = Audience.audience(audience, player);
-
-			if (attack.sprint()) audience.playSound(Sound.sound(
-				SoundEvent.ENTITY_PLAYER_ATTACK_KNOCKBACK, Sound.Source.PLAYER,
-				1.0f, 1.0f
-			), attacker);
-
-			if (attack.sweeping()) audience.playSound(Sound.sound(
-				SoundEvent.ENTITY_PLAYER_ATTACK_SWEEP, Sound.Source.PLAYER,
-				1.0f, 1.0f
-			), attacker);
-
-			if (attack.critical()) audience.playSound(Sound.sound(
-				SoundEvent.ENTITY_PLAYER_ATTACK_CRIT, Sound.Source.PLAYER,
-				1.0f, 1.0f
-			), attacker);
-
-			if (!attack.critical() && !attack.sweeping()) audience.playSound(Sound.sound(
-				attack.strong() ?
-					SoundEvent.ENTITY_PLAYER_ATTACK_STRONG :
-					SoundEvent.ENTITY_PLAYER_ATTACK_WEAK,
-				Sound.Source.PLAYER, 1.0f, 1.0f
-			), attacker);
+			if (attack.sprint()) feedbackFeature.playAttackSound(attacker, KNOCKBACK_SOUND);
+			if (attack.sweeping()) feedbackFeature.playAttackSound(attacker, SWEEP_SOUND);
+			if (attack.critical()) feedbackFeature.playAttackSound(attacker, CRIT_SOUND);
+
+			if (!attack.critical() && !attack.sweeping())
+				feedbackFeature.playAttackSound(attacker, attack.strong() ? STRONG_SOUND : WEAK_SOUND);
 		}
 
 		// Play attack effects
-		if (attack.critical()) attacker.sendPacketToViewersAndSelf(new EntityAnimationPacket(
-			target.getEntityId(),
-			EntityAnimationPacket.Animation.CRITICAL_EFFECT
-		));
-		if (attack.magical()) attacker.sendPacketToViewersAndSelf(new EntityAnimationPacket(
-			target.getEntityId(),
-			EntityAnimationPacket.Animation.MAGICAL_CRITICAL_EFFECT
-		));
+		if (attack.critical()) feedbackFeature.playCriticalEffect(attacker, target, false);
+		if (attack.magical()) feedbackFeature.playCriticalEffect(attacker, target, true);
 
 		// Thorns
 		enchantmentFeature.onUserDamaged(living, attacker);
@@ -181,17 +231,7 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 			living.setFireTicks(attack.fireAspect() * 4 * ServerFlag.SERVER_TICKS_PER_SECOND);
 
 		// Damage indicator particles
-		float damageDone = originalHealth - living.getHealth();
-		if (damageDone > 2) {
-			int particleCount = (int) (damageDone * 0.5);
-			Pos targetPosition = target.getPosition();
-			target.sendPacketToViewersAndSelf(new ParticlePacket(
-				Particle.DAMAGE_INDICATOR, false,
-				targetPosition.x(), targetPosition.y() + target.getBoundingBox().height() * 0.5, targetPosition.z(),
-				0.1f, 0, 0.1f,
-				0.2F, particleCount
-			));
-		}
+		feedbackFeature.playDamageIndicator(target, originalHealth - living.getHealth());
 
 		if (attacker instanceof Player player)
 			exhaustionFeature.addAttackExhaustion(player);
@@ -199,67 +239,141 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		return true;
 	}
 
-	protected @Nullable AttackValues.Final prepareAttack(LivingEntity attacker, Entity target) {
-		float damage = (float) attacker.getAttributeValue(Attribute.GENERIC_ATTACK_DAMAGE);
-		float magicalDamage = enchantmentFeature.getAttackDamage(
-			attacker.getItemInMainHand(),
-			target instanceof LivingEntity living ? EntityGroup.ofEntity(living) : EntityGroup.DEFAULT
-		);
+	/**
+	 * Reads the values of the attacker which do not depend on the target into the context.
+	 * This resets the attack cooldown of the attacker.
+	 * For multiple attacks of the same attacker within the same tick, the values can be copied instead.
+	 *
+	 * @param context the context of the attack
+	 */
+	protected void readAttacker(AttackContext context) {
+		LivingEntity attacker = context.attacker();
 
 		double cooldownProgress = 1;
+		double cooldownProgressAfterReset = 1;
 		if (attacker instanceof Player player) {
 			cooldownProgress = cooldownFeature.getAttackCooldownProgress(player);
 			cooldownFeature.resetCooldownProgress(player);
+			cooldownProgressAfterReset = cooldownFeature.getAttackCooldownProgress(player);
 		}
 
+		context.attackDamage = (float) attacker.getAttributeValue(Attribute.GENERIC_ATTACK_DAMAGE);
+		context.mainHand = attacker.getItemInMainHand();
+		context.knockbackLevel = enchantmentFeature.getKnockback(attacker);
+		context.fireAspectLevel = enchantmentFeature.getFireAspect(attacker);
+		context.cooldownProgress = cooldownProgress;
+		context.cooldownProgressAfterReset = cooldownProgressAfterReset;
+	}
+
+	/**
+	 * Calculates the values of an attack from the attacker to the target.
+	 * This resets the attack cooldown of the attacker.
+	 *
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @return the values of the attack, or null if the attack has been cancelled
+	 * @deprecated attacks are calculated in an {@link AttackContext}, override {@link #readAttacker(AttackContext)}
+	 * and {@link #prepareAttack(AttackContext)} instead. If this method is overridden, attacks are still calculated
+	 * through it, but then every attack creates its own values.
+	 */
+	@Deprecated
+	protected @Nullable AttackValues.Final prepareAttack(LivingEntity attacker, Entity target) {
+		AttackContext context = AttackContext.acquire(attacker, target);
+		try {
+			readAttacker(context);
+			return prepareAttack(context) ? context.toFinal() : null;
+		} finally {
+			context.release();
+		}
+	}
+
+	/**
+	 * @return whether attacks are calculated through {@link #prepareAttack(LivingEntity, Entity)}, because a subclass overrides it
+	 */
+	boolean usesLegacyPrepareAttack() {
+		return legacyPrepareAttack;
+	}
+
+	/**
+	 * Calculates the values of an attack through {@link #prepareAttack(LivingEntity, Entity)}.
+	 * The values of the attacker are read by that method, so {@link #readAttacker(AttackContext)} should not be called.
+	 *
+	 * @param context the context of the attack
+	 * @return false if the attack has been cancelled
+	 */
+	@SuppressWarnings("deprecation")
+	boolean prepareLegacyAttack(AttackContext context) {
+		AttackValues.Final values = prepareAttack(context.attacker(), context.target());
+		if (values == null) return false;
+
+		context.load(values);
+		return true;
+	}
+
+	/**
+	 * Calculates the values of an attack, after the values of the attacker have been read.
+	 *
+	 * @param context the context of the attack
+	 * @return false if the attack has been cancelled
+	 */
+	protected boolean prepareAttack(AttackContext context) {
+		LivingEntity attacker = context.attacker();
+		Entity target = context.target();
+
+		float damage = context.attackDamage;
+		float magicalDamage = enchantmentFeature.getAttackDamage(
+			context.mainHand,
+			target instanceof LivingEntity living ? EntityGroup.ofEntity(living) : EntityGroup.DEFAULT
+		);
+
+		double cooldownProgress = context.cooldownProgress;
+
 		// Apply cooldownProgress to damage
 		damage *= (float) (0.2 + cooldownProgress * cooldownProgress * 0.8);
 		magicalDamage *= (float) cooldownProgress;
 
 		// Calculate attacks
 		boolean strongAttack = cooldownProgress > 0.9;
-		boolean sprintAttack = attacker.isSprinting() && strongAttack;
-		int knockback = enchantmentFeature.getKnockback(attacker);
-		int fireAspect = enchantmentFeature.getFireAspect(attacker);
+		context.damage = damage;
+		context.magicalDamage = magicalDamage;
+		context.strong = strongAttack;
+		context.sprint = attacker.isSprinting() && strongAttack;
+		context.knockback = context.knockbackLevel;
+		context.fireAspect = context.fireAspectLevel;
+		context.critical = false;
+		context.sweeping = false;
 
 		// Use features to determine critical and sweeping
-		AttackValues.PreCritical preCritical = new AttackValues.PreCritical(
-			damage, magicalDamage, cooldownProgress,
-			strongAttack, sprintAttack, knockback, fireAspect
-		);
-		AttackValues.PreSweeping preSweeping = preCritical.withCritical(criticalFeature.shouldCrit(attacker, preCritical));
-		AttackValues.PreSounds preSounds = preSweeping.withSweeping(sweepingFeature.shouldSweep(attacker, preSweeping));
-
-		boolean critical = preSounds.critical();
-		boolean sweeping = preSounds.sweeping();
+		context.critical = criticalFeature.shouldCrit(attacker, context);
+		context.sweeping = sweepingFeature.shouldSweep(attacker, context);
 
-		boolean sounds = version.modern();
+		context.sounds = version.modern();
+		context.playSoundsOnFail = context.sounds;
 
 		// Call event which can modify attack values
-		FinalAttackEvent finalAttackEvent = new FinalAttackEvent(
-			attacker, target, sprintAttack, critical, sweeping, damage,
-			magicalDamage, sounds, sounds
-		);
-		EventDispatcher.call(finalAttackEvent);
-		if (finalAttackEvent.isCancelled()) return null;
-
-		sprintAttack = finalAttackEvent.isSprint();
-		critical = finalAttackEvent.isCritical();
-		sweeping = finalAttackEvent.isSweeping();
-		damage = finalAttackEvent.getBaseDamage();
-		magicalDamage = finalAttackEvent.getEnchantsExtraDamage();
+		if (EventDispatcher.getHandle(FinalAttackEvent.class).hasListener()) {
+			FinalAttackEvent finalAttackEvent = new FinalAttackEvent(
+				attacker, target, context.sprint, context.critical, context.sweeping, context.damage,
+				context.magicalDamage, context.sounds, context.sounds
+			);
+			EventDispatcher.call(finalAttackEvent);
+			if (finalAttackEvent.isCancelled()) return false;
+
+			context.sprint = finalAttackEvent.isSprint();
+			context.critical = finalAttackEvent.isCritical();
+			context.sweeping = finalAttackEvent.isSweeping();
+			context.damage = finalAttackEvent.getBaseDamage();
+			context.magicalDamage = finalAttackEvent.getEnchantsExtraDamage();
+			context.sounds = finalAttackEvent.hasAttackSounds();
+			context.playSoundsOnFail = finalAttackEvent.playSoundsOnFail();
+		}
 
 		// Apply critical damage and knockback
-		if (critical) damage = criticalFeature.applyToDamage(damage);
-		damage += magicalDamage;
+		if (context.critical) context.damage = criticalFeature.applyToDamage(context.damage);
+		context.damage += context.magicalDamage;
 
-		if (sprintAttack) knockback++;
+		if (context.sprint) context.knockback++;
 
-		return new AttackValues.Final(
-			damage, strongAttack, sprintAttack, knockback, critical,
-			magicalDamage > 0, fireAspect, sweeping,
-			finalAttackEvent.hasAttackSounds(),
-			finalAttackEvent.playSoundsOnFail()
-		);
+		return true;
 	}
 }
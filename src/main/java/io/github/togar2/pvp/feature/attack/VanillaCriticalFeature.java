@@ -4,6 +4,7 @@ import io.github.togar2.pvp.feature.CombatFeature;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.effect.EffectFeature;
 import io.github.togar2.pvp.feature.state.PlayerStateFeature;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.LivingEntity;
@@ -17,12 +18,13 @@ import java.util.concurrent.ThreadLocalRandom;
 public class VanillaCriticalFeature implements CriticalFeature, CombatFeature {
 	public static final DefinedFeature<VanillaCriticalFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.CRITICAL, VanillaCriticalFeature::new,
-			FeatureType.PLAYER_STATE, FeatureType.VERSION
+			FeatureType.PLAYER_STATE, FeatureType.EFFECT, FeatureType.VERSION
 	);
 	
 	private final FeatureConfiguration configuration;
 	
 	private PlayerStateFeature playerStateFeature;
+	private EffectFeature effectFeature;
 	private CombatVersion version;
 	
 	public VanillaCriticalFeature(FeatureConfiguration configuration) {
@@ -32,14 +34,24 @@ public class VanillaCriticalFeature implements CriticalFeature, CombatFeature {
 	@Override
 	public void initDependencies() {
 		this.playerStateFeature = configuration.get(FeatureType.PLAYER_STATE);
+		this.effectFeature = configuration.get(FeatureType.EFFECT);
 		this.version = configuration.get(FeatureType.VERSION);
 	}
 	
 	@Override
 	public boolean shouldCrit(LivingEntity attacker, AttackValues.PreCritical values) {
-		boolean critical = values.strong() && !playerStateFeature.isClimbing(attacker)
+		return shouldCrit(attacker, values.strong());
+	}
+	
+	@Override
+	public boolean shouldCrit(LivingEntity attacker, AttackContext context) {
+		return shouldCrit(attacker, context.strong());
+	}
+	
+	protected boolean shouldCrit(LivingEntity attacker, boolean strong) {
+		boolean critical = strong && !playerStateFeature.isClimbing(attacker)
 				&& attacker.getVelocity().y() < 0 && !attacker.isOnGround()
-				&& !attacker.hasEffect(PotionEffect.BLINDNESS)
+				&& !effectFeature.hasEffect(attacker, PotionEffect.BLINDNESS)
 				&& attacker.getVehicle() == null;
 		if (version.legacy()) return critical;
 		
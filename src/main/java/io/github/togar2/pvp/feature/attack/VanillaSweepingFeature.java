@@ -1,9 +1,11 @@
 package io.github.togar2.pvp.feature.attack;
 
-import io.github.togar2.pvp.enums.Tool;
+import io.github.togar2.pvp.damage.DamageBatch;
+import io.github.togar2.pvp.enums.CombatMaterialProfile;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.damage.DamageFeature;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.feature.knockback.KnockbackFeature;
 import net.minestom.server.collision.BoundingBox;
@@ -13,8 +15,8 @@ import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
-import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.entity.damage.DamageType;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.network.packet.server.play.ParticlePacket;
 import net.minestom.server.particle.Particle;
 
@@ -24,13 +26,14 @@ import net.minestom.server.particle.Particle;
 public class VanillaSweepingFeature implements SweepingFeature {
 	public static final DefinedFeature<VanillaSweepingFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.SWEEPING, VanillaSweepingFeature::new,
-			FeatureType.ENCHANTMENT, FeatureType.KNOCKBACK
+			FeatureType.ENCHANTMENT, FeatureType.KNOCKBACK, FeatureType.DAMAGE
 	);
 	
 	private final FeatureConfiguration configuration;
 	
 	private EnchantmentFeature enchantmentFeature;
 	private KnockbackFeature knockbackFeature;
+	private DamageFeature damageFeature;
 	
 	public VanillaSweepingFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -40,17 +43,26 @@ public class VanillaSweepingFeature implements SweepingFeature {
 	public void initDependencies() {
 		this.enchantmentFeature = configuration.get(FeatureType.ENCHANTMENT);
 		this.knockbackFeature = configuration.get(FeatureType.KNOCKBACK);
+		this.damageFeature = configuration.get(FeatureType.DAMAGE);
 	}
 	
 	@Override
 	public boolean shouldSweep(LivingEntity attacker, AttackValues.PreSweeping values) {
-		if (!values.strong() || values.critical() || values.sprint() || !attacker.isOnGround()) return false;
+		return shouldSweep(attacker, values.strong(), values.critical(), values.sprint());
+	}
+	
+	@Override
+	public boolean shouldSweep(LivingEntity attacker, AttackContext context) {
+		return shouldSweep(attacker, context.strong(), context.critical(), context.sprint());
+	}
+	
+	protected boolean shouldSweep(LivingEntity attacker, boolean strong, boolean critical, boolean sprint) {
+		if (!strong || critical || sprint || !attacker.isOnGround()) return false;
 		
 		double lastMoveDistance = attacker.getPreviousPosition().distance(attacker.getPosition()) * 0.6;
 		if (lastMoveDistance >= attacker.getAttributeValue(Attribute.GENERIC_MOVEMENT_SPEED)) return false;
 		
-		Tool tool = Tool.fromMaterial(attacker.getItemInMainHand().material());
-		return tool != null && tool.isSword();
+		return CombatMaterialProfile.of(attacker.getItemInMainHand().material()).sword();
 	}
 	
 	@Override
@@ -67,8 +79,15 @@ public class VanillaSweepingFeature implements SweepingFeature {
 		
 		// Loop and check for colliding entities
 		BoundingBox boundingBox = target.getBoundingBox().expand(1.0, 0.25, 1.0);
-		assert target.getInstance() != null;
-		for (Entity nearbyEntity : target.getInstance().getNearbyEntities(target.getPosition(), 2)) {
+		Instance instance = target.getInstance();
+		assert instance != null;
+		
+		// All entities hit by the sweep are damaged in one batch
+		DamageBatch batch = new DamageBatch(
+				instance, attacker instanceof Player ? DamageType.PLAYER_ATTACK : DamageType.MOB_ATTACK,
+				attacker, attacker, null
+		);
+		for (Entity nearbyEntity : instance.getNearbyEntities(target.getPosition(), 2)) {
 			if (nearbyEntity == target || nearbyEntity == attacker) continue;
 			if (!(nearbyEntity instanceof LivingEntity living)) continue;
 			if (nearbyEntity.getEntityType() == EntityType.ARMOR_STAND) continue;
@@ -77,15 +96,12 @@ public class VanillaSweepingFeature implements SweepingFeature {
 			// Apply sweeping knockback and damage to the entity
 			if (attacker.getPosition().distanceSquared(nearbyEntity.getPosition()) < 9.0) {
 				knockbackFeature.applySweepingKnockback(attacker, target);
-				
-				living.damage(new Damage(
-						attacker instanceof Player ? DamageType.PLAYER_ATTACK : DamageType.MOB_ATTACK,
-						attacker, attacker,
-						null, sweepingDamage
-				));
+				batch.add(living, sweepingDamage);
 			}
 		}
 		
+		if (batch.size() > 0) damageFeature.damage(batch, DamageBatch.ResultHandler.NONE);
+		
 		// Spawn sweeping particles
 		Pos pos = attacker.getPosition();
 		double x = -Math.sin(Math.toRadians(pos.yaw()));
@@ -2,23 +2,22 @@ package io.github.togar2.pvp.feature.attributes;
 
 import io.github.togar2.pvp.enums.ArmorMaterial;
 import io.github.togar2.pvp.enums.Tool;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.LivingEntity;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.item.EntityEquipEvent;
 import net.minestom.server.event.player.PlayerChangeHeldSlotEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemStack;
 
 /**
  * Vanilla implementation of {@link EquipmentFeature}
  */
-public class VanillaEquipmentFeature implements EquipmentFeature, RegistrableFeature {
+public class VanillaEquipmentFeature implements EquipmentFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaEquipmentFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.EQUIPMENT, VanillaEquipmentFeature::new,
 			FeatureType.VERSION
@@ -40,9 +39,9 @@ public class VanillaEquipmentFeature implements EquipmentFeature, RegistrableFea
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EntityEquipEvent.class, this::onEquip);
-		node.addListener(PlayerChangeHeldSlotEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(EntityEquipEvent.class, this::onEquip);
+		collector.addListener(PlayerChangeHeldSlotEvent.class, event -> {
 			LivingEntity entity = event.getPlayer();
 			ItemStack newItem = event.getPlayer().getInventory().getItemStack(event.getSlot());
 			Tool.updateEquipmentAttributes(entity, entity.getEquipment(EquipmentSlot.MAIN_HAND), newItem, EquipmentSlot.MAIN_HAND, version);
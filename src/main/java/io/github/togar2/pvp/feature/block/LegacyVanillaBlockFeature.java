@@ -1,18 +1,19 @@
 package io.github.togar2.pvp.feature.block;
 
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.enums.CombatMaterialProfile;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.item.ItemUpdateStateEvent;
 import net.minestom.server.event.player.PlayerChangeHeldSlotEvent;
 import net.minestom.server.event.player.PlayerHandAnimationEvent;
 import net.minestom.server.event.player.PlayerSwapItemEvent;
 import net.minestom.server.event.player.PlayerUseItemEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
 import net.minestom.server.tag.Tag;
@@ -21,15 +22,15 @@ import net.minestom.server.tag.Tag;
  * Vanilla implementation of {@link LegacyBlockFeature}
  */
 public class LegacyVanillaBlockFeature extends VanillaBlockFeature
-		implements LegacyBlockFeature, RegistrableFeature {
+		implements LegacyBlockFeature, CompilableFeature {
 	public static final DefinedFeature<LegacyVanillaBlockFeature> SHIELD = new DefinedFeature<>(
 			FeatureType.LEGACY_BLOCK, configuration -> new LegacyVanillaBlockFeature(configuration, ItemStack.of(Material.SHIELD)),
 			LegacyVanillaBlockFeature::initPlayer,
 			FeatureType.ITEM_DAMAGE
 	);
 	
-	public static final Tag<Long> LAST_SWING_TIME = Tag.Long("lastSwingTime");
-	public static final Tag<Boolean> BLOCKING_SWORD = Tag.Boolean("blockingSword");
+	public static final CombatState.LongSlot LAST_SWING_TIME = CombatState.longSlot("lastSwingTime", 0);
+	public static final CombatState.BooleanSlot BLOCKING_SWORD = CombatState.booleanSlot("blockingSword", false);
 	public static final Tag<ItemStack> BLOCK_REPLACEMENT_ITEM = Tag.ItemStack("blockReplacementItem");
 	
 	private final ItemStack blockingItem;
@@ -40,33 +41,33 @@ public class LegacyVanillaBlockFeature extends VanillaBlockFeature
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(LAST_SWING_TIME, 0L);
-		player.setTag(BLOCKING_SWORD, false);
+		LAST_SWING_TIME.reset(player);
+		BLOCKING_SWORD.reset(player);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerUseItemEvent.class, this::handleUseItem);
-		node.addListener(ItemUpdateStateEvent.class, this::handleUpdateState);
-		node.addListener(PlayerSwapItemEvent.class, this::handleSwapItem);
-		node.addListener(PlayerChangeHeldSlotEvent.class, this::handleChangeSlot);
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerUseItemEvent.class, this::handleUseItem);
+		collector.addListener(ItemUpdateStateEvent.class, this::handleUpdateState);
+		collector.addListener(PlayerSwapItemEvent.class, this::handleSwapItem);
+		collector.addListener(PlayerChangeHeldSlotEvent.class, this::handleChangeSlot);
 		
-		node.addListener(PlayerHandAnimationEvent.class, event -> {
+		collector.addListener(PlayerHandAnimationEvent.class, event -> {
 			if (event.getHand() == Player.Hand.MAIN)
-				event.getPlayer().setTag(LAST_SWING_TIME, System.currentTimeMillis());
+				LAST_SWING_TIME.set(event.getPlayer(), System.currentTimeMillis());
 		});
 	}
 	
 	@Override
 	public boolean isBlocking(Player player) {
-		return player.getTag(BLOCKING_SWORD);
+		return BLOCKING_SWORD.get(player);
 	}
 	
 	@Override
 	public void block(Player player) {
 		if (!isBlocking(player)) {
 			player.setTag(BLOCK_REPLACEMENT_ITEM, player.getItemInOffHand());
-			player.setTag(BLOCKING_SWORD, true);
+			BLOCKING_SWORD.set(player, true);
 			
 			player.setItemInOffHand(blockingItem);
 			player.refreshActiveHand(true, true, false);
@@ -77,7 +78,7 @@ public class LegacyVanillaBlockFeature extends VanillaBlockFeature
 	@Override
 	public void unblock(Player player) {
 		if (isBlocking(player)) {
-			player.setTag(BLOCKING_SWORD, false);
+			BLOCKING_SWORD.set(player, false);
 			player.setItemInOffHand(player.getTag(BLOCK_REPLACEMENT_ITEM));
 			player.removeTag(BLOCK_REPLACEMENT_ITEM);
 		}
@@ -87,7 +88,7 @@ public class LegacyVanillaBlockFeature extends VanillaBlockFeature
 		Player player = event.getPlayer();
 		
 		if (event.getHand() == Player.Hand.MAIN && !isBlocking(player) && canBlockWith(player, event.getItemStack())) {
-			long elapsedSwingTime = System.currentTimeMillis() - player.getTag(LAST_SWING_TIME);
+			long elapsedSwingTime = System.currentTimeMillis() - LAST_SWING_TIME.get(player);
 			if (elapsedSwingTime < 50) {
 				return;
 			}
@@ -115,6 +116,6 @@ public class LegacyVanillaBlockFeature extends VanillaBlockFeature
 	
 	@Override
 	public boolean canBlockWith(Player player, ItemStack stack) {
-		return stack.material().registry().namespace().value().contains("sword");
+		return CombatMaterialProfile.of(stack.material()).legacyBlockable();
 	}
 }
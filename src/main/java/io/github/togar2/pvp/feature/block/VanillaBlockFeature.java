@@ -1,7 +1,7 @@
 package io.github.togar2.pvp.feature.block;
 
 import io.github.togar2.pvp.damage.DamageTypeInfo;
-import io.github.togar2.pvp.enums.Tool;
+import io.github.togar2.pvp.enums.CombatMaterialProfile;
 import io.github.togar2.pvp.events.DamageBlockEvent;
 import io.github.togar2.pvp.feature.CombatFeature;
 import io.github.togar2.pvp.feature.FeatureType;
@@ -94,10 +94,16 @@ public class VanillaBlockFeature implements BlockFeature, CombatFeature {
 		float amount = damage.getAmount();
 		float resultingDamage = version.legacy() ? Math.max(0, (amount + 1) * 0.5f) : 0;
 		
-		DamageBlockEvent damageBlockEvent = new DamageBlockEvent(entity, amount, resultingDamage, false);
-		EventDispatcher.call(damageBlockEvent);
-		if (damageBlockEvent.isCancelled()) return false;
-		damage.setAmount(damageBlockEvent.getResultingDamage());
+		float newDamage = resultingDamage;
+		boolean knockbackAttacker = false;
+		if (EventDispatcher.getHandle(DamageBlockEvent.class).hasListener()) {
+			DamageBlockEvent damageBlockEvent = new DamageBlockEvent(entity, amount, resultingDamage, knockbackAttacker);
+			EventDispatcher.call(damageBlockEvent);
+			if (damageBlockEvent.isCancelled()) return false;
+			newDamage = damageBlockEvent.getResultingDamage();
+			knockbackAttacker = damageBlockEvent.knockbackAttacker();
+		}
+		damage.setAmount(newDamage);
 		
 		if (amount >= 3) {
 			int shieldDamage = 1 + (int) Math.floor(amount);
@@ -121,7 +127,7 @@ public class VanillaBlockFeature implements BlockFeature, CombatFeature {
 		// Take shield hit (knockback and disabling)
 		DamageTypeInfo info = DamageTypeInfo.of(damage.getType());
 		if (!info.projectile() && damage.getAttacker() instanceof LivingEntity attacker)
-			takeShieldHit(entity, attacker, damageBlockEvent.knockbackAttacker());
+			takeShieldHit(entity, attacker, knockbackAttacker);
 		
 		return resultingDamage == 0;
 	}
@@ -137,8 +143,7 @@ public class VanillaBlockFeature implements BlockFeature, CombatFeature {
 		}
 		
 		if (!(entity instanceof Player)) return;
-		Tool tool = Tool.fromMaterial(attacker.getItemInMainHand().material());
-		if (tool != null && tool.isAxe()) {
+		if (CombatMaterialProfile.of(attacker.getItemInMainHand().material()).axe()) {
 			disableShield((Player) entity);
 		}
 	}
@@ -24,7 +24,7 @@ import java.util.*;
  * and turns this configuration into a {@link CombatFeatureSet}.
  */
 public class CombatConfiguration {
-	private final Map<FeatureType<?>, ConstructableFeature> features = new HashMap<>();
+	private final Map<FeatureType<?>, ConstructableFeature> features = new LinkedHashMap<>();
 	
 	public final CombatConfiguration addAll(Collection<DefinedFeature<?>> constructors) {
 		for (DefinedFeature<?> constructor : constructors) {
@@ -142,67 +142,63 @@ public class CombatConfiguration {
 	
 	/**
 	 * Resolves all the dependencies and turns this configuration into a {@link CombatFeatureSet}.
+	 * The features in the resulting set are ordered so that features come after the features they depend on,
+	 * and the set is frozen (it can not be modified anymore).
 	 *
 	 * @return the combat feature set
 	 */
 	public CombatFeatureSet build() {
 		CombatFeatureSet result = new CombatFeatureSet();
 		
-		//List<ConstructableFeature> buildOrder = getBuildOrder();
-		
-		for (ConstructableFeature feature : features.values()) {
+		for (ConstructableFeature feature : getBuildOrder()) {
 			CombatFeature currentResult = feature.construct(result);
 			result.add(feature.type, currentResult);
+			
+			DefinedFeature<?> definition = feature.definition();
+			if (definition != null) result.setDefinition(feature.type, definition);
 		}
 		
 		result.initDependencies();
+		result.freeze();
 		
 		return result;
 	}
 	
 	/**
 	 * Performs a (recursive) topological sort to make sure all the features
-	 * that are depended on by other features are first in the list
+	 * that are depended on by other features are first in the list.
+	 * <p>
+	 * Recursive dependencies are allowed (features only resolve their dependencies in {@link CombatFeature#initDependencies()}),
+	 * in that case the feature which is visited first will be first in the list.
 	 *
 	 * @return the list with ordering
 	 */
 	private List<ConstructableFeature> getBuildOrder() {
-		List<ConstructableFeature> order = new ArrayList<>(features.size());
+		Set<ConstructableFeature> order = new LinkedHashSet<>(features.size());
 		Set<ConstructableFeature> visiting = new HashSet<>();
 		
-		while (true) {
-			// Find unprocessed feature
-			ConstructableFeature unprocessed = null;
-			for (ConstructableFeature feature : features.values()) {
-				if (order.contains(feature)) continue;
-				if (visiting.contains(feature)) continue;
-				unprocessed = feature;
-			}
-			
-			if (unprocessed == null) break;
-			visit(order, visiting, unprocessed);
+		for (ConstructableFeature feature : features.values()) {
+			visit(order, visiting, feature);
 		}
 		
-		return order;
+		return new ArrayList<>(order);
 	}
 	
-	private void visit(List<ConstructableFeature> order, Set<ConstructableFeature> visiting, ConstructableFeature current) {
+	private void visit(Set<ConstructableFeature> order, Set<ConstructableFeature> visiting, ConstructableFeature current) {
 		if (order.contains(current)) return; // Feature has already been added
-		if (visiting.contains(current))
-			throw new RuntimeException("Configuration has a recursive dependency");
+		if (!visiting.add(current)) return; // Recursive dependency, will be added further up
 		
 		if (current instanceof LazyFeatureInit lazy) {
-			visiting.add(current);
-			
 			for (FeatureType<?> dependType : lazy.constructor.dependencies()) {
-				ConstructableFeature dependFeature = lazy.getOverrideOf(dependType);
-				if (dependFeature == null) dependFeature = getFeatureOf(dependType);
+				// Overrides are constructed along with the feature itself, only look at the configuration
+				if (lazy.getOverrideOf(dependType) != null) continue;
+				
+				ConstructableFeature dependFeature = getFeatureOf(dependType);
 				if (dependFeature != null) visit(order, visiting, dependFeature);
 			}
-			
-			visiting.remove(current);
 		}
 		
+		visiting.remove(current);
 		order.add(current);
 	}
 	
@@ -218,6 +214,10 @@ public class CombatConfiguration {
 		}
 		
 		abstract CombatFeature construct(FeatureConfiguration configuration);
+		
+		@Nullable DefinedFeature<?> definition() {
+			return null;
+		}
 	}
 	
 	private static final class ConstructedFeature extends ConstructableFeature {
@@ -248,6 +248,11 @@ public class CombatConfiguration {
 			return override.get(featureType);
 		}
 		
+		@Override
+		@Nullable DefinedFeature<?> definition() {
+			return constructor;
+		}
+		
 		@Override
 		CombatFeature construct(FeatureConfiguration configuration) {
 			FeatureConfiguration local = configuration.overlay();
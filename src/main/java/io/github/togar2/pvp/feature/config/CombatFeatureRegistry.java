@@ -1,31 +1,107 @@
 package io.github.togar2.pvp.feature.config;
 
+import io.github.togar2.pvp.entity.CombatState;
 import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
 import net.minestom.server.event.Event;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.AsyncPlayerConfigurationEvent;
 import net.minestom.server.event.player.PlayerRespawnEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
+import net.minestom.server.event.trait.PlayerInstanceEvent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class CombatFeatureRegistry {
 	private static final EventNode<Event> initNode = EventNode.all("combat-feature-init");
-	private static final List<DefinedFeature<?>> features = new ArrayList<>();
-	
-	public static void init(DefinedFeature<?> feature) {
-		if (!features.contains(feature)) {
-			features.add(feature);
-			if (feature.playerInit() != null) {
-				initNode.addListener(AsyncPlayerConfigurationEvent.class, event -> feature.playerInit().init(event.getPlayer(), true));
-				initNode.addListener(PlayerSpawnEvent.class, event -> feature.playerInit().init(event.getPlayer(), false));
-				initNode.addListener(PlayerRespawnEvent.class, event -> feature.playerInit().init(event.getPlayer(), false));
-			}
+	private static final Set<DefinedFeature<?>> features = Collections.newSetFromMap(new IdentityHashMap<>());
+	
+	/**
+	 * The player inits of all registered features, in order of registration.
+	 * Replaced as a whole when a feature is registered, so listeners can iterate it without locking.
+	 */
+	private static volatile DefinedFeature.PlayerInit[] playerInits = new DefinedFeature.PlayerInit[0];
+	
+	private static final CombatState.BooleanSlot INITIALIZED = CombatState.booleanSlot("combatFeaturesInitialized", false);
+	
+	static {
+		initNode.addListener(AsyncPlayerConfigurationEvent.class, event -> initPlayer(event.getPlayer(), true));
+		initNode.addListener(PlayerSpawnEvent.class, event -> initPlayer(event.getPlayer(), false));
+		initNode.addListener(PlayerRespawnEvent.class, event -> initPlayer(event.getPlayer(), false));
+	}
+	
+	public static synchronized void init(DefinedFeature<?> feature) {
+		if (!features.add(feature)) return;
+		
+		if (feature.playerInit() != null) {
+			DefinedFeature.PlayerInit[] newInits = Arrays.copyOf(playerInits, playerInits.length + 1);
+			newInits[playerInits.length] = feature.playerInit();
+			playerInits = newInits;
 		}
 	}
 	
+	/**
+	 * Registers the player init listeners to the global event handler, so every player will be initialized.
+	 */
 	public static void init() {
 		MinecraftServer.getGlobalEventHandler().addChild(initNode);
 	}
+	
+	/**
+	 * Registers the player init listeners to the given node (e.g. the event node of an instance) instead,
+	 * so only players within the scope of this node will be initialized.
+	 * Since players are not in an instance yet while configuring, the first spawn within the scope
+	 * is treated as the first init.
+	 * <p>
+	 * This should not be used together with {@link CombatFeatureRegistry#init()}.
+	 *
+	 * @param node the node to add the listeners to
+	 */
+	public static void init(EventNode<? super PlayerInstanceEvent> node) {
+		node.addListener(PlayerSpawnEvent.class, event -> initScoped(event.getPlayer()));
+		node.addListener(PlayerRespawnEvent.class, event -> initScoped(event.getPlayer()));
+	}
+	
+	private static void initScoped(Player player) {
+		boolean firstInit = !INITIALIZED.get(player);
+		INITIALIZED.set(player, true);
+		initPlayer(player, firstInit);
+	}
+	
+	/**
+	 * Runs the {@link DefinedFeature.PlayerInit} of every registered feature for the given player.
+	 *
+	 * @param player the player
+	 * @param firstInit whether this is the first time the player is initialized
+	 */
+	public static void initPlayer(Player player, boolean firstInit) {
+		for (DefinedFeature.PlayerInit playerInit : playerInits) {
+			playerInit.init(player, firstInit);
+		}
+	}
+	
+	/**
+	 * Resets the state of all registered features for the given player, like a respawn would.
+	 *
+	 * @param player the player
+	 */
+	public static void resetPlayer(Player player) {
+		initPlayer(player, false);
+	}
+	
+	/**
+	 * Resets the state of all registered features for the given players, like a respawn would.
+	 * This is meant for resetting many players at once, e.g. when a new round starts.
+	 *
+	 * @param players the players
+	 */
+	public static void resetPlayers(Collection<? extends Player> players) {
+		if (players.isEmpty()) return;
+		
+		for (DefinedFeature.PlayerInit playerInit : playerInits) {
+			for (Player player : players) {
+				playerInit.init(player, false);
+			}
+		}
+	}
 }
@@ -54,7 +54,7 @@ public class DefinedFeature<F extends CombatFeature> {
 		return dependencies;
 	}
 	
-	@Nullable PlayerInit playerInit() {
+	public @Nullable PlayerInit playerInit() {
 		return playerInit;
 	}
 	
@@ -5,19 +5,21 @@ import io.github.togar2.pvp.feature.FeatureType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.function.BiConsumer;
 
 /**
  * A (mutable) configuration for a feature.
  * It contains dependencies for the feature, accessible by their feature type.
  * See {@link FeatureConfiguration#get(FeatureType)}
+ * <p>
+ * Features are stored in an array indexed by {@link FeatureType#id()}, so looking up a feature is a single array access.
+ * A configuration can be frozen using {@link FeatureConfiguration#freeze()}, after which it can no longer be modified.
  */
 public class FeatureConfiguration {
-	protected final Map<FeatureType<?>, CombatFeature> combatFeatures = new HashMap<>();
+	private final Map<FeatureType<?>, CombatFeature> combatFeatures = new LinkedHashMap<>();
+	private CombatFeature[] byId = new CombatFeature[FeatureType.count()];
+	private boolean frozen = false;
 	
 	public FeatureConfiguration() {}
 	
@@ -31,9 +33,14 @@ public class FeatureConfiguration {
 	 * @param type the feature type to add the feature as
 	 * @param feature the feature to add
 	 * @return this configuration
+	 * @throws IllegalStateException if this configuration has been frozen
 	 */
 	public FeatureConfiguration add(FeatureType<?> type, CombatFeature feature) {
+		if (frozen) throw new IllegalStateException("Cannot add features to a frozen configuration");
+		
 		combatFeatures.put(type, feature);
+		if (type.id() >= byId.length) byId = Arrays.copyOf(byId, Math.max(type.id() + 1, FeatureType.count()));
+		byId[type.id()] = feature;
 		return this;
 	}
 	
@@ -45,22 +52,35 @@ public class FeatureConfiguration {
 	 * @return the feature associated with the feature type, or the default feature for this type
 	 * @param <T> the feature class
 	 */
-	@SuppressWarnings("unchecked")
 	public <T extends CombatFeature> @NotNull T get(FeatureType<T> type) {
-		return (T) combatFeatures.getOrDefault(type, type.defaultFeature());
+		T feature = getRaw(type);
+		return feature != null ? feature : type.defaultFeature();
 	}
 	
 	@SuppressWarnings("unchecked")
 	<T extends CombatFeature> @Nullable T getRaw(FeatureType<T> type) {
-		return (T) combatFeatures.get(type);
+		CombatFeature[] byId = this.byId;
+		int id = type.id();
+		return id < byId.length ? (T) byId[id] : null;
+	}
+	
+	/**
+	 * Makes this configuration immutable. Any subsequent call to {@link #add(FeatureType, CombatFeature)} will throw.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+	
+	public boolean isFrozen() {
+		return frozen;
 	}
 	
 	public Collection<CombatFeature> listFeatures() {
-		return combatFeatures.values();
+		return Collections.unmodifiableCollection(combatFeatures.values());
 	}
 	
 	public Set<FeatureType<?>> listTypes() {
-		return combatFeatures.keySet();
+		return Collections.unmodifiableSet(combatFeatures.keySet());
 	}
 	
 	public int size() {
@@ -84,11 +104,8 @@ public class FeatureConfiguration {
 		
 		@Override
 		public <T extends CombatFeature> @NotNull T get(FeatureType<T> type) {
-			if (super.combatFeatures.containsKey(type)) {
-				return super.get(type);
-			} else {
-				return backing.get(type);
-			}
+			T feature = getRaw(type);
+			return feature != null ? feature : backing.get(type);
 		}
 	}
 	
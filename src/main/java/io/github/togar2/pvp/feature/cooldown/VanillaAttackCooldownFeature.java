@@ -1,30 +1,29 @@
 package io.github.togar2.pvp.feature.cooldown;
 
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.event.EventListener;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerChangeHeldSlotEvent;
 import net.minestom.server.event.player.PlayerHandAnimationEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
-import net.minestom.server.tag.Tag;
 import net.minestom.server.utils.MathUtils;
 
 /**
  * Vanilla implementation of {@link AttackCooldownFeature}
  */
-public class VanillaAttackCooldownFeature implements AttackCooldownFeature, RegistrableFeature {
+public class VanillaAttackCooldownFeature implements AttackCooldownFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaAttackCooldownFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.ATTACK_COOLDOWN, VanillaAttackCooldownFeature::new,
 			FeatureType.VERSION
 	);
 	
-	public static final Tag<Long> LAST_ATTACKED_TICKS = Tag.Long("lastAttackedTicks");
+	public static final CombatState.LongSlot LAST_ATTACKED_TICKS = CombatState.longSlot("lastAttackedTicks", Long.MIN_VALUE);
 	
 	private final FeatureConfiguration configuration;
 	private CombatVersion version;
@@ -39,11 +38,11 @@ public class VanillaAttackCooldownFeature implements AttackCooldownFeature, Regi
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EventListener.builder(PlayerHandAnimationEvent.class).handler(event ->
+	public void init(ListenerCollector collector) {
+		collector.addListener(EventListener.builder(PlayerHandAnimationEvent.class).handler(event ->
 				resetCooldownProgress(event.getPlayer())).build());
 		
-		node.addListener(EventListener.builder(PlayerChangeHeldSlotEvent.class).handler(event -> {
+		collector.addListener(EventListener.builder(PlayerChangeHeldSlotEvent.class).handler(event -> {
 			if (!event.getPlayer().getItemInMainHand()
 					.isSimilar(event.getPlayer().getInventory().getItemStack(event.getSlot()))) {
 				resetCooldownProgress(event.getPlayer());
@@ -53,15 +52,15 @@ public class VanillaAttackCooldownFeature implements AttackCooldownFeature, Regi
 	
 	@Override
 	public void resetCooldownProgress(Player player) {
-		player.setTag(LAST_ATTACKED_TICKS, player.getAliveTicks());
+		LAST_ATTACKED_TICKS.set(player, player.getAliveTicks());
 	}
 	
 	@Override
 	public double getAttackCooldownProgress(Player player) {
 		if (version.legacy()) return 1.0;
 		
-		Long lastAttacked = player.getTag(LAST_ATTACKED_TICKS);
-		if (lastAttacked == null) return 1.0;
+		long lastAttacked = LAST_ATTACKED_TICKS.get(player);
+		if (lastAttacked == LAST_ATTACKED_TICKS.defaultValue()) return 1.0;
 		
 		long timeSinceLastAttacked = player.getAliveTicks() - lastAttacked;
 		return MathUtils.clamp(
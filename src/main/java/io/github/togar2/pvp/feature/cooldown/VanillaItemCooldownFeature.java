@@ -1,14 +1,16 @@
 package io.github.togar2.pvp.feature.cooldown;
 
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
+import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
-import net.minestom.server.event.player.PlayerTickEvent;
 import net.minestom.server.event.player.PlayerUseItemEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.Material;
 import net.minestom.server.network.packet.server.play.SetCooldownPacket;
 import net.minestom.server.tag.Tag;
@@ -20,14 +22,35 @@ import java.util.Map;
 /**
  * Vanilla implementation of {@link ItemCooldownFeature}
  */
-public class VanillaItemCooldownFeature implements ItemCooldownFeature, RegistrableFeature {
+public class VanillaItemCooldownFeature implements ItemCooldownFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaItemCooldownFeature> DEFINED = new DefinedFeature<>(
-			FeatureType.ITEM_COOLDOWN, configuration -> new VanillaItemCooldownFeature(),
-			VanillaItemCooldownFeature::initPlayer
+			FeatureType.ITEM_COOLDOWN, VanillaItemCooldownFeature::new,
+			VanillaItemCooldownFeature::initPlayer,
+			FeatureType.PLAYER_TICK
 	);
 	
 	public static final Tag<Map<Material, Long>> COOLDOWN_END = Tag.Transient("cooldownEnd");
 	
+	private final FeatureConfiguration configuration;
+	
+	private PlayerTickFeature playerTickFeature;
+	
+	/**
+	 * Creates the feature without dependencies, it uses {@link PlayerTickFeature#DEFAULT}.
+	 */
+	public VanillaItemCooldownFeature() {
+		this(new FeatureConfiguration());
+	}
+	
+	public VanillaItemCooldownFeature(FeatureConfiguration configuration) {
+		this.configuration = configuration;
+	}
+	
+	@Override
+	public void initDependencies() {
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
+	}
+	
 	private static void initPlayer(Player player, boolean firstInit) {
 		player.setTag(COOLDOWN_END, new HashMap<>());
 	}
@@ -39,30 +62,33 @@ public class VanillaItemCooldownFeature implements ItemCooldownFeature, Registra
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerTickEvent.class, event -> {
-			Player player = event.getPlayer();
-			Map<Material, Long> cooldown = player.getTag(COOLDOWN_END);
-			if (cooldown.isEmpty()) return;
-			long time = System.currentTimeMillis();
-			
-			Iterator<Map.Entry<Material, Long>> iterator = cooldown.entrySet().iterator();
-			
-			while (iterator.hasNext()) {
-				Map.Entry<Material, Long> entry = iterator.next();
-				if (entry.getValue() <= time) {
-					iterator.remove();
-					sendCooldownPacket(player, entry.getKey(), 0);
-				}
-			}
-		});
+	public void init(ListenerCollector collector) {
+		playerTickFeature.register(collector, this);
 		
-		node.addListener(PlayerUseItemEvent.class, event -> {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			if (hasCooldown(event.getPlayer(), event.getItemStack().material()))
 				event.setCancelled(true);
 		});
 	}
 	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		Player player = context.getPlayer();
+		Map<Material, Long> cooldown = player.getTag(COOLDOWN_END);
+		if (cooldown.isEmpty()) return;
+		long time = System.currentTimeMillis();
+		
+		Iterator<Map.Entry<Material, Long>> iterator = cooldown.entrySet().iterator();
+		
+		while (iterator.hasNext()) {
+			Map.Entry<Material, Long> entry = iterator.next();
+			if (entry.getValue() <= time) {
+				iterator.remove();
+				sendCooldownPacket(player, entry.getKey(), 0);
+			}
+		}
+	}
+	
 	@Override
 	public boolean hasCooldown(Player player, Material material) {
 		Map<Material, Long> cooldown = player.getTag(COOLDOWN_END);
@@ -1,10 +1,46 @@
 package io.github.togar2.pvp.feature.damage;
 
+import io.github.togar2.pvp.damage.DamageBatch;
+import io.github.togar2.pvp.events.DamageBatchEvent;
 import io.github.togar2.pvp.feature.CombatFeature;
+import net.minestom.server.event.EventDispatcher;
 
 /**
  * Combat feature which handles entities being damaged.
  */
 public interface DamageFeature extends CombatFeature {
 	DamageFeature NO_OP = new DamageFeature() {};
+	
+	/**
+	 * Damages all targets of a batch, calling {@link DamageBatchEvent} once for the whole batch.
+	 * The result for every target is passed to the handler as soon as it is known.
+	 *
+	 * @param batch the batch of damage
+	 * @param handler the handler which receives the result for every target
+	 */
+	default void damage(DamageBatch batch, DamageBatch.ResultHandler handler) {
+		boolean cancelled = false;
+		if (EventDispatcher.getHandle(DamageBatchEvent.class).hasListener()) {
+			DamageBatchEvent event = new DamageBatchEvent(batch);
+			EventDispatcher.call(event);
+			cancelled = event.isCancelled();
+		}
+		
+		for (int i = 0; i < batch.size(); i++) {
+			boolean damaged = !cancelled && !batch.isCancelled(i) && damage(batch, i);
+			handler.accept(batch.getTarget(i), batch.getAmount(i), damaged);
+		}
+	}
+	
+	/**
+	 * Damages a single target of a batch, called by {@link #damage(DamageBatch, DamageBatch.ResultHandler)}
+	 * for every target which has not been cancelled.
+	 *
+	 * @param batch the batch of damage
+	 * @param index the index of the target
+	 * @return whether the target has been damaged
+	 */
+	default boolean damage(DamageBatch batch, int index) {
+		return batch.getTarget(index).damage(batch.createDamage(index));
+	}
 }
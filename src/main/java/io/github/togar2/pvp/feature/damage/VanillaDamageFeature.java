@@ -1,24 +1,30 @@
 package io.github.togar2.pvp.feature.damage;
 
+import io.github.togar2.pvp.damage.DamageBatch;
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.damage.DamageTypeInfo;
+import io.github.togar2.pvp.entity.CombatState;
 import io.github.togar2.pvp.events.EntityPreDeathEvent;
 import io.github.togar2.pvp.events.FinalDamageEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.armor.ArmorFeature;
 import io.github.togar2.pvp.feature.block.BlockFeature;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.effect.EffectFeature;
+import io.github.togar2.pvp.feature.feedback.FeedbackFeature;
 import io.github.togar2.pvp.feature.food.ExhaustionFeature;
 import io.github.togar2.pvp.feature.item.ItemDamageFeature;
 import io.github.togar2.pvp.feature.knockback.KnockbackFeature;
 import io.github.togar2.pvp.feature.provider.DifficultyProvider;
 import io.github.togar2.pvp.feature.totem.TotemFeature;
 import io.github.togar2.pvp.feature.tracking.TrackingFeature;
+import io.github.togar2.pvp.utils.CombatClassification;
 import io.github.togar2.pvp.utils.CombatVersion;
 import io.github.togar2.pvp.utils.EntityUtil;
 import net.kyori.adventure.sound.Sound;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.LivingEntity;
@@ -26,31 +32,31 @@ import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityDamageEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.network.packet.server.play.DamageEventPacket;
-import net.minestom.server.network.packet.server.play.SoundEffectPacket;
 import net.minestom.server.potion.PotionEffect;
 import net.minestom.server.sound.SoundEvent;
-import net.minestom.server.tag.Tag;
-
-import java.util.Objects;
 
 /**
  * Vanilla implementation of {@link DamageFeature}.
  * Supports blocking, knockback, totems, armor, etc.
+ * <p>
+ * For a {@link DamageBatch}, the damage profile and whether the damage scales with difficulty are resolved once,
+ * and passed to the handling of the damage of every target.
  */
-public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
+public class VanillaDamageFeature implements DamageFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaDamageFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.DAMAGE, VanillaDamageFeature::new,
 			FeatureType.DIFFICULTY, FeatureType.BLOCK, FeatureType.ARMOR, FeatureType.TOTEM,
 			FeatureType.EXHAUSTION, FeatureType.KNOCKBACK, FeatureType.TRACKING,
-			FeatureType.ITEM_DAMAGE, FeatureType.VERSION
+			FeatureType.ITEM_DAMAGE, FeatureType.FEEDBACK, FeatureType.EFFECT, FeatureType.VERSION
 	);
 	
-	public static final Tag<Long> NEW_DAMAGE_TIME = Tag.Long("newDamageTime");
-	public static final Tag<Float> LAST_DAMAGE_AMOUNT = Tag.Float("lastDamageAmount");
+	public static final CombatState.LongSlot NEW_DAMAGE_TIME = CombatState.longSlot("newDamageTime", -10000);
+	public static final CombatState.FloatSlot LAST_DAMAGE_AMOUNT = CombatState.floatSlot("lastDamageAmount", 0);
+	
+	// The batch which is being dealt by this thread
+	private static final ThreadLocal<BatchValues> BATCH = new ThreadLocal<>();
 	
 	private final FeatureConfiguration configuration;
 	
@@ -63,6 +69,8 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 	private KnockbackFeature knockbackFeature;
 	private TrackingFeature trackingFeature;
 	private ItemDamageFeature itemDamageFeature;
+	private FeedbackFeature feedbackFeature;
+	private EffectFeature effectFeature;
 	
 	private CombatVersion version;
 	
@@ -80,12 +88,53 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		this.knockbackFeature = configuration.get(FeatureType.KNOCKBACK);
 		this.trackingFeature = configuration.get(FeatureType.TRACKING);
 		this.itemDamageFeature = configuration.get(FeatureType.ITEM_DAMAGE);
+		this.feedbackFeature = configuration.get(FeatureType.FEEDBACK);
+		this.effectFeature = configuration.get(FeatureType.EFFECT);
 		this.version = configuration.get(FeatureType.VERSION);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EntityDamageEvent.class, this::handleDamage);
+	public void init(ListenerCollector collector) {
+		collector.addListener(EntityDamageEvent.class, this::handleDamage);
+	}
+	
+	@Override
+	public void damage(DamageBatch batch, DamageBatch.ResultHandler handler) {
+		// Resolve the damage type once for the whole batch,
+		// and skip targets which would cancel the damage anyway before creating their damage and events
+		DamageProfile profile = DamageProfile.of(batch.getType());
+		boolean fire = profile.info().fire();
+		for (int i = 0; i < batch.size(); i++) {
+			LivingEntity target = batch.getTarget(i);
+			if (target.isDead() || (fire && effectFeature.hasEffect(target, PotionEffect.FIRE_RESISTANCE)))
+				batch.setCancelled(i, true);
+		}
+		
+		BatchValues values = new BatchValues(batch, profile,
+				profile.info().shouldScaleWithDifficulty(batch.getAttacker()));
+		
+		// Damage dealt while handling the damage of a target can be a batch as well
+		BatchValues previous = BATCH.get();
+		BATCH.set(values);
+		try {
+			DamageFeature.super.damage(batch, handler);
+		} finally {
+			BATCH.set(previous);
+		}
+	}
+	
+	@Override
+	public boolean damage(DamageBatch batch, int index) {
+		BatchValues values = BATCH.get();
+		if (values == null || values.batch != batch) return DamageFeature.super.damage(batch, index);
+		
+		Damage damage = batch.createDamage(index);
+		values.damage = damage;
+		try {
+			return batch.getTarget(index).damage(damage);
+		} finally {
+			values.damage = null;
+		}
 	}
 	
 	protected void handleDamage(EntityDamageEvent event) {
@@ -95,17 +144,23 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		event.setSound(null);
 		
 		LivingEntity entity = event.getEntity();
+		CombatState state = CombatState.of(entity);
 		Damage damage = event.getDamage();
 		Entity attacker = damage.getAttacker();
 		
-		DamageType damageType = MinecraftServer.getDamageTypeRegistry().get(damage.getType());
-		assert damageType != null;
+		// Resolve the damage type once, the profile is passed to all other features
+		// Damage of a batch uses the values which have been resolved for the whole batch
+		BatchValues batch = BATCH.get();
+		boolean fromBatch = batch != null && batch.damage == damage;
+		DamageProfile profile = fromBatch ? batch.profile : DamageProfile.of(damage);
+		assert profile.type() != null;
 		
-		DamageTypeInfo typeInfo = DamageTypeInfo.of(damage.getType());
-		if (event.getEntity() instanceof Player player && typeInfo.shouldScaleWithDifficulty(damage))
+		DamageTypeInfo typeInfo = profile.info();
+		boolean scale = fromBatch ? batch.scaleWithDifficulty : typeInfo.shouldScaleWithDifficulty(damage);
+		if (event.getEntity() instanceof Player player && scale)
 			damage.setAmount(scaleWithDifficulty(player, damage.getAmount()));
 		
-		if (typeInfo.fire() && entity.hasEffect(PotionEffect.FIRE_RESISTANCE)) {
+		if (typeInfo.fire() && effectFeature.hasEffect(entity, PotionEffect.FIRE_RESISTANCE)) {
 			event.setCancelled(true);
 			return;
 		}
@@ -119,14 +174,12 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		
 		float amount = damage.getAmount();
 		
-		if (typeInfo.freeze() && Objects.requireNonNull(MinecraftServer.getTagManager().getTag(
-						net.minestom.server.gamedata.tags.Tag.BasicType.ENTITY_TYPES, "minecraft:freeze_hurts_extra_types"))
-				.contains(entity.getEntityType().namespace())) {
+		if (typeInfo.freeze() && CombatClassification.isFreezeHurtsExtra(entity.getEntityType())) {
 			amount *= 5.0F;
 		}
 		
 		if (typeInfo.damagesHelmet() && !entity.getEquipment(EquipmentSlot.HELMET).isAir()) {
-			itemDamageFeature.damageArmor(entity, damageType, amount, EquipmentSlot.HELMET);
+			itemDamageFeature.damageArmor(entity, profile, amount, EquipmentSlot.HELMET);
 			amount *= 0.75F;
 		}
 		
@@ -134,9 +187,9 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		
 		// Invulnerability ticks
 		boolean hurtSoundAndAnimation = true;
-		long newDamageTime = entity.hasTag(NEW_DAMAGE_TIME) ? entity.getTag(NEW_DAMAGE_TIME) : -10000;
+		long newDamageTime = NEW_DAMAGE_TIME.get(state);
 		if (entity.getAliveTicks() - newDamageTime < 0) {
-			float lastDamage = entity.hasTag(LAST_DAMAGE_AMOUNT) ? entity.getTag(LAST_DAMAGE_AMOUNT) : 0;
+			float lastDamage = LAST_DAMAGE_AMOUNT.get(state);
 			
 			if (amount <= lastDamage) {
 				event.setCancelled(true);
@@ -148,17 +201,24 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		}
 		
 		// Process armor and effects
-		amount = armorFeature.getDamageWithProtection(entity, damageType, amount);
+		amount = armorFeature.getDamageWithProtection(entity, profile, amount);
 		
 		damage.setAmount(amount);
-		FinalDamageEvent finalDamageEvent = new FinalDamageEvent(entity, damage, 10, FinalDamageEvent.AnimationType.MODERN);
-		EventDispatcher.call(finalDamageEvent);
-		// New amount has been set in the Damage class
-		amount = damage.getAmount();
-		
-		if (finalDamageEvent.isCancelled()) {
-			event.setCancelled(true);
-			return;
+		int invulnerabilityTicks = 10;
+		FinalDamageEvent.AnimationType animationType = FinalDamageEvent.AnimationType.MODERN;
+		if (EventDispatcher.getHandle(FinalDamageEvent.class).hasListener()) {
+			FinalDamageEvent finalDamageEvent = new FinalDamageEvent(entity, damage, invulnerabilityTicks, animationType);
+			EventDispatcher.call(finalDamageEvent);
+			// New amount has been set in the Damage class
+			amount = damage.getAmount();
+			
+			if (finalDamageEvent.isCancelled()) {
+				event.setCancelled(true);
+				return;
+			}
+			
+			invulnerabilityTicks = finalDamageEvent.getInvulnerabilityTicks();
+			animationType = finalDamageEvent.getAnimationType();
 		}
 		
 		// Register damage to tracking feature
@@ -168,25 +228,23 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		
 		// Exhaustion from damage
 		if (amountBeforeProcessing != 0 && entity instanceof Player player)
-			exhaustionFeature.addDamageExhaustion(player, damageType);
+			exhaustionFeature.addDamageExhaustion(player, profile);
 		
-		if (register) entity.setTag(LAST_DAMAGE_AMOUNT, amountBeforeProcessing);
+		if (register) LAST_DAMAGE_AMOUNT.set(state, amountBeforeProcessing);
 		
 		if (hurtSoundAndAnimation) {
-			entity.setTag(NEW_DAMAGE_TIME, entity.getAliveTicks() + finalDamageEvent.getInvulnerabilityTicks());
+			NEW_DAMAGE_TIME.set(state, entity.getAliveTicks() + invulnerabilityTicks);
 			
 			if (fullyBlocked) {
 				// Shield status
-				entity.triggerStatus((byte) 29);
+				feedbackFeature.playBlockAnimation(entity);
 			} else {
 				// Send damage animation
-				FinalDamageEvent.AnimationType animationType = finalDamageEvent.getAnimationType();
-				
 				if (animationType != FinalDamageEvent.AnimationType.NONE) {
 					boolean legacyAnimation = animationType == FinalDamageEvent.AnimationType.LEGACY;
-					entity.sendPacketToViewersAndSelf(new DamageEventPacket(
+					feedbackFeature.playHurtAnimation(entity, amount, new DamageEventPacket(
 							entity.getEntityId(),
-							MinecraftServer.getDamageTypeRegistry().getId(damage.getType()),
+							profile.id(),
 							legacyAnimation || damage.getAttacker() == null ? 0 : damage.getAttacker().getEntityId() + 1,
 							legacyAnimation || damage.getSource() == null ? 0 : damage.getSource().getEntityId() + 1,
 							null
@@ -199,7 +257,7 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 					knockbackFeature.applyDamageKnockback(damage, entity);
 				} else {
 					// Update velocity
-					entity.setVelocity(entity.getVelocity());
+					feedbackFeature.syncVelocity(entity);
 				}
 			}
 		}
@@ -213,7 +271,7 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		float totalHealth = entity.getHealth() +
 				(entity instanceof Player player ? player.getAdditionalHearts() : 0);
 		if (totalHealth - amount <= 0) {
-			boolean totem = totemFeature.tryProtect(entity, damageType);
+			boolean totem = totemFeature.tryProtect(entity, profile);
 			
 			if (totem) {
 				event.setCancelled(true);
@@ -227,26 +285,15 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		} else if (hurtSoundAndAnimation) {
 			// Workaround to have different types make a different sound,
 			// but only if the sound has not been changed by damage#getSound
-			if (entity instanceof Player && sound == SoundEvent.ENTITY_PLAYER_HURT) {
-				String effects = Objects.requireNonNull(damageType.registry()).effects();
-				if (effects != null) sound = switch (effects) {
-					case "thorns" -> SoundEvent.ENCHANT_THORNS_HIT;
-					case "drowning" -> SoundEvent.ENTITY_PLAYER_HURT_DROWN;
-					case "burning" -> SoundEvent.ENTITY_PLAYER_HURT_ON_FIRE;
-					case "poking" -> SoundEvent.ENTITY_PLAYER_HURT_SWEET_BERRY_BUSH;
-					case "freezing" -> SoundEvent.ENTITY_PLAYER_HURT_FREEZE;
-					default -> sound;
-				};
+			if (entity instanceof Player && sound == SoundEvent.ENTITY_PLAYER_HURT && profile.playerHurtSound() != null) {
+				sound = profile.playerHurtSound();
 			}
 		}
 		
 		// Play sound (copied from Minestom, because of complications with cancelling)
-		if (sound != null) entity.sendPacketToViewersAndSelf(new SoundEffectPacket(
-				sound, entity instanceof Player ? Sound.Source.PLAYER : Sound.Source.HOSTILE,
-				entity.getPosition(),
-				//TODO seed randomizing?
-				1.0f, 1.0f, 0
-		));
+		//TODO seed randomizing?
+		if (sound != null) feedbackFeature.playSound(entity, sound,
+				entity instanceof Player ? Sound.Source.PLAYER : Sound.Source.HOSTILE);
 		
 		damage.setAmount(amount);
 		
@@ -279,6 +326,24 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		};
 	}
 	
+	/**
+	 * The values of a {@link DamageBatch} which are the same for all of its targets.
+	 */
+	private static final class BatchValues {
+		private final DamageBatch batch;
+		private final DamageProfile profile;
+		private final boolean scaleWithDifficulty;
+		
+		// The damage which is being dealt to the current target
+		private Damage damage;
+		
+		private BatchValues(DamageBatch batch, DamageProfile profile, boolean scaleWithDifficulty) {
+			this.batch = batch;
+			this.profile = profile;
+			this.scaleWithDifficulty = scaleWithDifficulty;
+		}
+	}
+	
 	private static void damageManually(LivingEntity entity, float damage) {
 		// Additional hearts support
 		if (entity instanceof Player player) {
@@ -0,0 +1,118 @@
+package io.github.togar2.pvp.feature.effect;
+
+import io.github.togar2.pvp.entity.CombatState;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.event.GlobalEventHandler;
+import net.minestom.server.event.entity.EntityPotionAddEvent;
+import net.minestom.server.event.entity.EntityPotionRemoveEvent;
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
+import net.minestom.server.potion.TimedPotion;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The active effects of an entity, as a bitmask of effect ids and an array of amplifiers.
+ * Checking whether an entity has an effect is then a single bit test, instead of a search through its active effects.
+ * <p>
+ * The effects of an entity are tracked from the first time they are requested by {@link VanillaEffectFeature}.
+ * They are kept up to date by listeners on the global event handler (see {@link #init()}),
+ * so they stay accurate when the entity moves to an instance or feature set without a {@link VanillaEffectFeature}.
+ * Effects with an id which does not fit in the bitmask are looked up on the entity.
+ */
+public final class ActiveEffects {
+	private static final CombatState.ObjectSlot<ActiveEffects> ACTIVE_EFFECTS = CombatState.objectSlot("activeEffects");
+	
+	private final LivingEntity entity;
+	private long mask = 0;
+	private final byte[] amplifiers = new byte[Long.SIZE];
+	
+	private ActiveEffects(LivingEntity entity) {
+		this.entity = entity;
+		for (TimedPotion potion : entity.getActiveEffects()) {
+			add(potion.potion());
+		}
+	}
+	
+	/**
+	 * Registers the listeners which keep the tracked effects up to date to the global event handler.
+	 * These only handle potion events, and are registered regardless of where the combat features are registered,
+	 * because effects can change while an entity is not handled by any {@link VanillaEffectFeature}.
+	 */
+	public static void init() {
+		GlobalEventHandler handler = MinecraftServer.getGlobalEventHandler();
+		handler.addListener(EntityPotionAddEvent.class, event -> {
+			if (!(event.getEntity() instanceof LivingEntity entity)) return;
+			ActiveEffects effects = get(entity);
+			if (effects != null) effects.add(event.getPotion());
+		});
+		handler.addListener(EntityPotionRemoveEvent.class, event -> {
+			if (!(event.getEntity() instanceof LivingEntity entity)) return;
+			ActiveEffects effects = get(entity);
+			if (effects != null) effects.remove(event.getPotion().effect());
+		});
+	}
+	
+	/**
+	 * Gets the tracked active effects of an entity.
+	 *
+	 * @param entity the entity
+	 * @return the active effects, or null if the effects of the entity are not being tracked
+	 */
+	public static @Nullable ActiveEffects get(@NotNull LivingEntity entity) {
+		return ACTIVE_EFFECTS.get(entity);
+	}
+	
+	/**
+	 * Gets the tracked active effects of an entity, starting to track them if this was not the case yet.
+	 */
+	static ActiveEffects of(LivingEntity entity) {
+		CombatState state = CombatState.of(entity);
+		ActiveEffects effects = ACTIVE_EFFECTS.get(state);
+		if (effects == null) {
+			effects = new ActiveEffects(entity);
+			ACTIVE_EFFECTS.set(state, effects);
+		}
+		return effects;
+	}
+	
+	/**
+	 * @param effect the effect
+	 * @return whether the entity has the effect
+	 */
+	public boolean has(@NotNull PotionEffect effect) {
+		int id = effect.id();
+		if (id >= Long.SIZE) return entity.hasEffect(effect);
+		return (mask & (1L << id)) != 0;
+	}
+	
+	/**
+	 * Gets the amplifier of an effect. Only valid if the entity has the effect.
+	 *
+	 * @param effect the effect
+	 * @return the amplifier of the effect, or 0 if the entity does not have it
+	 */
+	public byte getAmplifier(@NotNull PotionEffect effect) {
+		int id = effect.id();
+		if (id >= Long.SIZE) {
+			TimedPotion potion = entity.getEffect(effect);
+			return potion == null ? 0 : potion.potion().amplifier();
+		}
+		return amplifiers[id];
+	}
+	
+	private void add(Potion potion) {
+		int id = potion.effect().id();
+		if (id >= Long.SIZE) return;
+		mask |= 1L << id;
+		amplifiers[id] = potion.amplifier();
+	}
+	
+	private void remove(PotionEffect effect) {
+		int id = effect.id();
+		if (id >= Long.SIZE) return;
+		mask &= ~(1L << id);
+		amplifiers[id] = 0;
+	}
+}
@@ -7,7 +7,9 @@ import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.item.component.PotionContents;
 import net.minestom.server.potion.CustomPotionEffect;
 import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
 import net.minestom.server.potion.PotionType;
+import net.minestom.server.potion.TimedPotion;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
@@ -36,6 +38,48 @@ public interface EffectFeature extends CombatFeature {
 	
 	int getPotionColor(PotionContents contents);
 	
+	/**
+	 * Checks whether an entity has an effect.
+	 *
+	 * @param entity the entity
+	 * @param effect the effect
+	 * @return whether the entity has the effect
+	 */
+	default boolean hasEffect(LivingEntity entity, PotionEffect effect) {
+		return entity.hasEffect(effect);
+	}
+	
+	/**
+	 * Gets the amplifier of an effect on an entity. Only valid if the entity has the effect.
+	 *
+	 * @param entity the entity
+	 * @param effect the effect
+	 * @return the amplifier of the effect, or 0 if the entity does not have it
+	 */
+	default byte getEffectAmplifier(LivingEntity entity, PotionEffect effect) {
+		TimedPotion potion = entity.getEffect(effect);
+		return potion == null ? 0 : potion.potion().amplifier();
+	}
+	
+	/**
+	 * Adds a potion to an entity, replacing the current potion of the same effect.
+	 * Use this instead of {@link LivingEntity#addEffect(Potion)} to let the feature handle the replaced potion
+	 * (the vanilla feature keeps it hidden underneath the new potion if it lasts longer).
+	 *
+	 * @param entity the entity
+	 * @param potion the potion to add
+	 */
+	default void addEffect(LivingEntity entity, Potion potion) {
+		entity.addEffect(potion);
+	}
+	
+	/**
+	 * Gets all potions of potion contents, including the custom effects.
+	 * The returned list may be immutable.
+	 *
+	 * @param potionContents the potion contents
+	 * @return the potions
+	 */
 	default List<Potion> getAllPotions(@Nullable PotionContents potionContents) {
 		if (potionContents == null) return List.of();
 		return getAllPotions(potionContents.potion(), potionContents.customEffects());
@@ -43,6 +87,18 @@ public interface EffectFeature extends CombatFeature {
 	
 	List<Potion> getAllPotions(PotionType potionType, Collection<CustomPotionEffect> customEffects);
 	
+	/**
+	 * Resolves potion contents into their potions and color.
+	 * The result can be reused for all entities the contents are applied to.
+	 *
+	 * @param potionContents the potion contents to resolve
+	 * @return the resolved potion contents
+	 */
+	default ResolvedPotionContents resolve(@Nullable PotionContents potionContents) {
+		if (potionContents == null) potionContents = PotionContents.EMPTY;
+		return ResolvedPotionContents.of(potionContents, getAllPotions(potionContents), getPotionColor(potionContents));
+	}
+	
 	/**
 	 * Updates the potion visibility of an entity. This includes particles and invisibility status.
 	 *
@@ -70,4 +126,19 @@ public interface EffectFeature extends CombatFeature {
 	 */
 	void addSplashPotionEffects(LivingEntity entity, PotionContents potionContents, double proximity,
 	                            @Nullable Entity source, @Nullable Entity attacker);
+	
+	/**
+	 * Applies the effects of a splash potion to an entity, using potion contents which have already been resolved.
+	 *
+	 * @param entity         the entity which was hit
+	 * @param potionContents the resolved potion contents of the splash potion
+	 * @param proximity      the proximity of the potion to the entity
+	 * @param source         the direct source of the splash (usually the splash potion)
+	 * @param attacker       the attacker of the splash (usually the thrower)
+	 * @see #addSplashPotionEffects(LivingEntity, PotionContents, double, Entity, Entity)
+	 */
+	default void addSplashPotionEffects(LivingEntity entity, ResolvedPotionContents potionContents, double proximity,
+	                                    @Nullable Entity source, @Nullable Entity attacker) {
+		addSplashPotionEffects(entity, potionContents.contents(), proximity, source, attacker);
+	}
 }
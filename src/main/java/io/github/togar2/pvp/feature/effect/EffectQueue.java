@@ -0,0 +1,197 @@
+package io.github.togar2.pvp.feature.effect;
+
+import io.github.togar2.pvp.entity.CombatState;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * All potions of a single effect on an entity: the active potion, and the hidden potions which become active
+ * when the potions above them expire (e.g. a long speed I potion underneath a short speed II potion).
+ * <p>
+ * The queue is ordered by amplifier and then by expiry time, the top is the potion which is active on the entity.
+ * Potions which would never become active (a lower or equal amplifier and an earlier expiry time than another potion)
+ * are dropped, so amplifiers strictly decrease and expiry times strictly increase from the top to the bottom.
+ * Expiry times are in alive ticks of the entity.
+ */
+final class EffectQueue {
+	private static final CombatState.ObjectSlot<EffectQueue[]> QUEUES = CombatState.objectSlot("effectQueues");
+	private static final EffectQueue[] EMPTY = new EffectQueue[0];
+	
+	private final PotionEffect effect;
+	private Potion[] potions = new Potion[2];
+	private long[] expiresAt = new long[2];
+	private int size = 0;
+	
+	// Set while the active potion is changed because of the queue, the events this causes should be ignored
+	private boolean swapping = false;
+	// Set while a potion is added through the effect feature, the active potion it removes can become hidden
+	private boolean replacing = false;
+	// Set when the active potion has been removed, but the removal has not been finished yet,
+	// because it is being replaced or because it expired before the next potion could become active
+	private boolean pendingRemoval = false;
+	
+	private EffectQueue(PotionEffect effect) {
+		this.effect = effect;
+	}
+	
+	/**
+	 * Gets the queue of an effect of an entity, or null if it does not exist.
+	 */
+	static @Nullable EffectQueue get(LivingEntity entity, PotionEffect effect) {
+		EffectQueue[] queues = QUEUES.get(entity);
+		int id = effect.id();
+		return queues == null || id >= queues.length ? null : queues[id];
+	}
+	
+	/**
+	 * Gets the queue of an effect of an entity, creating it if it does not exist yet.
+	 */
+	static EffectQueue of(LivingEntity entity, PotionEffect effect) {
+		CombatState state = CombatState.of(entity);
+		EffectQueue[] queues = QUEUES.get(state);
+		int id = effect.id();
+		if (queues == null || id >= queues.length) {
+			queues = queues == null ? new EffectQueue[id + 1] : Arrays.copyOf(queues, id + 1);
+			QUEUES.set(state, queues);
+		}
+		
+		EffectQueue queue = queues[id];
+		if (queue == null) {
+			queue = new EffectQueue(effect);
+			queues[id] = queue;
+		}
+		return queue;
+	}
+	
+	/**
+	 * @return all queues of the entity, indexed by effect id (entries can be null)
+	 */
+	static EffectQueue[] all(LivingEntity entity) {
+		EffectQueue[] queues = QUEUES.get(entity);
+		return queues == null ? EMPTY : queues;
+	}
+	
+	static long expiresAt(Potion potion, long now) {
+		// Negative durations are infinite
+		return potion.duration() < 0 ? Long.MAX_VALUE : now + potion.duration();
+	}
+	
+	PotionEffect effect() {
+		return effect;
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	boolean isEmpty() {
+		return size == 0;
+	}
+	
+	Potion top() {
+		return potions[0];
+	}
+	
+	long topExpiresAt() {
+		return expiresAt[0];
+	}
+	
+	boolean isSwapping() {
+		return swapping;
+	}
+	
+	void setSwapping(boolean swapping) {
+		this.swapping = swapping;
+	}
+	
+	boolean isReplacing() {
+		return replacing;
+	}
+	
+	void setReplacing(boolean replacing) {
+		this.replacing = replacing;
+	}
+	
+	boolean isPendingRemoval() {
+		return pendingRemoval;
+	}
+	
+	void setPendingRemoval(boolean pendingRemoval) {
+		this.pendingRemoval = pendingRemoval;
+	}
+	
+	/**
+	 * Inserts a potion into the queue, dropping all potions which can no longer become active because of it.
+	 *
+	 * @return false if the potion itself would never become active, in which case it is not inserted
+	 */
+	boolean insert(Potion potion, long expiry) {
+		byte amplifier = potion.amplifier();
+		
+		// Potions with a higher or equal amplifier are at the top, and the last one of them expires the latest
+		int higherOrEqual = 0;
+		while (higherOrEqual < size && potions[higherOrEqual].amplifier() >= amplifier) higherOrEqual++;
+		if (higherOrEqual > 0 && expiresAt[higherOrEqual - 1] >= expiry) return false;
+		
+		// Drop the potion with an equal amplifier and the potions below which expire before the new potion
+		int index = higherOrEqual > 0 && potions[higherOrEqual - 1].amplifier() == amplifier ? higherOrEqual - 1 : higherOrEqual;
+		int end = higherOrEqual;
+		while (end < size && expiresAt[end] <= expiry) end++;
+		
+		int newSize = size - (end - index) + 1;
+		if (newSize > potions.length) {
+			potions = Arrays.copyOf(potions, newSize * 2);
+			expiresAt = Arrays.copyOf(expiresAt, newSize * 2);
+		}
+		
+		System.arraycopy(potions, end, potions, index + 1, size - end);
+		System.arraycopy(expiresAt, end, expiresAt, index + 1, size - end);
+		if (newSize < size) Arrays.fill(potions, newSize, size, null);
+		potions[index] = potion;
+		expiresAt[index] = expiry;
+		size = newSize;
+		return true;
+	}
+	
+	/**
+	 * Removes the top potion, so the next potion becomes the top.
+	 */
+	void pop() {
+		System.arraycopy(potions, 1, potions, 0, size - 1);
+		System.arraycopy(expiresAt, 1, expiresAt, 0, size - 1);
+		potions[--size] = null;
+	}
+	
+	/**
+	 * Replaces the top potion, without changing its position in the queue.
+	 */
+	void setTop(Potion potion) {
+		potions[0] = potion;
+	}
+	
+	/**
+	 * Removes the potions from the top which have expired.
+	 */
+	void removeExpired(long now) {
+		while (size > 0 && expiresAt[0] <= now) pop();
+	}
+	
+	void clear() {
+		Arrays.fill(potions, 0, size, null);
+		size = 0;
+	}
+	
+	/**
+	 * Creates the potion which should be added to the entity to make the top potion active,
+	 * with the duration it has left.
+	 */
+	Potion createTopPotion(long now) {
+		Potion top = potions[0];
+		int duration = expiresAt[0] == Long.MAX_VALUE ? top.duration() : (int) (expiresAt[0] - now);
+		return new Potion(top.effect(), top.amplifier(), duration, top.flags());
+	}
+}
@@ -0,0 +1,351 @@
+package io.github.togar2.pvp.feature.effect;
+
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.potion.effect.CombatPotionEffect;
+import io.github.togar2.pvp.potion.effect.CombatPotionEffects;
+import io.github.togar2.pvp.utils.EndOfTickBuffer;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
+import net.minestom.server.potion.TimedPotion;
+import net.minestom.server.tag.Tag;
+import net.minestom.server.timer.TaskSchedule;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Per-instance timing wheel which calls the update effects of potions (regeneration, poison, wither, ...)
+ * in the ticks they should be applied in, as determined by {@link CombatPotionEffect#canApplyUpdateEffect(int, byte)}.
+ * <p>
+ * Only effects which will actually update are added to the wheel, and every effect is only visited in the ticks it updates in.
+ * Entities without such effects are never visited. The wheel is ticked by the scheduler of its instance,
+ * which is stopped while the wheel is empty.
+ * <p>
+ * The timers of an entity are kept in an array indexed by the id of the effect,
+ * every timer holds the duration the effect will have left when its next update is applied.
+ * Effects added while the entity is not in an instance are started when it spawns (see {@link #resume(VanillaEffectFeature, LivingEntity)}).
+ * <p>
+ * The wheel also makes hidden potions active when the potion above them expires (see {@link EffectQueue}).
+ */
+final class EffectWheel {
+	private static final Tag<EffectWheel> WHEEL = Tag.Transient("effectWheel");
+	private static final CombatState.ObjectSlot<Timers> TIMERS = CombatState.objectSlot("effectTimers");
+	
+	private static final int SIZE = 64;
+	private static final int MASK = SIZE - 1;
+	
+	private final Instance instance;
+	private final List<Timer>[] buckets;
+	private long tick = 0;
+	private int size = 0;
+	private boolean running = false;
+	
+	@SuppressWarnings("unchecked")
+	private EffectWheel(Instance instance) {
+		this.instance = instance;
+		this.buckets = new List[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			buckets[i] = new ArrayList<>();
+		}
+	}
+	
+	private static EffectWheel of(Instance instance) {
+		return EndOfTickBuffer.getOrCreate(instance, WHEEL, () -> new EffectWheel(instance));
+	}
+	
+	/**
+	 * The update timers of a single entity, indexed by effect id.
+	 */
+	private static final class Timers {
+		private UpdateTimer[] timers = new UpdateTimer[0];
+		
+		private static Timers of(LivingEntity entity) {
+			CombatState state = CombatState.of(entity);
+			Timers timers = TIMERS.get(state);
+			if (timers == null) {
+				timers = new Timers();
+				TIMERS.set(state, timers);
+			}
+			return timers;
+		}
+		
+		private @Nullable UpdateTimer get(int id) {
+			return id < timers.length ? timers[id] : null;
+		}
+		
+		private void set(int id, @Nullable UpdateTimer timer) {
+			if (id >= timers.length) {
+				if (timer == null) return;
+				timers = Arrays.copyOf(timers, id + 1);
+			}
+			timers[id] = timer;
+		}
+	}
+	
+	private abstract static class Timer {
+		protected final LivingEntity entity;
+		protected final VanillaEffectFeature feature;
+		private int rounds;
+		
+		private Timer(LivingEntity entity, VanillaEffectFeature feature) {
+			this.entity = entity;
+			this.feature = feature;
+		}
+		
+		/**
+		 * @return false if the timer should be discarded, because the effect has been removed or replaced
+		 */
+		abstract boolean isValid();
+		
+		abstract void run(EffectWheel wheel);
+		
+		/**
+		 * Called instead of {@link #run(EffectWheel)} if the entity is not in an instance when the timer is due.
+		 */
+		void detach() {}
+	}
+	
+	/**
+	 * Applies the update effect of an effect.
+	 */
+	private static final class UpdateTimer extends Timer {
+		private final Timers timers;
+		private final CombatPotionEffect effect;
+		private final int id;
+		private final byte amplifier;
+		private int durationLeft;
+		
+		private UpdateTimer(LivingEntity entity, Timers timers, VanillaEffectFeature feature,
+		                    CombatPotionEffect effect, int id, byte amplifier, int durationLeft) {
+			super(entity, feature);
+			this.timers = timers;
+			this.effect = effect;
+			this.id = id;
+			this.amplifier = amplifier;
+			this.durationLeft = durationLeft;
+		}
+		
+		@Override
+		boolean isValid() {
+			return timers.get(id) == this;
+		}
+		
+		@Override
+		void run(EffectWheel wheel) {
+			int durationLeft = this.durationLeft;
+			feature.applyUpdateEffect(entity, effect, amplifier);
+			if (!isValid()) return;
+			
+			int next = nextUpdate(effect, durationLeft - 1, amplifier);
+			if (next <= 0) {
+				timers.set(id, null);
+				return;
+			}
+			
+			this.durationLeft = next;
+			wheel.schedule(this, durationLeft - next);
+		}
+		
+		@Override
+		void detach() {
+			// Started again by resume when the entity spawns
+			timers.set(id, null);
+		}
+	}
+	
+	/**
+	 * Makes the next potion of an {@link EffectQueue} active when the active potion expires.
+	 */
+	private static final class PromotionTimer extends Timer {
+		private final EffectQueue queue;
+		private final long expiresAt;
+		
+		private PromotionTimer(LivingEntity entity, VanillaEffectFeature feature, EffectQueue queue) {
+			super(entity, feature);
+			this.queue = queue;
+			this.expiresAt = queue.topExpiresAt();
+		}
+		
+		@Override
+		boolean isValid() {
+			return queue.size() > 1 && !queue.isPendingRemoval() && queue.topExpiresAt() == expiresAt;
+		}
+		
+		@Override
+		void run(EffectWheel wheel) {
+			feature.promoteHiddenPotion(entity, queue);
+		}
+	}
+	
+	/**
+	 * Starts the updates of a potion which has just been added to an entity.
+	 * If the effect of the potion never updates, the potion is not added to the wheel.
+	 *
+	 * @param feature the feature which applies the updates
+	 * @param entity the entity the potion was added to
+	 * @param potion the potion
+	 */
+	static void start(VanillaEffectFeature feature, LivingEntity entity, Potion potion) {
+		start(feature, entity, potion, potion.duration());
+	}
+	
+	/**
+	 * Starts the updates of a potion with the specified duration left.
+	 */
+	private static void start(VanillaEffectFeature feature, LivingEntity entity, Potion potion, int duration) {
+		int id = potion.effect().id();
+		Timers timers = TIMERS.get(CombatState.of(entity));
+		if (timers != null) timers.set(id, null);
+		
+		// Started by resume when the entity spawns
+		Instance instance = entity.getInstance();
+		if (instance == null) return;
+		
+		CombatPotionEffect effect = CombatPotionEffects.get(potion.effect());
+		int durationLeft = nextUpdate(effect, duration, potion.amplifier());
+		if (durationLeft <= 0) return;
+		
+		if (timers == null) timers = Timers.of(entity);
+		UpdateTimer timer = new UpdateTimer(entity, timers, feature, effect, id, potion.amplifier(), durationLeft);
+		timers.set(id, timer);
+		
+		// The first update with the full duration happens in the next tick
+		of(instance).schedule(timer, duration - durationLeft + 1);
+	}
+	
+	/**
+	 * Starts the updates and promotions of the effects of an entity which do not have a timer,
+	 * because they were added while the entity was not in an instance,
+	 * or because the entity was not in an instance when their timer was due.
+	 *
+	 * @param feature the feature which applies the updates
+	 * @param entity the entity which has spawned
+	 */
+	static void resume(VanillaEffectFeature feature, LivingEntity entity) {
+		if (entity.getInstance() == null) return;
+		
+		Timers timers = TIMERS.get(CombatState.of(entity));
+		long now = entity.getAliveTicks();
+		for (TimedPotion timedPotion : entity.getActiveEffects()) {
+			Potion potion = timedPotion.potion();
+			if (timers != null && timers.get(potion.effect().id()) != null) continue;
+			
+			// Negative durations are infinite
+			int duration = potion.duration() < 0 ? potion.duration()
+					: (int) (timedPotion.startingTicks() + potion.duration() - now);
+			start(feature, entity, potion, duration);
+		}
+		
+		for (EffectQueue queue : EffectQueue.all(entity)) {
+			if (queue != null && queue.size() > 1) schedulePromotion(feature, entity, queue);
+		}
+	}
+	
+	/**
+	 * Stops the updates of an effect which has been removed from an entity.
+	 *
+	 * @param entity the entity the effect was removed from
+	 * @param effect the effect
+	 */
+	static void stop(LivingEntity entity, PotionEffect effect) {
+		Timers timers = TIMERS.get(CombatState.of(entity));
+		
+		// The timer will be discarded when it is due
+		if (timers != null) timers.set(effect.id(), null);
+	}
+	
+	/**
+	 * Schedules the top potion of a queue to be replaced by the next potion one tick before it expires,
+	 * so the next potion becomes active before the entity removes the expired potion.
+	 *
+	 * @param feature the feature which replaces the potion
+	 * @param entity the entity
+	 * @param queue the queue, which should contain more than one potion
+	 */
+	static void schedulePromotion(VanillaEffectFeature feature, LivingEntity entity, EffectQueue queue) {
+		if (queue.topExpiresAt() == Long.MAX_VALUE) return;
+		
+		Instance instance = entity.getInstance();
+		if (instance == null) return;
+		
+		long delay = queue.topExpiresAt() - entity.getAliveTicks() - 1;
+		of(instance).schedule(new PromotionTimer(entity, feature, queue), (int) Math.max(delay, 1));
+	}
+	
+	/**
+	 * Finds the next duration at which the effect should be updated, starting from the specified duration.
+	 * Only one update interval (see {@link CombatPotionEffect#getUpdateInterval(byte)}) has to be checked.
+	 *
+	 * @return the duration left at the next update, or 0 if the effect will not update anymore
+	 */
+	private static int nextUpdate(CombatPotionEffect effect, int durationLeft, byte amplifier) {
+		int interval = effect.getUpdateInterval(amplifier);
+		if (interval <= 0) return 0;
+		
+		int last = Math.max(durationLeft - interval + 1, 1);
+		for (int duration = durationLeft; duration >= last; duration--) {
+			if (effect.canApplyUpdateEffect(duration, amplifier)) return duration;
+		}
+		return 0;
+	}
+	
+	private synchronized void schedule(Timer timer, int delay) {
+		timer.rounds = (delay - 1) / SIZE;
+		buckets[(int) ((tick + delay) & MASK)].add(timer);
+		size++;
+		
+		if (running) return;
+		running = true;
+		instance.scheduler().submitTask(this::tick);
+	}
+	
+	private TaskSchedule tick() {
+		List<Timer> due = new ArrayList<>();
+		synchronized (this) {
+			tick++;
+			Iterator<Timer> iterator = buckets[(int) (tick & MASK)].iterator();
+			while (iterator.hasNext()) {
+				Timer timer = iterator.next();
+				if (timer.rounds > 0) {
+					timer.rounds--;
+				} else {
+					iterator.remove();
+					size--;
+					due.add(timer);
+				}
+			}
+		}
+		
+		// Updates are applied outside the lock, since they can add or remove effects
+		for (Timer timer : due) {
+			update(timer);
+		}
+		
+		synchronized (this) {
+			if (size > 0) return TaskSchedule.nextTick();
+			running = false;
+			return TaskSchedule.stop();
+		}
+	}
+	
+	private void update(Timer timer) {
+		// Effect has been removed or replaced
+		if (timer.entity.isRemoved() || !timer.isValid()) return;
+		
+		Instance current = timer.entity.getInstance();
+		if (current == null) {
+			timer.detach();
+			return;
+		} else if (current != instance) {
+			of(current).schedule(timer, 1);
+			return;
+		}
+		
+		timer.run(this);
+	}
+}
@@ -0,0 +1,45 @@
+package io.github.togar2.pvp.feature.effect;
+
+import io.github.togar2.pvp.utils.EndOfTickBuffer;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Instance;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-instance set of entities whose potion visibility has to be updated, used by {@link VanillaEffectFeature}.
+ * <p>
+ * The potion visibility of every entity in the set is updated once at the end of the tick,
+ * no matter how many effects were added or removed (e.g. when drinking milk or using a totem).
+ * At that point, removed effects are no longer part of the active effects of the entity.
+ * Removed potions which have not been replaced within the tick are also finished at that point (see {@link EffectQueue}).
+ */
+final class PotionVisibilityBuffer {
+	private static final EndOfTickBuffer<Map<LivingEntity, VanillaEffectFeature>> BUFFER =
+			new EndOfTickBuffer<>("potionVisibilityBuffer", IdentityHashMap::new, PotionVisibilityBuffer::flush);
+	
+	/**
+	 * Marks the potion visibility of an entity as changed, so it will be updated at the end of the tick.
+	 *
+	 * @param feature the feature which should update the potion visibility
+	 * @param entity the entity
+	 */
+	static void markDirty(VanillaEffectFeature feature, LivingEntity entity) {
+		Instance instance = entity.getInstance();
+		if (instance == null) {
+			MinecraftServer.getSchedulerManager().scheduleEndOfTick(() -> feature.flushEffects(entity));
+			return;
+		}
+		
+		BUFFER.update(instance, dirty -> dirty.put(entity, feature));
+	}
+	
+	private static void flush(Map<LivingEntity, VanillaEffectFeature> dirty) {
+		for (Map.Entry<LivingEntity, VanillaEffectFeature> entry : dirty.entrySet()) {
+			if (entry.getKey().isRemoved()) continue;
+			entry.getValue().flushEffects(entry.getKey());
+		}
+	}
+}
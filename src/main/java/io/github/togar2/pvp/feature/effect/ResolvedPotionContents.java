@@ -0,0 +1,51 @@
+package io.github.togar2.pvp.feature.effect;
+
+import net.minestom.server.item.component.PotionContents;
+import net.minestom.server.potion.Potion;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Potion contents resolved into everything needed to apply them, see {@link EffectFeature#resolve(PotionContents)}.
+ * This is immutable, so it can be resolved once and applied to many entities (e.g. all entities hit by a splash potion).
+ *
+ * @param contents the potion contents which were resolved
+ * @param potions all potions of the contents, including the custom effects
+ * @param instant whether any of the potions has an instant effect
+ * @param color the color of the potion
+ */
+public record ResolvedPotionContents(@NotNull PotionContents contents, @NotNull List<Potion> potions,
+                                     boolean instant, int color) {
+	public ResolvedPotionContents {
+		potions = List.copyOf(potions);
+	}
+	
+	/**
+	 * Creates resolved potion contents, determining whether they are instant from the potions.
+	 *
+	 * @param contents the potion contents
+	 * @param potions all potions of the contents
+	 * @param color the color of the potion
+	 * @return the resolved potion contents
+	 */
+	public static @NotNull ResolvedPotionContents of(@NotNull PotionContents contents,
+	                                                 @NotNull List<Potion> potions, int color) {
+		boolean instant = false;
+		for (Potion potion : potions) {
+			if (potion.effect().registry().isInstantaneous()) {
+				instant = true;
+				break;
+			}
+		}
+		
+		return new ResolvedPotionContents(contents, potions, instant, color);
+	}
+	
+	/**
+	 * @return whether the contents do not contain any potions
+	 */
+	public boolean isEmpty() {
+		return potions.isEmpty();
+	}
+}
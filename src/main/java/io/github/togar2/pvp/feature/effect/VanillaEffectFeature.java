@@ -2,8 +2,9 @@ package io.github.togar2.pvp.feature.effect;
 
 import io.github.togar2.pvp.entity.projectile.Arrow;
 import io.github.togar2.pvp.events.PotionVisibilityEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.food.ExhaustionFeature;
@@ -15,50 +16,67 @@ import io.github.togar2.pvp.potion.item.CombatPotionTypes;
 import io.github.togar2.pvp.utils.CombatVersion;
 import io.github.togar2.pvp.utils.PotionFlags;
 import net.kyori.adventure.util.RGBLike;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.metadata.LivingEntityMeta;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityDeathEvent;
 import net.minestom.server.event.entity.EntityPotionAddEvent;
 import net.minestom.server.event.entity.EntityPotionRemoveEvent;
-import net.minestom.server.event.entity.EntityTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.event.entity.EntitySpawnEvent;
 import net.minestom.server.item.component.PotionContents;
 import net.minestom.server.particle.Particle;
 import net.minestom.server.potion.Potion;
 import net.minestom.server.potion.PotionEffect;
 import net.minestom.server.potion.PotionType;
 import net.minestom.server.potion.TimedPotion;
-import net.minestom.server.tag.Tag;
-import net.minestom.server.utils.time.TimeUnit;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Vanilla implementation of {@link EffectFeature}
+ * <p>
+ * Update effects (e.g. regeneration and poison) are applied by a timing wheel per instance (see {@link EffectWheel}),
+ * so entities without such effects are not visited every tick.
+ * Potion visibility is updated at most once per entity per tick (see {@link PotionVisibilityBuffer}).
+ * Resolved potion contents are kept in a bounded cache, since the same potions are used over and over again.
+ * The cache is cleared when potion types are registered (see {@link CombatPotionTypes#getVersion()}).
+ * The active effects of entities are tracked in a bitmask (see {@link ActiveEffects}).
+ * <p>
+ * Like in vanilla, a weaker potion with a longer duration is not lost when a stronger potion is added,
+ * but stays hidden until the stronger potion expires (see {@link EffectQueue}).
+ * Hidden potions are only kept when the active potion expires or is replaced through {@link #addEffect(LivingEntity, Potion)}.
+ * Any other removal (e.g. {@link LivingEntity#clearEffects()} when drinking milk or using a totem) removes them as well.
  */
-public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
+public class VanillaEffectFeature implements EffectFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaEffectFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.EFFECT, VanillaEffectFeature::new,
 			FeatureType.EXHAUSTION, FeatureType.FOOD, FeatureType.VERSION
 	);
 	
-	public static final Tag<Map<PotionEffect, Integer>> DURATION_LEFT = Tag.Transient("effectDurationLeft");
 	public static final int DEFAULT_POTION_COLOR = 0xff385dc6;
 	
+	private static final int RESOLVED_CACHE_SIZE = 256;
+	
 	private final FeatureConfiguration configuration;
 	
 	private ExhaustionFeature exhaustionFeature;
 	private FoodFeature foodFeature;
 	private CombatVersion version;
 	
+	// Least recently used potion contents are evicted first
+	// The combat version is fixed per feature, so it does not have to be part of the key
+	private final Map<PotionContents, ResolvedPotionContents> resolvedCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<PotionContents, ResolvedPotionContents> eldest) {
+			return size() > RESOLVED_CACHE_SIZE;
+		}
+	};
+	private int resolvedVersion = CombatPotionTypes.getVersion();
+	
 	public VanillaEffectFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
 	}
@@ -71,79 +89,230 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EntityDeathEvent.class, event ->
+	public void init(ListenerCollector collector) {
+		collector.addListener(EntityDeathEvent.class, event ->
 				event.getEntity().clearEffects());
 		
-		node.addListener(EntityTickEvent.class, event -> {
+		collector.addListener(EntityPotionAddEvent.class, event -> {
 			if (!(event.getEntity() instanceof LivingEntity entity)) return;
-			Map<PotionEffect, Integer> potionMap = getDurationLeftMap(entity);
-			
-			for (TimedPotion potion : entity.getActiveEffects()) {
-				potionMap.putIfAbsent(potion.potion().effect(), potion.potion().duration() - 1);
-				int durationLeft = potionMap.get(potion.potion().effect());
-				
-				if (durationLeft > 0) {
-					CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(potion.potion().effect());
-					byte amplifier = potion.potion().amplifier();
-					
-					if (combatPotionEffect.canApplyUpdateEffect(durationLeft, amplifier)) {
-						combatPotionEffect.applyUpdateEffect(entity, amplifier, exhaustionFeature, foodFeature);
-					}
-					
-					potionMap.put(potion.potion().effect(), durationLeft - 1);
-				}
-			}
-			
-			//TODO keep track of underlying potions with longer duration
-			if (potionMap.size() != entity.getActiveEffects().size()) {
-				potionMap.keySet().removeIf(effect -> !entity.hasEffect(effect));
-			}
+			onPotionAdded(entity, event.getPotion());
 		});
 		
-		node.addListener(EntityPotionAddEvent.class, event -> {
+		collector.addListener(EntityPotionRemoveEvent.class, event -> {
 			if (!(event.getEntity() instanceof LivingEntity entity)) return;
-			Map<PotionEffect, Integer> potionMap = getDurationLeftMap(entity);
-			potionMap.put(event.getPotion().effect(), event.getPotion().duration());
-			
-			CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(event.getPotion().effect());
-			combatPotionEffect.onApplied(entity, event.getPotion().amplifier(), version);
-			
-			updatePotionVisibility(entity);
+			onPotionRemoved(entity, event.getPotion());
 		});
 		
-		node.addListener(EntityPotionRemoveEvent.class, event -> {
-			if (!(event.getEntity() instanceof LivingEntity entity)) return;
+		// Effects added while the entity was not in an instance do not have timers yet
+		collector.addListener(EntitySpawnEvent.class, event -> {
+			if (event.getEntity() instanceof LivingEntity entity) EffectWheel.resume(this, entity);
+		});
+	}
+	
+	private void onPotionAdded(LivingEntity entity, Potion potion) {
+		EffectQueue queue = EffectQueue.of(entity, potion.effect());
+		if (queue.isSwapping()) return;
+		
+		long now = entity.getAliveTicks();
+		Potion previous = null;
+		if (queue.isPendingRemoval()) {
+			// The active potion has just been replaced by this one or has expired, so it can become hidden
+			queue.setPendingRemoval(false);
+			previous = queue.top();
+			queue.removeExpired(now);
+		} else {
+			queue.clear();
+		}
+		
+		queue.insert(potion, EffectQueue.expiresAt(potion, now));
+		
+		Potion active;
+		if (queue.top() == potion) {
+			active = potion;
+			
+			CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(potion.effect());
+			if (previous != null) combatPotionEffect.onRemoved(entity, previous.amplifier(), version);
+			combatPotionEffect.onApplied(entity, potion.amplifier(), version);
+		} else {
+			// The previous potion is stronger, so it stays active and the new potion is hidden underneath it
+			active = queue.createTopPotion(now);
+			addQueuedPotion(entity, queue, active);
+		}
+		
+		EffectWheel.start(this, entity, active);
+		if (queue.size() > 1) EffectWheel.schedulePromotion(this, entity, queue);
+		
+		PotionVisibilityBuffer.markDirty(this, entity);
+	}
+	
+	private void onPotionRemoved(LivingEntity entity, Potion potion) {
+		EffectQueue queue = EffectQueue.get(entity, potion.effect());
+		if (queue != null && queue.isSwapping()) return;
+		
+		EffectWheel.stop(entity, potion.effect());
+		
+		if (queue == null || queue.isEmpty()) {
+			CombatPotionEffects.get(potion.effect()).onRemoved(entity, potion.amplifier(), version);
+		} else {
+			// If the potion is being replaced, the add event of the new potion follows in the same addEffect call
+			queue.setPendingRemoval(true);
+			if (!queue.isReplacing()) finishRemoval(entity, queue);
+		}
+		
+		// Updated at the end of the tick, when the removing effect has been removed
+		PotionVisibilityBuffer.markDirty(this, entity);
+	}
+	
+	/**
+	 * Finishes the removal of the active potion of a queue which has not been replaced, removing the hidden potions as well.
+	 * If the active potion expired before the next potion could become active, this is left to {@link #flushEffects(LivingEntity)}.
+	 */
+	private void finishRemoval(LivingEntity entity, EffectQueue queue) {
+		if (!queue.isPendingRemoval()) return;
+		if (queue.size() > 1 && queue.topExpiresAt() <= entity.getAliveTicks() + 1) return;
+		
+		queue.setPendingRemoval(false);
+		Potion removed = queue.top();
+		queue.clear();
+		CombatPotionEffects.get(queue.effect()).onRemoved(entity, removed.amplifier(), version);
+	}
+	
+	/**
+	 * Replaces the active potion of a queue which is about to expire by the next potion in the queue.
+	 */
+	void promoteHiddenPotion(LivingEntity entity, EffectQueue queue) {
+		Potion expired = queue.top();
+		queue.pop();
+		activateTop(entity, queue, expired, entity.getAliveTicks());
+	}
+	
+	/**
+	 * Finishes the removal of potions which have not been replaced, and updates the potion visibility.
+	 * Called once at the end of the tick for every entity of which the effects have changed.
+	 */
+	void flushEffects(LivingEntity entity) {
+		long now = entity.getAliveTicks();
+		for (EffectQueue queue : EffectQueue.all(entity)) {
+			if (queue == null || !queue.isPendingRemoval()) continue;
+			queue.setPendingRemoval(false);
 			
-			CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(event.getPotion().effect());
-			combatPotionEffect.onRemoved(entity, event.getPotion().amplifier(), version);
+			Potion removed = queue.top();
+			if (queue.size() > 1 && queue.topExpiresAt() <= now + 1) {
+				// Expired before it could be replaced, the next potion should still become active
+				queue.pop();
+				queue.removeExpired(now);
+				if (!queue.isEmpty()) {
+					activateTop(entity, queue, removed, now);
+					continue;
+				}
+			}
 			
-			//Delay update 1 tick because we need to have the removing effect removed
-			MinecraftServer.getSchedulerManager()
-					.buildTask(() -> updatePotionVisibility(entity))
-					.delay(1, TimeUnit.SERVER_TICK)
-					.schedule();
-		});
+			// Hidden potions are removed together with the active potion
+			queue.clear();
+			CombatPotionEffects.get(queue.effect()).onRemoved(entity, removed.amplifier(), version);
+		}
+		
+		updatePotionVisibility(entity);
 	}
 	
-	private Map<PotionEffect, Integer> getDurationLeftMap(Entity entity) {
-		Map<PotionEffect, Integer> potionMap = entity.getTag(DURATION_LEFT);
-		if (potionMap == null) {
-			potionMap = new ConcurrentHashMap<>();
-			entity.setTag(DURATION_LEFT, potionMap);
+	private void activateTop(LivingEntity entity, EffectQueue queue, Potion previous, long now) {
+		Potion active = queue.createTopPotion(now);
+		addQueuedPotion(entity, queue, active);
+		
+		CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(queue.effect());
+		combatPotionEffect.onRemoved(entity, previous.amplifier(), version);
+		combatPotionEffect.onApplied(entity, active.amplifier(), version);
+		
+		EffectWheel.start(this, entity, active);
+		if (queue.size() > 1) EffectWheel.schedulePromotion(this, entity, queue);
+		
+		PotionVisibilityBuffer.markDirty(this, entity);
+	}
+	
+	private static void addQueuedPotion(LivingEntity entity, EffectQueue queue, Potion potion) {
+		queue.setTop(potion);
+		queue.setSwapping(true);
+		try {
+			entity.addEffect(potion);
+		} finally {
+			queue.setSwapping(false);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * A weaker potion of the same effect which lasts longer stays hidden underneath the new potion.
+	 */
+	@Override
+	public void addEffect(LivingEntity entity, Potion potion) {
+		EffectQueue queue = EffectQueue.of(entity, potion.effect());
+		queue.setReplacing(true);
+		try {
+			entity.addEffect(potion);
+		} finally {
+			queue.setReplacing(false);
 		}
-		return potionMap;
+	}
+	
+	void applyUpdateEffect(LivingEntity entity, CombatPotionEffect effect, byte amplifier) {
+		effect.applyUpdateEffect(entity, amplifier, exhaustionFeature, foodFeature);
+	}
+	
+	@Override
+	public ResolvedPotionContents resolve(@Nullable PotionContents potionContents) {
+		if (potionContents == null) potionContents = PotionContents.EMPTY;
+		
+		int version = CombatPotionTypes.getVersion();
+		ResolvedPotionContents resolved;
+		synchronized (resolvedCache) {
+			if (resolvedVersion != version) {
+				resolvedCache.clear();
+				resolvedVersion = version;
+			}
+			resolved = resolvedCache.get(potionContents);
+		}
+		if (resolved != null) return resolved;
+		
+		List<Potion> potions = getAllPotions(potionContents.potion(), potionContents.customEffects());
+		resolved = ResolvedPotionContents.of(potionContents, potions, calculatePotionColor(potionContents, potions));
+		synchronized (resolvedCache) {
+			// Do not cache contents resolved from potion types which have been replaced in the meantime
+			if (resolvedVersion == version) resolvedCache.put(potionContents, resolved);
+		}
+		return resolved;
+	}
+	
+	@Override
+	public boolean hasEffect(LivingEntity entity, PotionEffect effect) {
+		return ActiveEffects.of(entity).has(effect);
+	}
+	
+	@Override
+	public byte getEffectAmplifier(LivingEntity entity, PotionEffect effect) {
+		return ActiveEffects.of(entity).getAmplifier(effect);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The returned list is immutable, since it is shared by all resolutions of the same contents.
+	 */
+	@Override
+	public List<Potion> getAllPotions(@Nullable PotionContents potionContents) {
+		return resolve(potionContents).potions();
 	}
 	
 	@Override
 	public int getPotionColor(PotionContents contents) {
+		return resolve(contents).color();
+	}
+	
+	private int calculatePotionColor(PotionContents contents, Collection<Potion> effects) {
 		if (contents.customColor() != null) {
 			RGBLike rgbLike = contents.customColor();
 			return PotionColorUtils.rgba(255, rgbLike.red(), rgbLike.green(), rgbLike.blue());
 		} else if (contents.equals(PotionContents.EMPTY)) {
 			return DEFAULT_POTION_COLOR;
 		} else {
-			Collection<Potion> effects = getAllPotions(contents);
 			int color = PotionColorUtils.getPotionColor(effects);
 			return color == -1 ? DEFAULT_POTION_COLOR : color;
 		}
@@ -201,7 +370,7 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 					}
 				}
 				
-				invisible = entity.hasEffect(PotionEffect.INVISIBILITY);
+				invisible = hasEffect(entity, PotionEffect.INVISIBILITY);
 			}
 		}
 		
@@ -209,9 +378,12 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 		EventDispatcher.callCancellable(potionVisibilityEvent, () -> {
 			LivingEntityMeta meta = (LivingEntityMeta) entity.getEntityMeta();
 			
+			// Send all changes in a single metadata packet
+			meta.setNotifyAboutChanges(false);
 			meta.setPotionEffectAmbient(potionVisibilityEvent.isAmbient());
 			meta.setEffectParticles(potionVisibilityEvent.getParticles());
 			meta.setInvisible(potionVisibilityEvent.isInvisible());
+			meta.setNotifyAboutChanges(true);
 		});
 	}
 	
@@ -228,7 +400,7 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 							entity, potion.amplifier(), 1.0, exhaustionFeature, foodFeature);
 				} else {
 					int duration = Math.max(potion.duration() / 8, 1);
-					entity.addEffect(new Potion(potion.effect(), potion.amplifier(), duration, potion.flags()));
+					addEffect(entity, new Potion(potion.effect(), potion.amplifier(), duration, potion.flags()));
 				}
 			}
 		}
@@ -249,7 +421,7 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 						combatPotionEffect.applyInstantEffect(arrow, null,
 								entity, potion.amplifier(), 1.0, exhaustionFeature, foodFeature);
 					} else {
-						entity.addEffect(new Potion(potion.effect(), potion.amplifier(),
+						addEffect(entity, new Potion(potion.effect(), potion.amplifier(),
 								potion.duration(), potion.flags()));
 					}
 				});
@@ -258,7 +430,13 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 	@Override
 	public void addSplashPotionEffects(LivingEntity entity, PotionContents potionContents, double proximity,
 	                                   @Nullable Entity source, @Nullable Entity attacker) {
-		for (Potion potion : getAllPotions(potionContents)) {
+		addSplashPotionEffects(entity, resolve(potionContents), proximity, source, attacker);
+	}
+	
+	@Override
+	public void addSplashPotionEffects(LivingEntity entity, ResolvedPotionContents potionContents, double proximity,
+	                                   @Nullable Entity source, @Nullable Entity attacker) {
+		for (Potion potion : potionContents.potions()) {
 			CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(potion.effect());
 			if (combatPotionEffect.isInstant()) {
 				combatPotionEffect.applyInstantEffect(source, attacker,
@@ -269,7 +447,7 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 				duration = (int) (proximity * (double) duration + 0.5);
 				
 				if (duration > 20) {
-					entity.addEffect(new Potion(potion.effect(), potion.amplifier(), duration, potion.flags()));
+					addEffect(entity, new Potion(potion.effect(), potion.amplifier(), duration, potion.flags()));
 				}
 			}
 		}
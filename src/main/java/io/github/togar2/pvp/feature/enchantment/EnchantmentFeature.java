@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.feature.enchantment;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.enchantment.EntityGroup;
 import io.github.togar2.pvp.feature.CombatFeature;
 import net.minestom.server.entity.Entity;
@@ -97,6 +98,14 @@ public interface EnchantmentFeature extends CombatFeature {
 	
 	int getProtectionAmount(LivingEntity entity, DamageType damageType);
 	
+	/**
+	 * Same as {@link #getProtectionAmount(LivingEntity, DamageType)},
+	 * but with the profile of the damage type which has already been resolved.
+	 */
+	default int getProtectionAmount(LivingEntity entity, DamageProfile profile) {
+		return getProtectionAmount(entity, profile.type());
+	}
+	
 	float getAttackDamage(ItemStack stack, EntityGroup group);
 	
 	double getExplosionKnockback(LivingEntity entity, double strength);
@@ -111,6 +120,22 @@ public interface EnchantmentFeature extends CombatFeature {
 	
 	boolean shouldUnbreakingPreventDamage(ItemStack stack);
 	
+	/**
+	 * Determines how many points of durability damage are prevented by unbreaking,
+	 * when the stack is damaged by the specified amount.
+	 *
+	 * @param stack the stack being damaged
+	 * @param amount the amount of durability damage
+	 * @return the amount of durability damage which is prevented
+	 */
+	default int getUnbreakingPreventedAmount(ItemStack stack, int amount) {
+		int prevented = 0;
+		for (int i = 0; i < amount; i++) {
+			if (shouldUnbreakingPreventDamage(stack)) prevented++;
+		}
+		return prevented;
+	}
+	
 	/**
 	 * Handles an entity being damaged by an attacker. Usually applies thorns.
 	 *
@@ -0,0 +1,198 @@
+package io.github.togar2.pvp.feature.enchantment;
+
+import io.github.togar2.pvp.damage.DamageProfile;
+import io.github.togar2.pvp.enchantment.CombatEnchantment;
+import io.github.togar2.pvp.enchantment.CombatEnchantments;
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.EquipmentSlot;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.item.ItemComponent;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.component.EnchantmentList;
+import net.minestom.server.item.enchant.Enchantment;
+import net.minestom.server.registry.DynamicRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The enchantments on the equipment of an entity, read once and kept until the equipment changes.
+ * <p>
+ * Since item stacks are immutable, the snapshot stays valid as long as the same stacks are equipped.
+ * This is checked by identity every time the snapshot is requested, which also covers equipment changes
+ * that do not call an event (e.g. {@link net.minestom.server.entity.Player#setHeldItemSlot(byte)}).
+ * <p>
+ * The snapshot is also rebuilt when enchantments are registered (see {@link CombatEnchantments#getVersion()}).
+ * <p>
+ * The protection amount of the armor is cached per damage type, for the enchantment feature which calculated it.
+ * Cached amounts are only used for the same {@link DamageProfile} instance, so {@link DamageProfile#invalidate()}
+ * also invalidates them.
+ */
+final class EnchantmentSnapshot {
+	private static final CombatState.ObjectSlot<EnchantmentSnapshot> SNAPSHOT = CombatState.objectSlot("enchantmentSnapshot");
+	
+	// Same order in which enchantment effects have always been applied
+	private static final EquipmentSlot[] SLOTS = {
+			EquipmentSlot.BOOTS, EquipmentSlot.LEGGINGS, EquipmentSlot.CHESTPLATE, EquipmentSlot.HELMET,
+			EquipmentSlot.MAIN_HAND, EquipmentSlot.OFF_HAND
+	};
+	
+	private final ItemStack[] stacks;
+	private final int version;
+	
+	// All enchantments of the equipment, in the order of the slots
+	private final int size;
+	private final EquipmentSlot[] slots;
+	private final DynamicRegistry.Key<Enchantment>[] keys;
+	private final CombatEnchantment[] enchantments;
+	private final int[] levels;
+	
+	private EnchantmentFeature protectionOwner;
+	private CachedProtection[] protection = new CachedProtection[0];
+	
+	private record CachedProtection(DamageProfile profile, int amount) {}
+	
+	@SuppressWarnings("unchecked")
+	private EnchantmentSnapshot(ItemStack[] stacks) {
+		this.stacks = stacks;
+		this.version = CombatEnchantments.getVersion();
+		
+		List<EquipmentSlot> slots = new ArrayList<>();
+		List<DynamicRegistry.Key<Enchantment>> keys = new ArrayList<>();
+		List<CombatEnchantment> enchantments = new ArrayList<>();
+		List<Integer> levels = new ArrayList<>();
+		for (int i = 0; i < SLOTS.length; i++) {
+			if (stacks[i].isAir()) continue;
+			
+			EnchantmentList enchantmentList = stacks[i].get(ItemComponent.ENCHANTMENTS);
+			if (enchantmentList == null) continue;
+			
+			for (Map.Entry<DynamicRegistry.Key<Enchantment>, Integer> entry : enchantmentList.enchantments().entrySet()) {
+				CombatEnchantment enchantment = CombatEnchantments.get(entry.getKey());
+				if (enchantment == null) continue; // Enchantment without combat effects
+				
+				slots.add(SLOTS[i]);
+				keys.add(entry.getKey());
+				enchantments.add(enchantment);
+				levels.add(entry.getValue());
+			}
+		}
+		
+		this.size = keys.size();
+		this.slots = slots.toArray(EquipmentSlot[]::new);
+		this.keys = keys.toArray(DynamicRegistry.Key[]::new);
+		this.enchantments = enchantments.toArray(CombatEnchantment[]::new);
+		this.levels = levels.stream().mapToInt(Integer::intValue).toArray();
+	}
+	
+	/**
+	 * Gets the snapshot of the current equipment of an entity, rebuilding it if the equipment has changed.
+	 *
+	 * @param entity the entity
+	 * @return the snapshot
+	 */
+	static EnchantmentSnapshot of(LivingEntity entity) {
+		CombatState state = CombatState.of(entity);
+		EnchantmentSnapshot snapshot = SNAPSHOT.get(state);
+		if (snapshot != null && snapshot.matches(entity)) return snapshot;
+		
+		ItemStack[] stacks = new ItemStack[SLOTS.length];
+		for (int i = 0; i < SLOTS.length; i++) {
+			stacks[i] = entity.getEquipment(SLOTS[i]);
+		}
+		
+		snapshot = new EnchantmentSnapshot(stacks);
+		SNAPSHOT.set(state, snapshot);
+		return snapshot;
+	}
+	
+	private boolean matches(LivingEntity entity) {
+		if (version != CombatEnchantments.getVersion()) return false;
+		for (int i = 0; i < SLOTS.length; i++) {
+			if (entity.getEquipment(SLOTS[i]) != stacks[i]) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @return the highest level of the enchantment in the slots it has effect in
+	 */
+	int getLevel(DynamicRegistry.Key<Enchantment> enchantment) {
+		int highest = 0;
+		for (int i = 0; i < size; i++) {
+			if (levels[i] > highest && keys[i].equals(enchantment) && enchantments[i].isSlotType(slots[i]))
+				highest = levels[i];
+		}
+		return highest;
+	}
+	
+	/**
+	 * @return all the equipment slots in which the enchantment has effect, with a level higher than 0
+	 */
+	List<EquipmentSlot> getSlots(DynamicRegistry.Key<Enchantment> enchantment) {
+		List<EquipmentSlot> result = null;
+		for (int i = 0; i < size; i++) {
+			if (levels[i] > 0 && keys[i].equals(enchantment) && enchantments[i].isSlotType(slots[i])) {
+				if (result == null) result = new ArrayList<>(2);
+				result.add(slots[i]);
+			}
+		}
+		return result == null ? List.of() : result;
+	}
+	
+	ItemStack getStack(EquipmentSlot slot) {
+		for (int i = 0; i < SLOTS.length; i++) {
+			if (SLOTS[i] == slot) return stacks[i];
+		}
+		return ItemStack.AIR;
+	}
+	
+	/**
+	 * Gets the protection amount of all enchantments on the armor, caching it per damage type.
+	 */
+	int getProtectionAmount(DamageProfile profile, EnchantmentFeature feature, FeatureConfiguration configuration) {
+		int id = profile.id();
+		if (id < 0) return calculateProtection(profile, feature, configuration);
+		
+		if (protectionOwner != feature) {
+			protectionOwner = feature;
+			protection = new CachedProtection[0];
+		}
+		
+		if (id >= protection.length) protection = Arrays.copyOf(protection, id + 1);
+		
+		CachedProtection cached = protection[id];
+		if (cached == null || cached.profile != profile) {
+			cached = new CachedProtection(profile, calculateProtection(profile, feature, configuration));
+			protection[id] = cached;
+		}
+		return cached.amount;
+	}
+	
+	private int calculateProtection(DamageProfile profile, EnchantmentFeature feature, FeatureConfiguration configuration) {
+		int result = 0;
+		for (int i = 0; i < size; i++) {
+			if (slots[i].isArmor())
+				result += enchantments[i].getProtectionAmount(levels[i], profile, feature, configuration);
+		}
+		return result;
+	}
+	
+	void onUserDamaged(LivingEntity user, LivingEntity attacker,
+	                   EnchantmentFeature feature, FeatureConfiguration configuration) {
+		for (int i = 0; i < size; i++) {
+			enchantments[i].onUserDamaged(user, attacker, levels[i], feature, configuration);
+		}
+	}
+	
+	void onTargetDamaged(LivingEntity user, Entity target,
+	                     EnchantmentFeature feature, FeatureConfiguration configuration) {
+		for (int i = 0; i < size; i++) {
+			enchantments[i].onTargetDamaged(user, target, levels[i], feature, configuration);
+		}
+	}
+}
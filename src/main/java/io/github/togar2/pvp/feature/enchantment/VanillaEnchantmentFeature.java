@@ -1,52 +1,68 @@
 package io.github.togar2.pvp.feature.enchantment;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.enchantment.CombatEnchantment;
 import io.github.togar2.pvp.enchantment.CombatEnchantments;
 import io.github.togar2.pvp.enchantment.EntityGroup;
 import io.github.togar2.pvp.enums.ArmorMaterial;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.damage.DamageType;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntitySetFireEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.component.EnchantmentList;
 import net.minestom.server.item.enchant.Enchantment;
 import net.minestom.server.registry.DynamicRegistry;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 /**
  * Vanilla implementation of {@link EnchantmentFeature}
  * <p>
  * Utilizes the enchantment classes in the {@link io.github.togar2.pvp.enchantment} package.
+ * The enchantments on the equipment of an entity are kept in a snapshot until the equipment changes.
  */
-public class VanillaEnchantmentFeature implements EnchantmentFeature, RegistrableFeature {
+public class VanillaEnchantmentFeature implements EnchantmentFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaEnchantmentFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.ENCHANTMENT, VanillaEnchantmentFeature::new,
 			CombatEnchantments.getAllFeatureDependencies()
 	);
 	
 	private final FeatureConfiguration configuration;
+	private final boolean customUnbreaking;
 	
 	public VanillaEnchantmentFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
+		this.customUnbreaking = overridesUnbreaking();
+	}
+	
+	/**
+	 * Checks whether a subclass has overridden {@link #shouldUnbreakingPreventDamage(ItemStack)},
+	 * in which case unbreaking should still be rolled for every point of durability damage.
+	 */
+	private boolean overridesUnbreaking() {
+		try {
+			return getClass().getMethod("shouldUnbreakingPreventDamage", ItemStack.class)
+					.getDeclaringClass() != VanillaEnchantmentFeature.class;
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EntitySetFireEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(EntitySetFireEvent.class, event -> {
 			if (event.getEntity() instanceof LivingEntity living)
 				event.setFireTicks(getFireDuration(living, event.getFireTicks()));
 		});
@@ -66,62 +82,42 @@ public class VanillaEnchantmentFeature implements EnchantmentFeature, Registrabl
 	
 	@Override
 	public int getEquipmentLevel(LivingEntity entity, DynamicRegistry.Key<Enchantment> enchantment) {
-		Iterator<ItemStack> iterator = CombatEnchantments.get(enchantment).getEquipment(entity).values().iterator();
-		
-		int highest = 0;
-		while (iterator.hasNext()) {
-			ItemStack itemStack = iterator.next();
-			int level = itemStack.get(ItemComponent.ENCHANTMENTS).level(enchantment);
-			if (level > highest) highest = level;
-		}
-		
-		return highest;
+		return EnchantmentSnapshot.of(entity).getLevel(enchantment);
 	}
 	
 	@Override
 	public Map.Entry<EquipmentSlot, ItemStack> pickRandom(LivingEntity entity, DynamicRegistry.Key<Enchantment> enchantment) {
-		Map<EquipmentSlot, ItemStack> equipmentMap = CombatEnchantments.get(enchantment).getEquipment(entity);
-		if (equipmentMap.isEmpty()) return null;
-		
-		List<Map.Entry<EquipmentSlot, ItemStack>> possibleStacks = new ArrayList<>();
+		EnchantmentSnapshot snapshot = EnchantmentSnapshot.of(entity);
+		List<EquipmentSlot> possibleSlots = snapshot.getSlots(enchantment);
+		if (possibleSlots.isEmpty()) return null;
 		
-		for (Map.Entry<EquipmentSlot, ItemStack> entry : equipmentMap.entrySet()) {
-			ItemStack itemStack = entry.getValue();
-			
-			if (!itemStack.isAir() && itemStack.get(ItemComponent.ENCHANTMENTS).level(enchantment) > 0) {
-				possibleStacks.add(entry);
-			}
-		}
-		
-		return possibleStacks.isEmpty() ? null :
-				possibleStacks.get(ThreadLocalRandom.current().nextInt(possibleStacks.size()));
+		EquipmentSlot slot = possibleSlots.get(ThreadLocalRandom.current().nextInt(possibleSlots.size()));
+		return Map.entry(slot, snapshot.getStack(slot));
 	}
 	
 	@Override
 	public int getProtectionAmount(LivingEntity entity, DamageType damageType) {
-		AtomicInteger result = new AtomicInteger();
-		
-		List<ItemStack> armorItems = new ArrayList<>();
-		for (EquipmentSlot slot : EquipmentSlot.armors()) {
-			if (slot.isArmor() && !entity.getEquipment(slot).isAir()) {
-				armorItems.add(entity.getEquipment(slot));
-			}
-		}
-		
-		forEachEnchantment(armorItems, (enchantment, level) ->
-				result.addAndGet(enchantment.getProtectionAmount(level, damageType, this, configuration)));
-		return result.get();
+		return getProtectionAmount(entity, DamageProfile.of(damageType));
+	}
+	
+	@Override
+	public int getProtectionAmount(LivingEntity entity, DamageProfile profile) {
+		return EnchantmentSnapshot.of(entity).getProtectionAmount(profile, this, configuration);
 	}
 	
 	@Override
 	public float getAttackDamage(ItemStack stack, EntityGroup group) {
-		AtomicReference<Float> result = new AtomicReference<>((float) 0);
-		stack.get(ItemComponent.ENCHANTMENTS).enchantments().forEach((enchantment, level) -> {
-			CombatEnchantment combatEnchantment = CombatEnchantments.get(enchantment);
-			result.updateAndGet(v -> v + combatEnchantment.getAttackDamage(level, group, this, configuration));
-		});
+		EnchantmentList enchantmentList = stack.get(ItemComponent.ENCHANTMENTS);
+		if (enchantmentList == null) return 0;
+		
+		float result = 0;
+		for (Map.Entry<DynamicRegistry.Key<Enchantment>, Integer> entry : enchantmentList.enchantments().entrySet()) {
+			CombatEnchantment combatEnchantment = CombatEnchantments.get(entry.getKey());
+			if (combatEnchantment == null) continue;
+			result += combatEnchantment.getAttackDamage(entry.getValue(), group, this, configuration);
+		}
 		
-		return result.get();
+		return result;
 	}
 	
 	@Override
@@ -166,21 +162,54 @@ public class VanillaEnchantmentFeature implements EnchantmentFeature, Registrabl
 		}
 	}
 	
+	/**
+	 * Draws the amount of prevented points from a binomial distribution, with the same chance per point
+	 * as {@link #shouldUnbreakingPreventDamage(ItemStack)}. This gives the same distribution as rolling every point,
+	 * also for durability damage which is applied right away, but only uses a single random number.
+	 * If {@link #shouldUnbreakingPreventDamage(ItemStack)} is overridden, every point is rolled using that method instead.
+	 */
+	@Override
+	public int getUnbreakingPreventedAmount(ItemStack stack, int amount) {
+		if (customUnbreaking) return EnchantmentFeature.super.getUnbreakingPreventedAmount(stack, amount);
+		if (amount <= 0) return 0;
+		EnchantmentList enchantmentList = stack.get(ItemComponent.ENCHANTMENTS);
+		int unbreakingLevel = enchantmentList == null ? 0 : enchantmentList.level(Enchantment.UNBREAKING);
+		if (unbreakingLevel <= 0) return 0;
+		
+		// Same chance as shouldUnbreakingPreventDamage, but drawn once for all points
+		double chance = (double) unbreakingLevel / (unbreakingLevel + 1);
+		if (ArmorMaterial.fromMaterial(stack.material()) != null) chance *= 0.4;
+		return sampleBinomial(amount, chance, ThreadLocalRandom.current().nextDouble());
+	}
+	
+	/**
+	 * Samples a binomial distribution by inverting its cumulative distribution function.
+	 *
+	 * @param trials the amount of trials
+	 * @param chance the chance of success of each trial, smaller than 1
+	 * @param random a uniform random number between 0 and 1
+	 * @return the amount of successes
+	 */
+	private static int sampleBinomial(int trials, double chance, double random) {
+		double failChance = 1 - chance;
+		double probability = Math.pow(failChance, trials);
+		double cumulative = probability;
+		int successes = 0;
+		while (random > cumulative && successes < trials) {
+			probability *= (double) (trials - successes) / (successes + 1) * chance / failChance;
+			successes++;
+			cumulative += probability;
+		}
+		return successes;
+	}
+	
 	@Override
 	public void onUserDamaged(LivingEntity user, LivingEntity attacker) {
-		forEachEnchantment(Arrays.asList(
-				user.getBoots(), user.getLeggings(),
-				user.getChestplate(), user.getHelmet(),
-				user.getItemInMainHand(), user.getItemInOffHand()
-		), (enchantment, level) -> enchantment.onUserDamaged(user, attacker, level, this, configuration));
+		EnchantmentSnapshot.of(user).onUserDamaged(user, attacker, this, configuration);
 	}
 	
 	@Override
 	public void onTargetDamaged(LivingEntity user, Entity target) {
-		forEachEnchantment(Arrays.asList(
-				user.getBoots(), user.getLeggings(),
-				user.getChestplate(), user.getHelmet(),
-				user.getItemInMainHand(), user.getItemInOffHand()
-		), (enchantment, level) -> enchantment.onTargetDamaged(user, target, level, this, configuration));
+		EnchantmentSnapshot.of(user).onTargetDamaged(user, target, this, configuration);
 	}
 }
@@ -21,7 +21,7 @@ import org.jetbrains.annotations.NotNull;
 public class VanillaExplosionFeature implements ExplosionFeature {
 	public static final DefinedFeature<VanillaExplosionFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.EXPLOSION, VanillaExplosionFeature::new,
-			FeatureType.ENCHANTMENT
+			FeatureType.ENCHANTMENT, FeatureType.DAMAGE
 	);
 	
 	private final FeatureConfiguration configuration;
@@ -34,7 +34,8 @@ public class VanillaExplosionFeature implements ExplosionFeature {
 	
 	@Override
 	public void initDependencies() {
-		this.explosionSupplier = new VanillaExplosionSupplier(this, configuration.get(FeatureType.ENCHANTMENT));
+		this.explosionSupplier = new VanillaExplosionSupplier(this, configuration.get(FeatureType.ENCHANTMENT),
+				configuration.get(FeatureType.DAMAGE));
 	}
 	
 	@Override
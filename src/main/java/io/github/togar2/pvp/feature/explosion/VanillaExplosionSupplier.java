@@ -1,6 +1,8 @@
 package io.github.togar2.pvp.feature.explosion;
 
+import io.github.togar2.pvp.damage.DamageBatch;
 import io.github.togar2.pvp.events.ExplosionEvent;
+import io.github.togar2.pvp.feature.damage.DamageFeature;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.player.CombatPlayer;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
@@ -32,10 +34,13 @@ public final class VanillaExplosionSupplier implements ExplosionSupplier {
 	private final ExplosionFeature feature;
 	
 	private final EnchantmentFeature enchantmentFeature;
+	private final DamageFeature damageFeature;
 	
-	VanillaExplosionSupplier(ExplosionFeature feature, EnchantmentFeature enchantmentFeature) {
+	VanillaExplosionSupplier(ExplosionFeature feature, EnchantmentFeature enchantmentFeature,
+	                         DamageFeature damageFeature) {
 		this.feature = feature;
 		this.enchantmentFeature = enchantmentFeature;
+		this.damageFeature = damageFeature;
 	}
 	
 	@Override
@@ -143,6 +148,11 @@ public final class VanillaExplosionSupplier implements ExplosionSupplier {
 				if (explosionEvent.isCancelled()) return null;
 				damageObj = explosionEvent.getDamageObject();
 				
+				// Living entities are damaged in one batch, their knockback is applied once the damage succeeded
+				DamageBatch batch = DamageBatch.of(instance, damageObj);
+				Map<Entity, Double> knockbackStrengths = new IdentityHashMap<>();
+				Map<Entity, Vec> knockbackDirections = new IdentityHashMap<>();
+				
 				for (Entity entity : entities) {
 					double currentStrength = entity.getPosition().distance(centerPoint) / strength;
 					if (currentStrength <= 1.0D) {
@@ -157,38 +167,44 @@ public final class VanillaExplosionSupplier implements ExplosionSupplier {
 							dz /= distance;
 							double exposure = getExposure(centerPoint, entity);
 							currentStrength = (1.0D - currentStrength) * exposure;
-							damageObj.setAmount((float) ((currentStrength * currentStrength + currentStrength)
-									/ 2.0D * 7.0D * strength + 1.0D));
-							double knockback = currentStrength;
+							float amount = (float) ((currentStrength * currentStrength + currentStrength)
+									/ 2.0D * 7.0D * strength + 1.0D);
+							Vec direction = new Vec(dx, dy, dz);
 							if (entity instanceof LivingEntity living) {
-								if (!living.damage(damageObj)) continue;
-								knockback = enchantmentFeature.getExplosionKnockback(living, currentStrength);
-							}
-							
-							Vec knockbackVec = new Vec(
-									dx * knockback,
-									dy * knockback,
-									dz * knockback
-							);
-							
-							int tps = ServerFlag.SERVER_TICKS_PER_SECOND;
-							if (entity instanceof Player player) {
-								if (player.getGameMode().canTakeDamage() && !player.isFlying()) {
-									playerKnockback.put(player, knockbackVec);
-									
-									if (player instanceof CombatPlayer custom)
-										custom.setVelocityNoUpdate(velocity -> velocity.add(knockbackVec.mul(tps)));
-								}
+								batch.add(living, amount);
+								knockbackStrengths.put(living, currentStrength);
+								knockbackDirections.put(living, direction);
 							} else {
-								entity.setVelocity(entity.getVelocity().add(knockbackVec.mul(tps)));
+								applyKnockback(entity, direction.mul(currentStrength));
 							}
 						}
 					}
 				}
 				
+				if (batch.size() > 0) damageFeature.damage(batch, (target, amount, damaged) -> {
+					if (!damaged) return;
+					
+					double knockback = enchantmentFeature.getExplosionKnockback(target, knockbackStrengths.get(target));
+					applyKnockback(target, knockbackDirections.get(target).mul(knockback));
+				});
+				
 				return blocks;
 			}
 			
+			private void applyKnockback(Entity entity, Vec knockbackVec) {
+				int tps = ServerFlag.SERVER_TICKS_PER_SECOND;
+				if (entity instanceof Player player) {
+					if (player.getGameMode().canTakeDamage() && !player.isFlying()) {
+						playerKnockback.put(player, knockbackVec);
+						
+						if (player instanceof CombatPlayer custom)
+							custom.setVelocityNoUpdate(velocity -> velocity.add(knockbackVec.mul(tps)));
+					}
+				} else {
+					entity.setVelocity(entity.getVelocity().add(knockbackVec.mul(tps)));
+				}
+			}
+			
 			@Override
 			public void apply(@NotNull Instance instance) {
 				List<Point> blocks = prepare(instance);
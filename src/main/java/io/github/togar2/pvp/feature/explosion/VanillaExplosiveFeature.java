@@ -4,8 +4,9 @@ import io.github.togar2.pvp.entity.explosion.CrystalEntity;
 import io.github.togar2.pvp.events.AnchorChargeEvent;
 import io.github.togar2.pvp.events.AnchorExplodeEvent;
 import io.github.togar2.pvp.events.CrystalPlaceEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.item.ItemDamageFeature;
@@ -20,10 +21,8 @@ import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerBlockInteractEvent;
 import net.minestom.server.event.player.PlayerUseItemOnBlockEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.block.Block;
 import net.minestom.server.item.ItemStack;
@@ -33,7 +32,7 @@ import net.minestom.server.sound.SoundEvent;
 /**
  * Vanilla implementation of {@link ExplosiveFeature}
  */
-public class VanillaExplosiveFeature implements ExplosiveFeature, RegistrableFeature {
+public class VanillaExplosiveFeature implements ExplosiveFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaExplosiveFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.EXPLOSIVE, VanillaExplosiveFeature::new,
 			FeatureType.EXPLOSION, FeatureType.ITEM_DAMAGE
@@ -55,8 +54,8 @@ public class VanillaExplosiveFeature implements ExplosiveFeature, RegistrableFea
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerUseItemOnBlockEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerUseItemOnBlockEvent.class, event -> {
 			ItemStack stack = event.getItemStack();
 			Instance instance = event.getInstance();
 			Point position = event.getPosition();
@@ -79,7 +78,7 @@ public class VanillaExplosiveFeature implements ExplosiveFeature, RegistrableFea
 			}
 		});
 		
-		node.addListener(PlayerUseItemOnBlockEvent.class, event -> {
+		collector.addListener(PlayerUseItemOnBlockEvent.class, event -> {
 			if (event.getItemStack().material() != Material.END_CRYSTAL) return;
 			Instance instance = event.getInstance();
 			Block block = instance.getBlock(event.getPosition());
@@ -105,7 +104,7 @@ public class VanillaExplosiveFeature implements ExplosiveFeature, RegistrableFea
 			});
 		});
 		
-		node.addListener(PlayerBlockInteractEvent.class, event -> {
+		collector.addListener(PlayerBlockInteractEvent.class, event -> {
 			Instance instance = event.getInstance();
 			Block block = instance.getBlock(event.getBlockPosition());
 			Player player = event.getPlayer();
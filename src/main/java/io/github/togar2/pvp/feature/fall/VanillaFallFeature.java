@@ -1,13 +1,17 @@
 package io.github.togar2.pvp.feature.fall;
 
+import io.github.togar2.pvp.entity.CombatState;
 import io.github.togar2.pvp.feature.CombatFeature;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.effect.EffectFeature;
 import io.github.togar2.pvp.feature.state.PlayerStateFeature;
+import io.github.togar2.pvp.player.MoveEnvironment;
+import io.github.togar2.pvp.utils.CombatClassification;
 import net.kyori.adventure.sound.Sound;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.coordinate.Point;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
@@ -15,35 +19,32 @@ import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.DamageType;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityTickEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
-import net.minestom.server.gamedata.tags.TagManager;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.block.Block;
 import net.minestom.server.network.packet.server.play.ParticlePacket;
 import net.minestom.server.particle.Particle;
 import net.minestom.server.potion.PotionEffect;
 import net.minestom.server.sound.SoundEvent;
-import net.minestom.server.tag.Tag;
 
 /**
  * Vanilla implementation of {@link FallFeature}
  */
-public class VanillaFallFeature implements FallFeature, CombatFeature, RegistrableFeature {
+public class VanillaFallFeature implements FallFeature, CombatFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaFallFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.FALL, VanillaFallFeature::new,
 			VanillaFallFeature::initPlayer,
-			FeatureType.PLAYER_STATE
+			FeatureType.PLAYER_STATE, FeatureType.EFFECT
 	);
 	
-	public static final Tag<Double> FALL_DISTANCE = Tag.Transient("fallDistance");
-	public static final Tag<Boolean> EXTRA_FALL_PARTICLES = Tag.Transient("extraFallParticles");
+	public static final CombatState.DoubleSlot FALL_DISTANCE = CombatState.doubleSlot("fallDistance", 0);
+	public static final CombatState.BooleanSlot EXTRA_FALL_PARTICLES = CombatState.booleanSlot("extraFallParticles", false);
 	
 	private final FeatureConfiguration configuration;
 	
 	private PlayerStateFeature playerStateFeature;
+	private EffectFeature effectFeature;
 	
 	public VanillaFallFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -52,16 +53,17 @@ public class VanillaFallFeature implements FallFeature, CombatFeature, Registrab
 	@Override
 	public void initDependencies() {
 		this.playerStateFeature = configuration.get(FeatureType.PLAYER_STATE);
+		this.effectFeature = configuration.get(FeatureType.EFFECT);
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(FALL_DISTANCE, 0.0);
+		FALL_DISTANCE.reset(player);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
+	public void init(ListenerCollector collector) {
 		// For living non-player entities, handle fall damage every tick
-		node.addListener(EntityTickEvent.class, event -> {
+		collector.addListener(EntityTickEvent.class, event -> {
 			if (!(event.getEntity() instanceof LivingEntity livingEntity)) return;
 			if (livingEntity instanceof Player) return;
 			
@@ -70,42 +72,44 @@ public class VanillaFallFeature implements FallFeature, CombatFeature, Registrab
 		});
 		
 		// For players, handle fall damage on move event
-		node.addListener(PlayerMoveEvent.class, event -> {
+		collector.addListener(PlayerMoveEvent.class, event -> {
+			MoveEnvironment environment = MoveEnvironment.of(event);
 			Player player = event.getPlayer();
-			if (playerStateFeature.isClimbing(player)) player.setTag(FALL_DISTANCE, 0.0);
+			if (playerStateFeature.isClimbing(environment)) FALL_DISTANCE.reset(player);
 			
 			handleFallDamage(
-					player, player.getPosition(),
-					event.getNewPosition(), event.isOnGround()
+					player, environment.getPreviousPosition(),
+					environment.getNewPosition(), environment.isOnGround()
 			);
 		});
 	}
 	
 	public void handleFallDamage(LivingEntity entity, Pos currPos, Pos newPos, boolean onGround) {
+		CombatState state = CombatState.of(entity);
 		double dy = newPos.y() - currPos.y();
-		double fallDistance = getFallDistance(entity);
+		double fallDistance = FALL_DISTANCE.get(state);
 		
 		if ((entity instanceof Player player && player.isFlying())
-				|| entity.hasEffect(PotionEffect.LEVITATION)
-				|| entity.hasEffect(PotionEffect.SLOW_FALLING) || dy > 0) {
-			entity.setTag(FALL_DISTANCE, 0.0);
+				|| effectFeature.hasEffect(entity, PotionEffect.LEVITATION)
+				|| effectFeature.hasEffect(entity, PotionEffect.SLOW_FALLING) || dy > 0) {
+			FALL_DISTANCE.set(state, 0.0);
 			return;
 		}
 		
 		if (entity.isFlyingWithElytra() && entity.getVelocity().y() > -0.5) {
-			entity.setTag(FALL_DISTANCE, 1.0);
+			FALL_DISTANCE.set(state, 1.0);
 			return;
 		}
 		
 		if (!onGround) {
-			if (dy < 0) entity.setTag(FALL_DISTANCE, fallDistance - dy);
+			if (dy < 0) FALL_DISTANCE.set(state, fallDistance - dy);
 			return;
 		}
 		
 		Point landingPos = getLandingPos(entity, newPos);
 		Block block = entity.getInstance().getBlock(landingPos);
 		
-		if (entity.hasTag(EXTRA_FALL_PARTICLES) && entity.getTag(EXTRA_FALL_PARTICLES) && fallDistance > 0.0) {
+		if (EXTRA_FALL_PARTICLES.get(state) && fallDistance > 0.0) {
 			Vec position = Vec.fromPoint(landingPos).apply(Vec.Operator.FLOOR).add(0.5, 1, 0.5);
 			int particleCount = (int) Math.max(0, Math.min(200, 50 * fallDistance));
 			
@@ -116,7 +120,7 @@ public class VanillaFallFeature implements FallFeature, CombatFeature, Registrab
 					0.15f, particleCount
 			));
 			
-			entity.removeTag(EXTRA_FALL_PARTICLES);
+			EXTRA_FALL_PARTICLES.set(state, false);
 		}
 		
 		double safeFallDistance = entity.getAttributeValue(Attribute.GENERIC_SAFE_FALL_DISTANCE);
@@ -136,7 +140,7 @@ public class VanillaFallFeature implements FallFeature, CombatFeature, Registrab
 			}
 		}
 		
-		entity.setTag(FALL_DISTANCE, 0.0);
+		FALL_DISTANCE.set(state, 0.0);
 		
 		if (entity instanceof Player player && !player.getGameMode().canTakeDamage()) return;
 		int damage = getFallDamage(entity, fallDistance);
@@ -166,18 +170,17 @@ public class VanillaFallFeature implements FallFeature, CombatFeature, Registrab
 	
 	@Override
 	public double getFallDistance(LivingEntity entity) {
-		return entity.hasTag(FALL_DISTANCE) ? entity.getTag(FALL_DISTANCE) : 0.0;
+		return FALL_DISTANCE.get(entity);
 	}
 	
 	@Override
 	public void resetFallDistance(LivingEntity entity) {
-		entity.setTag(FALL_DISTANCE, 0.0);
+		FALL_DISTANCE.reset(entity);
 	}
 	
 	@Override
 	public void setExtraFallParticles(LivingEntity entity, boolean extraFallParticles) {
-		if (extraFallParticles) entity.setTag(EXTRA_FALL_PARTICLES, true);
-		else entity.removeTag(EXTRA_FALL_PARTICLES);
+		EXTRA_FALL_PARTICLES.set(entity, extraFallParticles);
 	}
 	
 	protected Point getLandingPos(LivingEntity livingEntity, Pos position) {
@@ -190,20 +193,7 @@ public class VanillaFallFeature implements FallFeature, CombatFeature, Registrab
 		Point offsetDown = offset.add(0, -1, 0);
 		Block block = instance.getBlock(offsetDown);
 		
-		TagManager tagManager = MinecraftServer.getTagManager();
-		var fences = tagManager.getTag(net.minestom.server.gamedata.tags.Tag.BasicType.BLOCKS, "minecraft:fences");
-		var walls = tagManager.getTag(net.minestom.server.gamedata.tags.Tag.BasicType.BLOCKS, "minecraft:walls");
-		var fenceGates = tagManager.getTag(net.minestom.server.gamedata.tags.Tag.BasicType.BLOCKS, "minecraft:fence_gates");
-		
-		assert fences != null;
-		assert walls != null;
-		assert fenceGates != null;
-		
-		if (fences.contains(block.namespace())
-				|| walls.contains(block.namespace())
-				|| fenceGates.contains(block.namespace())) {
-			return offsetDown;
-		}
+		if (CombatClassification.isFenceLike(block)) return offsetDown;
 		
 		return offset;
 	}
@@ -0,0 +1,193 @@
+package io.github.togar2.pvp.feature.feedback;
+
+import io.github.togar2.pvp.feature.FeatureType;
+import io.github.togar2.pvp.feature.config.DefinedFeature;
+import io.github.togar2.pvp.utils.EndOfTickBuffer;
+import net.kyori.adventure.sound.Sound;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.network.packet.server.play.DamageEventPacket;
+import net.minestom.server.sound.SoundEvent;
+
+import java.util.*;
+
+/**
+ * Implementation of {@link FeedbackFeature} which collects all feedback of an entity during a tick,
+ * and sends it to the viewers of the entity at the end of the tick.
+ * <p>
+ * When an entity is hurt multiple times within a tick (e.g. by sweeping, thorns and an arrow),
+ * only the strongest animation is played, identical sounds are only played once,
+ * and the damage indicator particles of all attacks are merged.
+ */
+public class CoalescingFeedbackFeature implements FeedbackFeature {
+	public static final DefinedFeature<CoalescingFeedbackFeature> DEFINED = new DefinedFeature<>(
+			FeatureType.FEEDBACK, configuration -> new CoalescingFeedbackFeature()
+	);
+	
+	private static final EndOfTickBuffer<Map<Entity, Feedback>> BUFFER =
+			new EndOfTickBuffer<>("feedbackBuffer", IdentityHashMap::new, CoalescingFeedbackFeature::flush);
+	
+	@Override
+	public void playHurtAnimation(LivingEntity entity, float amount, DamageEventPacket packet) {
+		Feedback feedback = feedback(entity);
+		if (feedback == null) {
+			FeedbackFeature.super.playHurtAnimation(entity, amount, packet);
+			return;
+		}
+		
+		synchronized (feedback) {
+			if (feedback.hurtPacket == null || amount > feedback.hurtAmount) {
+				feedback.hurtPacket = packet;
+				feedback.hurtAmount = amount;
+			}
+		}
+	}
+	
+	@Override
+	public void playBlockAnimation(LivingEntity entity) {
+		Feedback feedback = feedback(entity);
+		if (feedback == null) {
+			FeedbackFeature.super.playBlockAnimation(entity);
+			return;
+		}
+		
+		synchronized (feedback) {
+			feedback.blocked = true;
+		}
+	}
+	
+	@Override
+	public void syncVelocity(LivingEntity entity) {
+		Feedback feedback = feedback(entity);
+		if (feedback == null) {
+			FeedbackFeature.super.syncVelocity(entity);
+			return;
+		}
+		
+		synchronized (feedback) {
+			feedback.syncVelocity = true;
+		}
+	}
+	
+	@Override
+	public void playSound(Entity entity, SoundEvent sound, Sound.Source source) {
+		Feedback feedback = feedback(entity);
+		if (feedback == null) {
+			FeedbackFeature.super.playSound(entity, sound, source);
+			return;
+		}
+		
+		synchronized (feedback) {
+			feedback.sounds.add(new PositionedSound(sound, source));
+		}
+	}
+	
+	@Override
+	public void playAttackSound(LivingEntity attacker, Sound sound) {
+		Feedback feedback = feedback(attacker);
+		if (feedback == null) {
+			FeedbackFeature.super.playAttackSound(attacker, sound);
+			return;
+		}
+		
+		synchronized (feedback) {
+			feedback.attackSounds.add(sound);
+		}
+	}
+	
+	@Override
+	public void playCriticalEffect(LivingEntity attacker, Entity target, boolean magical) {
+		Feedback feedback = feedback(target);
+		if (feedback == null) {
+			FeedbackFeature.super.playCriticalEffect(attacker, target, magical);
+			return;
+		}
+		
+		synchronized (feedback) {
+			if (feedback.criticalAttacker == null) feedback.criticalAttacker = attacker;
+			if (magical) feedback.magicalCritical = true;
+			else feedback.critical = true;
+		}
+	}
+	
+	@Override
+	public void playDamageIndicator(Entity target, float damageDone) {
+		if (damageDone <= 0) return;
+		
+		Feedback feedback = feedback(target);
+		if (feedback == null) {
+			FeedbackFeature.super.playDamageIndicator(target, damageDone);
+			return;
+		}
+		
+		synchronized (feedback) {
+			feedback.damageDone += damageDone;
+		}
+	}
+	
+	/**
+	 * Gets the feedback of an entity for this tick, or null if the entity is not in an instance
+	 * (in which case the feedback should be sent right away).
+	 */
+	private static Feedback feedback(Entity entity) {
+		Instance instance = entity.getInstance();
+		if (instance == null) return null;
+		
+		return BUFFER.update(instance, feedback -> feedback.computeIfAbsent(entity, e -> new Feedback()));
+	}
+	
+	private static void flush(Map<Entity, Feedback> feedback) {
+		for (Map.Entry<Entity, Feedback> entry : feedback.entrySet()) {
+			entry.getValue().flush(entry.getKey());
+		}
+	}
+	
+	private record PositionedSound(SoundEvent sound, Sound.Source source) {}
+	
+	/**
+	 * All feedback of one entity within a tick.
+	 */
+	private static final class Feedback {
+		private DamageEventPacket hurtPacket;
+		private float hurtAmount;
+		private boolean blocked;
+		private boolean syncVelocity;
+		private final Set<PositionedSound> sounds = new LinkedHashSet<>();
+		private final Set<Sound> attackSounds = new LinkedHashSet<>();
+		private LivingEntity criticalAttacker;
+		private boolean critical;
+		private boolean magicalCritical;
+		private float damageDone;
+		
+		private synchronized void flush(Entity entity) {
+			if (entity.isRemoved()) return;
+			
+			// Only the strongest animation is played, a hurt animation is stronger than a block animation
+			if (entity instanceof LivingEntity living) {
+				if (hurtPacket != null) {
+					DEFAULT.playHurtAnimation(living, hurtAmount, hurtPacket);
+				} else if (blocked) {
+					DEFAULT.playBlockAnimation(living);
+				}
+				
+				if (syncVelocity) DEFAULT.syncVelocity(living);
+				
+				for (Sound sound : attackSounds) {
+					DEFAULT.playAttackSound(living, sound);
+				}
+			}
+			
+			for (PositionedSound sound : sounds) {
+				DEFAULT.playSound(entity, sound.sound(), sound.source());
+			}
+			
+			if (criticalAttacker != null) {
+				if (critical) DEFAULT.playCriticalEffect(criticalAttacker, entity, false);
+				if (magicalCritical) DEFAULT.playCriticalEffect(criticalAttacker, entity, true);
+			}
+			
+			DEFAULT.playDamageIndicator(entity, damageDone);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package io.github.togar2.pvp.feature.feedback;
+
+import io.github.togar2.pvp.feature.CombatFeature;
+import io.github.togar2.pvp.utils.ViewUtil;
+import net.kyori.adventure.sound.Sound;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.network.packet.server.play.DamageEventPacket;
+import net.minestom.server.network.packet.server.play.EntityAnimationPacket;
+import net.minestom.server.network.packet.server.play.ParticlePacket;
+import net.minestom.server.network.packet.server.play.SoundEffectPacket;
+import net.minestom.server.particle.Particle;
+import net.minestom.server.sound.SoundEvent;
+
+/**
+ * Combat feature which sends the visual and audible feedback of damage and attacks to the viewers of an entity,
+ * like hurt animations, sounds and particles.
+ * <p>
+ * The default implementation sends everything right away, see {@link CoalescingFeedbackFeature}
+ * for an implementation which merges the feedback of an entity per tick.
+ */
+public interface FeedbackFeature extends CombatFeature {
+	FeedbackFeature DEFAULT = new FeedbackFeature() {};
+	
+	/**
+	 * Plays the hurt animation of an entity.
+	 *
+	 * @param entity the entity which has been hurt
+	 * @param amount the amount of damage, used to decide which animation is the strongest
+	 * @param packet the damage event packet
+	 */
+	default void playHurtAnimation(LivingEntity entity, float amount, DamageEventPacket packet) {
+		entity.sendPacketToViewersAndSelf(packet);
+	}
+	
+	/**
+	 * Plays the shield block animation of an entity.
+	 *
+	 * @param entity the entity which blocked damage
+	 */
+	default void playBlockAnimation(LivingEntity entity) {
+		entity.triggerStatus((byte) 29);
+	}
+	
+	/**
+	 * Sends the current velocity of an entity to its viewers, without changing it.
+	 *
+	 * @param entity the entity
+	 */
+	default void syncVelocity(LivingEntity entity) {
+		entity.setVelocity(entity.getVelocity());
+	}
+	
+	/**
+	 * Plays a sound at the position of an entity.
+	 *
+	 * @param entity the entity
+	 * @param sound the sound
+	 * @param source the source of the sound
+	 */
+	default void playSound(Entity entity, SoundEvent sound, Sound.Source source) {
+		entity.sendPacketToViewersAndSelf(new SoundEffectPacket(
+				sound, source,
+				entity.getPosition(),
+				1.0f, 1.0f, 0
+		));
+	}
+	
+	/**
+	 * Plays an attack sound which is emitted by the attacker.
+	 *
+	 * @param attacker the attacker
+	 * @param sound the sound
+	 */
+	default void playAttackSound(LivingEntity attacker, Sound sound) {
+		ViewUtil.viewersAndSelf(attacker).playSound(sound, attacker);
+	}
+	
+	/**
+	 * Plays the critical hit particles around the target of an attack.
+	 *
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @param magical whether the particles of enchanted damage should be used instead
+	 */
+	default void playCriticalEffect(LivingEntity attacker, Entity target, boolean magical) {
+		attacker.sendPacketToViewersAndSelf(new EntityAnimationPacket(
+				target.getEntityId(),
+				magical ? EntityAnimationPacket.Animation.MAGICAL_CRITICAL_EFFECT
+						: EntityAnimationPacket.Animation.CRITICAL_EFFECT
+		));
+	}
+	
+	/**
+	 * Plays the damage indicator particles of an attack.
+	 *
+	 * @param target the target
+	 * @param damageDone the health the target has lost
+	 */
+	default void playDamageIndicator(Entity target, float damageDone) {
+		if (damageDone <= 2) return;
+		
+		int particleCount = (int) (damageDone * 0.5);
+		Pos targetPosition = target.getPosition();
+		target.sendPacketToViewersAndSelf(new ParticlePacket(
+				Particle.DAMAGE_INDICATOR, false,
+				targetPosition.x(), targetPosition.y() + target.getBoundingBox().height() * 0.5, targetPosition.z(),
+				0.1f, 0, 0.1f,
+				0.2F, particleCount
+		));
+	}
+}
@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.feature.food;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.feature.CombatFeature;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.DamageType;
@@ -39,6 +40,14 @@ public interface ExhaustionFeature extends CombatFeature {
 	 */
 	void addDamageExhaustion(Player player, DamageType type);
 	
+	/**
+	 * Same as {@link #addDamageExhaustion(Player, DamageType)},
+	 * but with the profile of the damage type which has already been resolved.
+	 */
+	default void addDamageExhaustion(Player player, DamageProfile profile) {
+		addDamageExhaustion(player, profile.type());
+	}
+	
 	/**
 	 * Applies effect of the hunger potion effect to a player.
 	 * If a player has the effect, this will be called on a regular basis.
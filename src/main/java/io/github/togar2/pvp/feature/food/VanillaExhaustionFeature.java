@@ -1,42 +1,44 @@
 package io.github.togar2.pvp.feature.food;
 
+import io.github.togar2.pvp.damage.DamageProfile;
+import io.github.togar2.pvp.entity.CombatState;
 import io.github.togar2.pvp.events.PlayerExhaustEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.provider.DifficultyProvider;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
+import io.github.togar2.pvp.player.MoveEnvironment;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerBlockBreakEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
-import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
-import net.minestom.server.instance.block.Block;
-import net.minestom.server.tag.Tag;
 import net.minestom.server.world.Difficulty;
 
-import java.util.Objects;
 
 /**
  * Vanilla implementation of {@link ExhaustionFeature}
  */
-public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableFeature {
+public class VanillaExhaustionFeature implements ExhaustionFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaExhaustionFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.EXHAUSTION, VanillaExhaustionFeature::new,
 			VanillaExhaustionFeature::initPlayer,
-			FeatureType.DIFFICULTY, FeatureType.VERSION
+			FeatureType.DIFFICULTY, FeatureType.VERSION, FeatureType.PLAYER_TICK
 	);
 	
-	public static final Tag<Float> EXHAUSTION = Tag.Float("exhaustion");
+	public static final CombatState.FloatSlot EXHAUSTION = CombatState.floatSlot("exhaustion", 0);
 	
 	private final FeatureConfiguration configuration;
 	
 	private DifficultyProvider difficultyFeature;
 	private CombatVersion version;
+	private PlayerTickFeature playerTickFeature;
 	
 	public VanillaExhaustionFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -46,31 +48,43 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 	public void initDependencies() {
 		this.difficultyFeature = configuration.get(FeatureType.DIFFICULTY);
 		this.version = configuration.get(FeatureType.VERSION);
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(EXHAUSTION, 0.0f);
+		EXHAUSTION.reset(player);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerTickEvent.class, event -> onTick(event.getPlayer()));
+	public void init(ListenerCollector collector) {
+		playerTickFeature.register(collector, this);
 		
-		node.addListener(PlayerBlockBreakEvent.class, event ->
+		collector.addListener(PlayerBlockBreakEvent.class, event ->
 				addExhaustion(event.getPlayer(), version.legacy() ? 0.025f : 0.005f));
 		
-		node.addListener(PlayerMoveEvent.class, this::onMove);
+		collector.addListener(PlayerMoveEvent.class, this::onMove);
 	}
 	
+	/**
+	 * @deprecated override {@link #onPlayerTick(PlayerTickContext)} instead
+	 */
+	@Deprecated
 	protected void onTick(Player player) {
-		if (!player.getGameMode().canTakeDamage()) return;
+		onPlayerTick(PlayerTickContext.of(player));
+	}
+	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		if (!context.getGameMode().canTakeDamage()) return;
+		Player player = context.getPlayer();
 		
-		float exhaustion = player.getTag(EXHAUSTION);
+		CombatState state = CombatState.of(player);
+		float exhaustion = EXHAUSTION.get(state);
 		if (exhaustion > 4) {
-			player.setTag(EXHAUSTION, exhaustion - 4);
+			EXHAUSTION.set(state, exhaustion - 4);
 			if (player.getFoodSaturation() > 0) {
 				player.setFoodSaturation(Math.max(player.getFoodSaturation() - 1, 0));
-			} else if (difficultyFeature.getValue(player) != Difficulty.PEACEFUL) {
+			} else if (context.getDifficulty(difficultyFeature) != Difficulty.PEACEFUL) {
 				player.setFood(Math.max(player.getFood() - 1, 0));
 			}
 		}
@@ -78,13 +92,15 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 	
 	protected void onMove(PlayerMoveEvent event) {
 		Player player = event.getPlayer();
+		MoveEnvironment environment = MoveEnvironment.of(event);
+		boolean onGround = environment.wasOnGround();
 		
-		double xDiff = event.getNewPosition().x() - player.getPosition().x();
-		double yDiff = event.getNewPosition().y() - player.getPosition().y();
-		double zDiff = event.getNewPosition().z() - player.getPosition().z();
+		double xDiff = environment.getDeltaX();
+		double yDiff = environment.getDeltaY();
+		double zDiff = environment.getDeltaZ();
 		
 		// Check if movement was a jump
-		if (yDiff > 0.0D && player.isOnGround()) {
+		if (yDiff > 0.0D && onGround) {
 			if (player.isSprinting()) {
 				addExhaustion(player, version.legacy() ? 0.8f : 0.2f);
 			} else {
@@ -92,11 +108,11 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 			}
 		}
 		
-		if (player.isOnGround()) {
+		if (onGround) {
 			int l = (int) Math.round(Math.sqrt(xDiff * xDiff + zDiff * zDiff) * 100.0f);
 			if (l > 0) addExhaustion(player, (player.isSprinting() ? 0.1f : 0.0f) * (float) l * 0.01f);
 		} else {
-			if (Objects.requireNonNull(player.getInstance()).getBlock(player.getPosition()) == Block.WATER) {
+			if (environment.isInWater()) {
 				int l = (int) Math.round(Math.sqrt(xDiff * xDiff + yDiff * yDiff + zDiff * zDiff) * 100.0f);
 				if (l > 0) addExhaustion(player, 0.01f * (float) l * 0.01f);
 			}
@@ -106,9 +122,15 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 	@Override
 	public void addExhaustion(Player player, float exhaustion) {
 		if (!player.getGameMode().canTakeDamage()) return;
-		PlayerExhaustEvent playerExhaustEvent = new PlayerExhaustEvent(player, exhaustion);
-		EventDispatcher.callCancellable(playerExhaustEvent, () -> player.setTag(EXHAUSTION,
-				Math.min(player.getTag(EXHAUSTION) + playerExhaustEvent.getAmount(), 40)));
+		if (EventDispatcher.getHandle(PlayerExhaustEvent.class).hasListener()) {
+			PlayerExhaustEvent playerExhaustEvent = new PlayerExhaustEvent(player, exhaustion);
+			EventDispatcher.call(playerExhaustEvent);
+			if (playerExhaustEvent.isCancelled()) return;
+			exhaustion = playerExhaustEvent.getAmount();
+		}
+		
+		CombatState state = CombatState.of(player);
+		EXHAUSTION.set(state, Math.min(EXHAUSTION.get(state) + exhaustion, 40));
 	}
 	
 	@Override
@@ -121,6 +143,11 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 		addExhaustion(player, type.exhaustion() * (version.legacy() ? 3 : 1));
 	}
 	
+	@Override
+	public void addDamageExhaustion(Player player, DamageProfile profile) {
+		addExhaustion(player, profile.exhaustion() * (version.legacy() ? 3 : 1));
+	}
+	
 	@Override
 	public void applyHungerEffect(Player player, byte amplifier) {
 		addExhaustion(player, (version.legacy() ? 0.025f : 0.005f) * (float) (amplifier + 1));
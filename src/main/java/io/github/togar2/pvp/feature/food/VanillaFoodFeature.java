@@ -1,21 +1,22 @@
 package io.github.togar2.pvp.feature.food;
 
 import io.github.togar2.pvp.feature.CombatFeature;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.cooldown.ItemCooldownFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
 import io.github.togar2.pvp.utils.PotionFlags;
 import io.github.togar2.pvp.utils.ViewUtil;
 import net.kyori.adventure.sound.Sound;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.item.ItemUsageCompleteEvent;
 import net.minestom.server.event.player.PlayerPreEatEvent;
-import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
@@ -36,15 +37,16 @@ import java.util.concurrent.ThreadLocalRandom;
  * <p>
  * This also includes eating of food items.
  */
-public class VanillaFoodFeature implements FoodFeature, CombatFeature, RegistrableFeature {
+public class VanillaFoodFeature implements FoodFeature, CombatFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaFoodFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.FOOD, VanillaFoodFeature::new,
-			FeatureType.ITEM_COOLDOWN
+			FeatureType.ITEM_COOLDOWN, FeatureType.PLAYER_TICK
 	);
 	
 	private final FeatureConfiguration configuration;
 	
 	private ItemCooldownFeature itemCooldownFeature;
+	private PlayerTickFeature playerTickFeature;
 	
 	public VanillaFoodFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -53,11 +55,12 @@ public class VanillaFoodFeature implements FoodFeature, CombatFeature, Registrab
 	@Override
 	public void initDependencies() {
 		this.itemCooldownFeature = configuration.get(FeatureType.ITEM_COOLDOWN);
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerPreEatEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerPreEatEvent.class, event -> {
 			if (event.getItemStack().material() != Material.MILK_BUCKET
 					&& !event.getItemStack().has(ItemComponent.FOOD))
 				return;
@@ -81,7 +84,7 @@ public class VanillaFoodFeature implements FoodFeature, CombatFeature, Registrab
 			event.setEatingTime(getUseTime(event.getItemStack().material(), foodComponent));
 		});
 		
-		node.addListener(ItemUsageCompleteEvent.class, event -> {
+		collector.addListener(ItemUsageCompleteEvent.class, event -> {
 			if (event.getItemStack().material() != Material.MILK_BUCKET
 					&& !event.getItemStack().has(ItemComponent.FOOD))
 				return;
@@ -89,12 +92,14 @@ public class VanillaFoodFeature implements FoodFeature, CombatFeature, Registrab
 			onFinishEating(event.getPlayer(), event.getItemStack(), event.getHand());
 		});
 		
-		node.addListener(PlayerTickEvent.class, event -> {
-			Player player = event.getPlayer();
-			if (player.isSilent() || !player.isEating()) return;
-			
-			tickEatingSounds(player);
-		});
+		playerTickFeature.register(collector, this);
+	}
+	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		if (!context.isEating() || context.getPlayer().isSilent()) return;
+		
+		tickEatingSounds(context.getPlayer(), context.getActiveItem());
 	}
 	
 	protected void onFinishEating(Player player, ItemStack stack, Player.Hand hand) {
@@ -179,9 +184,15 @@ public class VanillaFoodFeature implements FoodFeature, CombatFeature, Registrab
 		eat(player, amplifier + 1, 1.0f);
 	}
 	
+	/**
+	 * @deprecated use {@link #tickEatingSounds(Player, ItemStack)} instead
+	 */
+	@Deprecated
 	protected void tickEatingSounds(Player player) {
-		ItemStack stack = player.getItemInHand(Objects.requireNonNull(player.getItemUseHand()));
-		
+		tickEatingSounds(player, player.getItemInHand(Objects.requireNonNull(player.getItemUseHand())));
+	}
+	
+	protected void tickEatingSounds(Player player, ItemStack stack) {
 		Food component = stack.get(ItemComponent.FOOD);
 		if (component == null) return;
 		
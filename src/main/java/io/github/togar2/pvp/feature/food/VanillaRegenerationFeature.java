@@ -1,39 +1,40 @@
 package io.github.togar2.pvp.feature.food;
 
+import io.github.togar2.pvp.entity.CombatState;
 import io.github.togar2.pvp.events.PlayerRegenerateEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.provider.DifficultyProvider;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
-import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
-import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
-import net.minestom.server.tag.Tag;
 import net.minestom.server.world.Difficulty;
 
 /**
  * Vanilla implementation of {@link RegenerationFeature}
  */
-public class VanillaRegenerationFeature implements RegenerationFeature, RegistrableFeature {
+public class VanillaRegenerationFeature implements RegenerationFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaRegenerationFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.REGENERATION, VanillaRegenerationFeature::new,
 			VanillaRegenerationFeature::initPlayer,
-			FeatureType.EXHAUSTION, FeatureType.DIFFICULTY, FeatureType.VERSION
+			FeatureType.EXHAUSTION, FeatureType.DIFFICULTY, FeatureType.VERSION, FeatureType.PLAYER_TICK
 	);
 	
-	public static final Tag<Integer> STARVATION_TICKS = Tag.Integer("starvationTicks");
+	public static final CombatState.IntSlot STARVATION_TICKS = CombatState.intSlot("starvationTicks", 0);
 	
 	private final FeatureConfiguration configuration;
 	
 	private ExhaustionFeature exhaustionFeature;
 	private DifficultyProvider difficultyFeature;
 	private CombatVersion version;
+	private PlayerTickFeature playerTickFeature;
 	
 	public VanillaRegenerationFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -44,27 +45,38 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 		this.exhaustionFeature = configuration.get(FeatureType.EXHAUSTION);
 		this.difficultyFeature = configuration.get(FeatureType.DIFFICULTY);
 		this.version = configuration.get(FeatureType.VERSION);
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(STARVATION_TICKS, 0);
+		STARVATION_TICKS.reset(player);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerTickEvent.class, event -> onTick(event.getPlayer()));
+	public void init(ListenerCollector collector) {
+		playerTickFeature.register(collector, this);
 	}
 	
+	/**
+	 * @deprecated override {@link #onPlayerTick(PlayerTickContext)} instead
+	 */
+	@Deprecated
 	protected void onTick(Player player) {
-		if (!player.getGameMode().canTakeDamage()) return;
-		Difficulty difficulty = difficultyFeature.getValue(player);
+		onPlayerTick(PlayerTickContext.of(player));
+	}
+	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		if (!context.getGameMode().canTakeDamage()) return;
+		Player player = context.getPlayer();
 		
 		int food = player.getFood();
-		float health = player.getHealth();
-		int starvationTicks = player.getTag(STARVATION_TICKS);
+		float health = context.getHealth();
+		CombatState state = CombatState.of(player);
+		int starvationTicks = STARVATION_TICKS.get(state);
 		
 		if (version.modern() && player.getFoodSaturation() > 0 && health > 0
-				&& health < player.getAttributeValue(Attribute.GENERIC_MAX_HEALTH) && food >= 20) {
+				&& health < context.getMaxHealth() && food >= 20) {
 			starvationTicks++;
 			if (starvationTicks >= 10) {
 				float amount = Math.min(player.getFoodSaturation(), 6);
@@ -72,7 +84,7 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 				starvationTicks = 0;
 			}
 		} else if (food >= 18 && health > 0
-				&& health < player.getAttributeValue(Attribute.GENERIC_MAX_HEALTH)) {
+				&& health < context.getMaxHealth()) {
 			starvationTicks++;
 			if (starvationTicks >= 80) {
 				regenerate(player, 1, version.legacy() ? 3 : 6);
@@ -81,6 +93,7 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 		} else if (food <= 0) {
 			starvationTicks++;
 			if (starvationTicks >= 80) {
+				Difficulty difficulty = context.getDifficulty(difficultyFeature);
 				if (health > 10 || difficulty == Difficulty.HARD
 						|| ((health > 1) && (difficulty == Difficulty.NORMAL))) {
 					player.damage(DamageType.STARVE, 1);
@@ -92,15 +105,20 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 			starvationTicks = 0;
 		}
 		
-		player.setTag(STARVATION_TICKS, starvationTicks);
+		STARVATION_TICKS.set(state, starvationTicks);
 	}
 	
 	@Override
 	public void regenerate(Player player, float health, float exhaustion) {
-		PlayerRegenerateEvent event = new PlayerRegenerateEvent(player, health, exhaustion);
-		EventDispatcher.callCancellable(event, () -> {
-			player.setHealth(player.getHealth() + event.getAmount());
-			exhaustionFeature.addExhaustion(player, event.getExhaustion());
-		});
+		if (EventDispatcher.getHandle(PlayerRegenerateEvent.class).hasListener()) {
+			PlayerRegenerateEvent event = new PlayerRegenerateEvent(player, health, exhaustion);
+			EventDispatcher.call(event);
+			if (event.isCancelled()) return;
+			health = event.getAmount();
+			exhaustion = event.getExhaustion();
+		}
+		
+		player.setHealth(player.getHealth() + health);
+		exhaustionFeature.addExhaustion(player, exhaustion);
 	}
 }
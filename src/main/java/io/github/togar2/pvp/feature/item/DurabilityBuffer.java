@@ -0,0 +1,71 @@
+package io.github.togar2.pvp.feature.item;
+
+import io.github.togar2.pvp.utils.EndOfTickBuffer;
+import net.minestom.server.entity.EquipmentSlot;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.item.ItemStack;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-instance buffer of armor durability damage, used by {@link VanillaItemDamageFeature#DEFERRED}.
+ * <p>
+ * All damage to the same armor piece within a tick is added up and applied once at the end of the tick,
+ * so the stack is only rebuilt and sent to the viewers once. Unbreaking is then also resolved once for the total amount.
+ * If the armor piece breaks, the break animation is played when the damage is applied.
+ * <p>
+ * If the armor piece has been replaced by another stack before the end of the tick, its pending damage is discarded.
+ * This is checked by identity, so a replacement with the same material also discards the pending damage.
+ */
+final class DurabilityBuffer {
+	private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+	private static final EndOfTickBuffer<Map<LivingEntity, Pending>> BUFFER =
+			new EndOfTickBuffer<>("durabilityBuffer", IdentityHashMap::new, DurabilityBuffer::flush);
+	
+	private static final class Pending {
+		private final VanillaItemDamageFeature feature;
+		private final int[] amounts = new int[SLOTS.length];
+		private final ItemStack[] stacks = new ItemStack[SLOTS.length];
+		
+		private Pending(VanillaItemDamageFeature feature) {
+			this.feature = feature;
+		}
+	}
+	
+	/**
+	 * Adds durability damage to the buffer of the instance of the entity.
+	 *
+	 * @return false if the entity is not in an instance, in which case the damage should be applied right away
+	 */
+	static boolean defer(VanillaItemDamageFeature feature, LivingEntity entity, EquipmentSlot slot, int amount) {
+		Instance instance = entity.getInstance();
+		if (instance == null) return false;
+		
+		BUFFER.update(instance, pending -> {
+			Pending entry = pending.computeIfAbsent(entity, e -> new Pending(feature));
+			int index = slot.ordinal();
+			if (entry.stacks[index] == null) entry.stacks[index] = entity.getEquipment(slot);
+			entry.amounts[index] += amount;
+			return entry;
+		});
+		return true;
+	}
+	
+	private static void flush(Map<LivingEntity, Pending> entries) {
+		for (Map.Entry<LivingEntity, Pending> entry : entries.entrySet()) {
+			LivingEntity entity = entry.getKey();
+			if (entity.isRemoved()) continue;
+			
+			Pending pending = entry.getValue();
+			for (int i = 0; i < SLOTS.length; i++) {
+				if (pending.amounts[i] <= 0) continue;
+				
+				// Armor piece has been swapped for something else
+				if (entity.getEquipment(SLOTS[i]) != pending.stacks[i]) continue;
+				pending.feature.applyDamage(entity, SLOTS[i], pending.amounts[i]);
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.feature.item;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.feature.CombatFeature;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.LivingEntity;
@@ -20,4 +21,12 @@ public interface ItemDamageFeature extends CombatFeature {
 	void damageEquipment(LivingEntity entity, EquipmentSlot slot, int amount);
 	
 	void damageArmor(LivingEntity entity, DamageType damageType, float damage, EquipmentSlot... slots);
+	
+	/**
+	 * Same as {@link #damageArmor(LivingEntity, DamageType, float, EquipmentSlot...)},
+	 * but with the profile of the damage type which has already been resolved.
+	 */
+	default void damageArmor(LivingEntity entity, DamageProfile profile, float damage, EquipmentSlot... slots) {
+		damageArmor(entity, profile.type(), damage, slots);
+	}
 }
@@ -1,13 +1,12 @@
 package io.github.togar2.pvp.feature.item;
 
-import io.github.togar2.pvp.damage.DamageTypeInfo;
-import io.github.togar2.pvp.enums.ArmorMaterial;
+import io.github.togar2.pvp.damage.DamageProfile;
+import io.github.togar2.pvp.enums.CombatMaterialProfile;
 import io.github.togar2.pvp.events.EquipmentDamageEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.damage.DamageType;
@@ -20,6 +19,9 @@ import java.util.function.UnaryOperator;
 
 /**
  * Vanilla implementation of {@link ItemDamageFeature}
+ * <p>
+ * The {@link #DEFERRED} definition does not damage armor right away,
+ * but adds up all damage to an armor piece and applies it once at the end of the tick (see {@link DurabilityBuffer}).
  */
 public class VanillaItemDamageFeature implements ItemDamageFeature {
 	public static final DefinedFeature<VanillaItemDamageFeature> DEFINED = new DefinedFeature<>(
@@ -27,12 +29,26 @@ public class VanillaItemDamageFeature implements ItemDamageFeature {
 			FeatureType.ENCHANTMENT
 	);
 	
+	/**
+	 * Same as {@link #DEFINED}, but armor durability damage is written back once at the end of the tick
+	 */
+	public static final DefinedFeature<VanillaItemDamageFeature> DEFERRED = new DefinedFeature<>(
+			FeatureType.ITEM_DAMAGE, configuration -> new VanillaItemDamageFeature(configuration, true),
+			FeatureType.ENCHANTMENT
+	);
+	
 	private final FeatureConfiguration configuration;
+	private final boolean deferred;
 	
 	private EnchantmentFeature enchantmentFeature;
 	
 	public VanillaItemDamageFeature(FeatureConfiguration configuration) {
+		this(configuration, false);
+	}
+	
+	public VanillaItemDamageFeature(FeatureConfiguration configuration, boolean deferred) {
 		this.configuration = configuration;
+		this.deferred = deferred;
 	}
 	
 	@Override
@@ -44,16 +60,7 @@ public class VanillaItemDamageFeature implements ItemDamageFeature {
 		if (amount == 0 || stack.has(ItemComponent.UNBREAKABLE) || stack.get(ItemComponent.MAX_DAMAGE, 0) <= 0)
 			return stack;
 		
-		int preventAmount = 0;
-		int newAmount = amount;
-		
-		for (int i = 0; i < newAmount; i++) {
-			if (enchantmentFeature.shouldUnbreakingPreventDamage(stack)) {
-				preventAmount++;
-			}
-		}
-		
-		newAmount -= preventAmount;
+		int newAmount = amount - enchantmentFeature.getUnbreakingPreventedAmount(stack, amount);
 		if (newAmount <= 0) return stack;
 		
 		int finalNewAmount = newAmount;
@@ -76,14 +83,34 @@ public class VanillaItemDamageFeature implements ItemDamageFeature {
 	
 	@Override
 	public void damageEquipment(LivingEntity entity, EquipmentSlot slot, int amount) {
-		EquipmentDamageEvent equipmentDamageEvent = new EquipmentDamageEvent(entity, slot, amount);
-		EventDispatcher.callCancellable(equipmentDamageEvent, () ->
-				entity.setEquipment(slot, damage(entity.getEquipment(slot), amount, entity,
-						e -> triggerEquipmentBreak(e, slot))));
+		if (EventDispatcher.getHandle(EquipmentDamageEvent.class).hasListener()) {
+			EquipmentDamageEvent equipmentDamageEvent = new EquipmentDamageEvent(entity, slot, amount);
+			EventDispatcher.call(equipmentDamageEvent);
+			if (equipmentDamageEvent.isCancelled()) return;
+		}
+		
+		// Hand items are often replaced within the same tick (e.g. by the bow and crossbow features),
+		// so only armor is deferred
+		if (deferred && slot.isArmor() && DurabilityBuffer.defer(this, entity, slot, amount)) return;
+		
+		applyDamage(entity, slot, amount);
+	}
+	
+	/**
+	 * Damages the item in the slot right away, triggering the break animation if it breaks.
+	 */
+	void applyDamage(LivingEntity entity, EquipmentSlot slot, int amount) {
+		entity.setEquipment(slot, damage(entity.getEquipment(slot), amount, entity,
+				e -> triggerEquipmentBreak(e, slot)));
 	}
 	
 	@Override
 	public void damageArmor(LivingEntity entity, DamageType damageType, float damage, EquipmentSlot... slots) {
+		damageArmor(entity, DamageProfile.of(damageType), damage, slots);
+	}
+	
+	@Override
+	public void damageArmor(LivingEntity entity, DamageProfile profile, float damage, EquipmentSlot... slots) {
 		if (damage <= 0) return;
 		
 		damage /= 4;
@@ -92,10 +119,9 @@ public class VanillaItemDamageFeature implements ItemDamageFeature {
 		}
 		
 		for (EquipmentSlot slot : slots) {
-			ItemStack stack = entity.getEquipment(slot);
-			DamageTypeInfo info = DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(damageType));
-			if (!(info.fire() && stack.material().namespace().value().toLowerCase().contains("netherite"))
-					&& ArmorMaterial.fromMaterial(stack.material()) != null) {
+			CombatMaterialProfile materialProfile = CombatMaterialProfile.of(entity.getEquipment(slot).material());
+			if (!(profile.info().fire() && materialProfile.fireResistant())
+					&& materialProfile.armorMaterial() != null) {
 				damageEquipment(entity, slot, (int) damage);
 			}
 		}
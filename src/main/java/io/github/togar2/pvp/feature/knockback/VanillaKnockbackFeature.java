@@ -78,25 +78,30 @@ public class VanillaKnockbackFeature implements KnockbackFeature, CombatFeature
 	protected boolean applyModernKnockback(LivingEntity target, Entity attacker, @Nullable Entity source,
 	                                       EntityKnockbackEvent.KnockbackType type, float strength,
 	                                       double dx, double dz) {
-		EntityKnockbackEvent knockbackEvent = new EntityKnockbackEvent(
-				target, source == null ? attacker : source,
-				type, strength
-		);
-		EventDispatcher.call(knockbackEvent);
-		if (knockbackEvent.isCancelled()) return false;
+		if (EventDispatcher.getHandle(EntityKnockbackEvent.class).hasListener()) {
+			EntityKnockbackEvent knockbackEvent = new EntityKnockbackEvent(
+					target, source == null ? attacker : source,
+					type, strength
+			);
+			EventDispatcher.call(knockbackEvent);
+			if (knockbackEvent.isCancelled()) return false;
+			strength = knockbackEvent.getStrength();
+		}
 		
-		target.takeKnockback(knockbackEvent.getStrength(), dx, dz);
+		target.takeKnockback(strength, dx, dz);
 		return true;
 	}
 	
 	protected boolean applyLegacyDamageKnockback(LivingEntity target, Entity attacker, @Nullable Entity source,
 	                                             boolean extra, int knockback, double dx, double dz) {
-		LegacyKnockbackEvent legacyKnockbackEvent = new LegacyKnockbackEvent(
-				target, source == null ? attacker : source, extra);
-		EventDispatcher.call(legacyKnockbackEvent);
-		if (legacyKnockbackEvent.isCancelled()) return false;
-		
-		LegacyKnockbackSettings settings = legacyKnockbackEvent.getSettings();
+		LegacyKnockbackSettings settings = LegacyKnockbackSettings.DEFAULT;
+		if (EventDispatcher.getHandle(LegacyKnockbackEvent.class).hasListener()) {
+			LegacyKnockbackEvent legacyKnockbackEvent = new LegacyKnockbackEvent(
+					target, source == null ? attacker : source, extra);
+			EventDispatcher.call(legacyKnockbackEvent);
+			if (legacyKnockbackEvent.isCancelled()) return false;
+			settings = legacyKnockbackEvent.getSettings();
+		}
 		
 		double kbResistance = target.getAttributeValue(Attribute.GENERIC_KNOCKBACK_RESISTANCE);
 		double horizontal = settings.horizontal() * (1 - kbResistance) * knockback;
@@ -1,13 +1,17 @@
 package io.github.togar2.pvp.feature.potion;
 
 import io.github.togar2.pvp.entity.projectile.ThrownPotion;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.effect.EffectFeature;
 import io.github.togar2.pvp.feature.food.ExhaustionFeature;
 import io.github.togar2.pvp.feature.food.FoodFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
 import io.github.togar2.pvp.potion.effect.CombatPotionEffect;
 import io.github.togar2.pvp.potion.effect.CombatPotionEffects;
 import io.github.togar2.pvp.utils.ViewUtil;
@@ -16,11 +20,8 @@ import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.item.ItemUsageCompleteEvent;
-import net.minestom.server.event.player.PlayerTickEvent;
 import net.minestom.server.event.player.PlayerUseItemEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
@@ -34,10 +35,10 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Vanilla implementation of {@link PotionFeature}
  */
-public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
+public class VanillaPotionFeature implements PotionFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaPotionFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.POTION, VanillaPotionFeature::new,
-			FeatureType.EFFECT, FeatureType.EXHAUSTION, FeatureType.FOOD
+			FeatureType.EFFECT, FeatureType.EXHAUSTION, FeatureType.FOOD, FeatureType.PLAYER_TICK
 	);
 	
 	private static final int USE_TICKS = 32;
@@ -48,6 +49,7 @@ public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
 	private EffectFeature effectFeature;
 	private ExhaustionFeature exhaustionFeature;
 	private FoodFeature foodFeature;
+	private PlayerTickFeature playerTickFeature;
 	
 	public VanillaPotionFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -58,17 +60,18 @@ public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
 		this.effectFeature = configuration.get(FeatureType.EFFECT);
 		this.exhaustionFeature = configuration.get(FeatureType.EXHAUSTION);
 		this.foodFeature = configuration.get(FeatureType.FOOD);
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerUseItemEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			if (event.getItemStack().material() == Material.POTION) {
 				event.setItemUseTime(USE_TICKS); // Potion use time is always 32 ticks
 			}
 		});
 		
-		node.addListener(ItemUsageCompleteEvent.class, event -> {
+		collector.addListener(ItemUsageCompleteEvent.class, event -> {
 			if (event.getItemStack().material() != Material.POTION) return;
 			
 			Player player = event.getPlayer();
@@ -86,7 +89,7 @@ public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
 					combatPotionEffect.applyInstantEffect(player, player, player, potion.amplifier(),
 							1.0, exhaustionFeature, foodFeature);
 				} else {
-					player.addEffect(potion);
+					effectFeature.addEffect(player, potion);
 				}
 			}
 			
@@ -100,14 +103,9 @@ public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
 			}
 		});
 		
-		node.addListener(PlayerTickEvent.class, event -> {
-			Player player = event.getPlayer();
-			if (player.isSilent() || !player.isEating()) return;
-			
-			tickDrinkingSounds(player);
-		});
+		playerTickFeature.register(collector, this);
 		
-		node.addListener(PlayerUseItemEvent.class, event -> {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			if (event.getItemStack().material() != Material.SPLASH_POTION) return;
 			
 			ThreadLocalRandom random = ThreadLocalRandom.current();
@@ -119,7 +117,7 @@ public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
 			throwPotion(event.getPlayer(), event.getItemStack(), event.getHand());
 		});
 		
-		node.addListener(PlayerUseItemEvent.class, event -> {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			if (event.getItemStack().material() != Material.LINGERING_POTION) return;
 			
 			ThreadLocalRandom random = ThreadLocalRandom.current();
@@ -150,8 +148,22 @@ public class VanillaPotionFeature implements PotionFeature, RegistrableFeature {
 		}
 	}
 	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		if (!context.isEating() || context.getPlayer().isSilent()) return;
+		
+		tickDrinkingSounds(context.getPlayer(), context.getActiveItem());
+	}
+	
+	/**
+	 * @deprecated use {@link #tickDrinkingSounds(Player, ItemStack)} instead
+	 */
+	@Deprecated
 	protected void tickDrinkingSounds(Player player) {
-		ItemStack stack = player.getItemInHand(Objects.requireNonNull(player.getItemUseHand()));
+		tickDrinkingSounds(player, player.getItemInHand(Objects.requireNonNull(player.getItemUseHand())));
+	}
+	
+	protected void tickDrinkingSounds(Player player, ItemStack stack) {
 		if (stack.material() != Material.POTION) return;
 		
 		long usedTicks = player.getCurrentItemUseTime();
@@ -3,8 +3,9 @@ package io.github.togar2.pvp.feature.projectile;
 import io.github.togar2.pvp.entity.projectile.AbstractArrow;
 import io.github.togar2.pvp.entity.projectile.Arrow;
 import io.github.togar2.pvp.entity.projectile.SpectralArrow;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.effect.EffectFeature;
@@ -19,10 +20,8 @@ import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.item.ItemUpdateStateEvent;
 import net.minestom.server.event.player.PlayerItemAnimationEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
@@ -37,7 +36,7 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Vanilla implementation of {@link BowFeature}
  */
-public class VanillaBowFeature implements BowFeature, RegistrableFeature {
+public class VanillaBowFeature implements BowFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaBowFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.BOW, VanillaBowFeature::new,
 			FeatureType.ITEM_DAMAGE, FeatureType.EFFECT, FeatureType.ENCHANTMENT, FeatureType.PROJECTILE_ITEM
@@ -63,8 +62,8 @@ public class VanillaBowFeature implements BowFeature, RegistrableFeature {
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerItemAnimationEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerItemAnimationEvent.class, event -> {
 			if (event.getItemAnimationType() == PlayerItemAnimationEvent.ItemAnimationType.BOW) {
 				if (event.getPlayer().getGameMode() != GameMode.CREATIVE
 						&& projectileItemFeature.getBowProjectile(event.getPlayer()) == null) {
@@ -73,7 +72,7 @@ public class VanillaBowFeature implements BowFeature, RegistrableFeature {
 			}
 		});
 		
-		node.addListener(ItemUpdateStateEvent.class, event -> {
+		collector.addListener(ItemUpdateStateEvent.class, event -> {
 			Player player = event.getPlayer();
 			ItemStack stack = event.getItemStack();
 			if (stack.material() != Material.BOW) return;
@@ -3,13 +3,17 @@ package io.github.togar2.pvp.feature.projectile;
 import io.github.togar2.pvp.entity.projectile.AbstractArrow;
 import io.github.togar2.pvp.entity.projectile.Arrow;
 import io.github.togar2.pvp.entity.projectile.SpectralArrow;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.effect.EffectFeature;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.feature.item.ItemDamageFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
 import io.github.togar2.pvp.utils.ViewUtil;
 import net.kyori.adventure.sound.Sound;
 import net.minestom.server.coordinate.Pos;
@@ -17,12 +21,8 @@ import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
-import net.minestom.server.entity.metadata.LivingEntityMeta;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.item.ItemUpdateStateEvent;
-import net.minestom.server.event.player.PlayerTickEvent;
 import net.minestom.server.event.player.PlayerUseItemEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
@@ -38,10 +38,10 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Vanilla implementation of {@link CrossbowFeature}
  */
-public class VanillaCrossbowFeature implements CrossbowFeature, RegistrableFeature {
+public class VanillaCrossbowFeature implements CrossbowFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaCrossbowFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.CROSSBOW, VanillaCrossbowFeature::new,
-			FeatureType.ITEM_DAMAGE, FeatureType.EFFECT, FeatureType.ENCHANTMENT, FeatureType.PROJECTILE_ITEM
+			FeatureType.ITEM_DAMAGE, FeatureType.EFFECT, FeatureType.ENCHANTMENT, FeatureType.PROJECTILE_ITEM, FeatureType.PLAYER_TICK
 	);
 	
 	private static final Tag<Boolean> START_SOUND_PLAYED = Tag.Transient("StartSoundPlayed");
@@ -53,6 +53,7 @@ public class VanillaCrossbowFeature implements CrossbowFeature, RegistrableFeatu
 	private EffectFeature effectFeature;
 	private EnchantmentFeature enchantmentFeature;
 	private ProjectileItemFeature projectileItemFeature;
+	private PlayerTickFeature playerTickFeature;
 	
 	public VanillaCrossbowFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -64,11 +65,12 @@ public class VanillaCrossbowFeature implements CrossbowFeature, RegistrableFeatu
 		this.effectFeature = configuration.get(FeatureType.EFFECT);
 		this.enchantmentFeature = configuration.get(FeatureType.ENCHANTMENT);
 		this.projectileItemFeature = configuration.get(FeatureType.PROJECTILE_ITEM);
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerUseItemEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			ItemStack stack = event.getItemStack();
 			if (stack.material() != Material.CROSSBOW) return;
 			Player player = event.getPlayer();
@@ -89,51 +91,9 @@ public class VanillaCrossbowFeature implements CrossbowFeature, RegistrableFeatu
 			}
 		});
 		
-		node.addListener(PlayerTickEvent.class, event -> {
-			Player player = event.getPlayer();
-			
-			// If not charging crossbow, return
-			LivingEntityMeta meta = (LivingEntityMeta) player.getEntityMeta();
-			if (!meta.isHandActive() || player.getItemInHand(meta.getActiveHand()).material() != Material.CROSSBOW)
-				return;
-			
-			Player.Hand hand = player.getPlayerMeta().getActiveHand();
-			ItemStack stack = player.getItemInHand(hand);
-			
-			int quickCharge = stack.get(ItemComponent.ENCHANTMENTS).level(Enchantment.QUICK_CHARGE);
-			
-			long useTicks = player.getCurrentItemUseTime();
-			double progress = (getCrossbowUseDuration(stack) - useTicks) / (double) getCrossbowChargeDuration(stack);
-			
-			Boolean startSoundPlayed = player.getTag(START_SOUND_PLAYED);
-			Boolean midLoadSoundPlayed = player.getTag(MID_LOAD_SOUND_PLAYED);
-			if (startSoundPlayed == null) startSoundPlayed = false;
-			if (midLoadSoundPlayed == null) midLoadSoundPlayed = false;
-			
-			if (progress >= 0.2 && !startSoundPlayed) {
-				SoundEvent startSound = getCrossbowStartSound(quickCharge);
-				ViewUtil.viewersAndSelf(player).playSound(Sound.sound(
-						startSound, Sound.Source.PLAYER,
-						0.5f, 1.0f
-				), player);
-				
-				player.setTag(START_SOUND_PLAYED, true);
-				player.setItemInHand(hand, stack);
-			}
-			
-			SoundEvent midLoadSound = quickCharge == 0 ? SoundEvent.ITEM_CROSSBOW_LOADING_MIDDLE : null;
-			if (progress >= 0.5F && midLoadSound != null && !midLoadSoundPlayed) {
-				ViewUtil.viewersAndSelf(player).playSound(Sound.sound(
-						midLoadSound, Sound.Source.PLAYER,
-						0.5f, 1.0f
-				), player);
-				
-				player.setTag(MID_LOAD_SOUND_PLAYED, true);
-				player.setItemInHand(hand, stack);
-			}
-		});
+		playerTickFeature.register(collector, this);
 		
-		node.addListener(ItemUpdateStateEvent.class, event -> {
+		collector.addListener(ItemUpdateStateEvent.class, event -> {
 			Player player = event.getPlayer();
 			ItemStack stack = event.getItemStack();
 			if (stack.material() != Material.CROSSBOW) return;
@@ -160,6 +120,48 @@ public class VanillaCrossbowFeature implements CrossbowFeature, RegistrableFeatu
 		});
 	}
 	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		Player player = context.getPlayer();
+		
+		// If not charging crossbow, return
+		Player.Hand hand = context.getActiveHand();
+		ItemStack stack = context.getActiveItem();
+		if (hand == null || stack.material() != Material.CROSSBOW) return;
+		
+		int quickCharge = stack.get(ItemComponent.ENCHANTMENTS).level(Enchantment.QUICK_CHARGE);
+		
+		long useTicks = player.getCurrentItemUseTime();
+		double progress = (getCrossbowUseDuration(stack) - useTicks) / (double) getCrossbowChargeDuration(stack);
+		
+		Boolean startSoundPlayed = player.getTag(START_SOUND_PLAYED);
+		Boolean midLoadSoundPlayed = player.getTag(MID_LOAD_SOUND_PLAYED);
+		if (startSoundPlayed == null) startSoundPlayed = false;
+		if (midLoadSoundPlayed == null) midLoadSoundPlayed = false;
+		
+		if (progress >= 0.2 && !startSoundPlayed) {
+			SoundEvent startSound = getCrossbowStartSound(quickCharge);
+			ViewUtil.viewersAndSelf(player).playSound(Sound.sound(
+					startSound, Sound.Source.PLAYER,
+					0.5f, 1.0f
+			), player);
+			
+			player.setTag(START_SOUND_PLAYED, true);
+			player.setItemInHand(hand, stack);
+		}
+		
+		SoundEvent midLoadSound = quickCharge == 0 ? SoundEvent.ITEM_CROSSBOW_LOADING_MIDDLE : null;
+		if (progress >= 0.5F && midLoadSound != null && !midLoadSoundPlayed) {
+			ViewUtil.viewersAndSelf(player).playSound(Sound.sound(
+					midLoadSound, Sound.Source.PLAYER,
+					0.5f, 1.0f
+			), player);
+			
+			player.setTag(MID_LOAD_SOUND_PLAYED, true);
+			player.setItemInHand(hand, stack);
+		}
+	}
+	
 	protected AbstractArrow createArrow(ItemStack stack, @Nullable Entity shooter) {
 		if (stack.material() == Material.SPECTRAL_ARROW) {
 			return new SpectralArrow(shooter, enchantmentFeature);
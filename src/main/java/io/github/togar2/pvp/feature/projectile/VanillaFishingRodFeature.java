@@ -2,8 +2,9 @@ package io.github.togar2.pvp.feature.projectile;
 
 import io.github.togar2.pvp.entity.projectile.FishingBobber;
 import io.github.togar2.pvp.events.FishingBobberRetrieveEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.item.ItemDamageFeature;
@@ -17,10 +18,8 @@ import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityShootEvent;
 import net.minestom.server.event.player.PlayerUseItemEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.Material;
 import net.minestom.server.sound.SoundEvent;
 import net.minestom.server.tag.Tag;
@@ -32,7 +31,7 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Vanilla implementation of {@link FishingRodFeature}
  */
-public class VanillaFishingRodFeature implements FishingRodFeature, RegistrableFeature {
+public class VanillaFishingRodFeature implements FishingRodFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaFishingRodFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.FISHING_ROD, VanillaFishingRodFeature::new,
 			FeatureType.ITEM_DAMAGE, FeatureType.VERSION
@@ -56,8 +55,8 @@ public class VanillaFishingRodFeature implements FishingRodFeature, RegistrableF
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerUseItemEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			if (event.getItemStack().material() != Material.FISHING_ROD) return;
 			
 			ThreadLocalRandom random = ThreadLocalRandom.current();
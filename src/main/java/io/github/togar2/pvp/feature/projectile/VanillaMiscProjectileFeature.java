@@ -1,8 +1,9 @@
 package io.github.togar2.pvp.feature.projectile;
 
 import io.github.togar2.pvp.entity.projectile.*;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.cooldown.ItemCooldownFeature;
@@ -13,9 +14,7 @@ import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerUseItemEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
 import net.minestom.server.sound.SoundEvent;
@@ -26,7 +25,7 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Vanilla implementation of {@link MiscProjectileFeature}
  */
-public class VanillaMiscProjectileFeature implements MiscProjectileFeature, RegistrableFeature {
+public class VanillaMiscProjectileFeature implements MiscProjectileFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaMiscProjectileFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.MISC_PROJECTILE, VanillaMiscProjectileFeature::new,
 			FeatureType.ITEM_COOLDOWN, FeatureType.FALL
@@ -48,8 +47,8 @@ public class VanillaMiscProjectileFeature implements MiscProjectileFeature, Regi
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerUseItemEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerUseItemEvent.class, event -> {
 			if (event.getItemStack().material() != Material.SNOWBALL
 					&& event.getItemStack().material() != Material.EGG
 					&& event.getItemStack().material() != Material.ENDER_PEARL)
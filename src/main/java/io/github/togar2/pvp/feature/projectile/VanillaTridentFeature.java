@@ -1,8 +1,10 @@
 package io.github.togar2.pvp.feature.projectile;
 
+import io.github.togar2.pvp.entity.CombatState;
 import io.github.togar2.pvp.entity.projectile.ThrownTrident;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
@@ -19,18 +21,15 @@ import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityAttackEvent;
 import net.minestom.server.event.item.ItemUpdateStateEvent;
 import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.instance.EntityTracker;
 import net.minestom.server.item.ItemComponent;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
 import net.minestom.server.item.enchant.Enchantment;
 import net.minestom.server.sound.SoundEvent;
-import net.minestom.server.tag.Tag;
 
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,7 +37,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * Vanilla implementation of {@link TridentFeature}
  */
-public class VanillaTridentFeature implements TridentFeature, RegistrableFeature {
+public class VanillaTridentFeature implements TridentFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaTridentFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.TRIDENT, VanillaTridentFeature::new,
 			FeatureType.ITEM_DAMAGE, FeatureType.ENCHANTMENT
@@ -49,7 +48,7 @@ public class VanillaTridentFeature implements TridentFeature, RegistrableFeature
 	private ItemDamageFeature itemDamageFeature;
 	private EnchantmentFeature enchantmentFeature;
 	
-	public static final Tag<Long> RIPTIDE_START = Tag.Long("riptideStart");
+	public static final CombatState.LongSlot RIPTIDE_START = CombatState.longSlot("riptideStart", 0);
 	
 	public VanillaTridentFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -62,8 +61,8 @@ public class VanillaTridentFeature implements TridentFeature, RegistrableFeature
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(ItemUpdateStateEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(ItemUpdateStateEvent.class, event -> {
 			Player player = event.getPlayer();
 			ItemStack stack = event.getItemStack();
 			if (stack.material() != Material.TRIDENT) return;
@@ -99,10 +98,10 @@ public class VanillaTridentFeature implements TridentFeature, RegistrableFeature
 			}
 		});
 		
-		node.addListener(PlayerTickEvent.class, event -> {
+		collector.addListener(PlayerTickEvent.class, event -> {
 			if (event.getPlayer().getPlayerMeta().isInRiptideSpinAttack()) {
 				Player player = event.getPlayer();
-				long ticks = player.getAliveTicks() - player.getTag(RIPTIDE_START);
+				long ticks = player.getAliveTicks() - RIPTIDE_START.get(player);
 				AtomicBoolean stopRiptide = new AtomicBoolean(ticks >= 20);
 				
 				assert player.getInstance() != null;
@@ -137,7 +136,7 @@ public class VanillaTridentFeature implements TridentFeature, RegistrableFeature
 		double length = Math.sqrt(h * h + k * k + l * l);
 		double n = 3.0 * ((1.0 + level) / 4.0);
 		
-		player.setTag(RIPTIDE_START, player.getAliveTicks());
+		RIPTIDE_START.set(player, player.getAliveTicks());
 		player.setVelocity(player.getVelocity().add(new Vec(
 				h * (n / length),
 				k * (n / length),
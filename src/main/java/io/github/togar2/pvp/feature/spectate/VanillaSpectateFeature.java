@@ -1,24 +1,23 @@
 package io.github.togar2.pvp.feature.spectate;
 
 import io.github.togar2.pvp.events.PlayerSpectateEvent;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.EventDispatcher;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityAttackEvent;
 import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.tag.Tag;
 
 /**
  * Vanilla implementation of {@link SpectateFeature}
  */
-public class VanillaSpectateFeature implements SpectateFeature, RegistrableFeature {
+public class VanillaSpectateFeature implements SpectateFeature, CompilableFeature {
 	public static final DefinedFeature<VanillaSpectateFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.SPECTATE, configuration -> new VanillaSpectateFeature()
 	);
@@ -33,13 +32,13 @@ public class VanillaSpectateFeature implements SpectateFeature, RegistrableFeatu
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(EntityAttackEvent.class, event -> {
+	public void init(ListenerCollector collector) {
+		collector.addListener(EntityAttackEvent.class, event -> {
 			if (event.getEntity() instanceof Player player && player.getGameMode() == GameMode.SPECTATOR)
 				makeSpectate(player, event.getTarget());
 		});
 		
-		node.addListener(PlayerTickEvent.class, event -> spectateTick(event.getPlayer()));
+		collector.addListener(PlayerTickEvent.class, event -> spectateTick(event.getPlayer()));
 	}
 	
 	protected void spectateTick(Player player) {
@@ -1,6 +1,7 @@
 package io.github.togar2.pvp.feature.state;
 
 import io.github.togar2.pvp.feature.CombatFeature;
+import io.github.togar2.pvp.player.MoveEnvironment;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.instance.block.Block;
 import org.jetbrains.annotations.Nullable;
@@ -23,5 +24,15 @@ public interface PlayerStateFeature extends CombatFeature {
 	
 	boolean isClimbing(LivingEntity entity);
 	
+	/**
+	 * Checks whether the player of a move event is climbing, reusing the values of the move environment.
+	 *
+	 * @param environment the environment of the move event
+	 * @return whether the player is climbing
+	 */
+	default boolean isClimbing(MoveEnvironment environment) {
+		return isClimbing(environment.getPlayer());
+	}
+	
 	@Nullable Block getLastClimbedBlock(LivingEntity entity);
 }
@@ -1,16 +1,18 @@
 package io.github.togar2.pvp.feature.state;
 
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
-import net.minestom.server.MinecraftServer;
+import io.github.togar2.pvp.feature.config.FeatureConfiguration;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
+import io.github.togar2.pvp.player.MoveEnvironment;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerMoveEvent;
-import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.instance.block.Block;
 import net.minestom.server.tag.Tag;
 import org.jetbrains.annotations.Nullable;
@@ -20,41 +22,68 @@ import java.util.Objects;
 /**
  * Vanilla implementation of {@link PlayerStateFeature}
  */
-public class VanillaPlayerStateFeature implements PlayerStateFeature, RegistrableFeature {
+public class VanillaPlayerStateFeature implements PlayerStateFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaPlayerStateFeature> DEFINED = new DefinedFeature<>(
-			FeatureType.PLAYER_STATE, configuration -> new VanillaPlayerStateFeature()
+			FeatureType.PLAYER_STATE, VanillaPlayerStateFeature::new,
+			FeatureType.PLAYER_TICK
 	);
 	
 	public static final Tag<Block> LAST_CLIMBED_BLOCK = Tag.Transient("lastClimbedBlock");
 	
+	private final FeatureConfiguration configuration;
+	
+	private PlayerTickFeature playerTickFeature;
+	
+	/**
+	 * Creates the feature without dependencies, it uses {@link PlayerTickFeature#DEFAULT}.
+	 */
+	public VanillaPlayerStateFeature() {
+		this(new FeatureConfiguration());
+	}
+	
+	public VanillaPlayerStateFeature(FeatureConfiguration configuration) {
+		this.configuration = configuration;
+	}
+	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerTickEvent.class, event -> {
-			Player player = event.getPlayer();
-			if (player.isOnGround() && player.hasTag(LAST_CLIMBED_BLOCK)) {
-				// Make sure fall damage message still has the correct climbed block
-				// Due to multithreading this can be triggered before the death message is computed
-				player.scheduleNextTick(p -> p.removeTag(LAST_CLIMBED_BLOCK));
-			}
-		});
+	public void initDependencies() {
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
+	}
+	
+	@Override
+	public void init(ListenerCollector collector) {
+		playerTickFeature.register(collector, this);
 		
-		node.addListener(PlayerMoveEvent.class, event -> {
-			Player player = event.getPlayer();
-			if (isClimbing(player)) {
-				player.setTag(LAST_CLIMBED_BLOCK, player.getInstance().getBlock(player.getPosition()));
+		collector.addListener(PlayerMoveEvent.class, event -> {
+			MoveEnvironment environment = MoveEnvironment.of(event);
+			if (isClimbing(environment)) {
+				event.getPlayer().setTag(LAST_CLIMBED_BLOCK, environment.getFeetBlock());
 			}
 		});
 	}
 	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		Player player = context.getPlayer();
+		if (player.isOnGround() && player.hasTag(LAST_CLIMBED_BLOCK)) {
+			// Make sure fall damage message still has the correct climbed block
+			// Due to multithreading this can be triggered before the death message is computed
+			player.scheduleNextTick(p -> p.removeTag(LAST_CLIMBED_BLOCK));
+		}
+	}
+	
 	@Override
 	public boolean isClimbing(LivingEntity entity) {
 		if (entity instanceof Player player && player.getGameMode() == GameMode.SPECTATOR) return false;
 		
-		var tag = MinecraftServer.getTagManager().getTag(net.minestom.server.gamedata.tags.Tag.BasicType.BLOCKS, "minecraft:climbable");
-		assert tag != null;
-		
 		Block block = Objects.requireNonNull(entity.getInstance()).getBlock(entity.getPosition());
-		return tag.contains(block.namespace());
+		return MoveEnvironment.isClimbable(block);
+	}
+	
+	@Override
+	public boolean isClimbing(MoveEnvironment environment) {
+		if (environment.getPlayer().getGameMode() == GameMode.SPECTATOR) return false;
+		return environment.isClimbable();
 	}
 	
 	@Override
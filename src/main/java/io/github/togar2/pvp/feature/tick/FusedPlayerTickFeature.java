@@ -0,0 +1,63 @@
+package io.github.togar2.pvp.feature.tick;
+
+import io.github.togar2.pvp.feature.FeatureType;
+import io.github.togar2.pvp.feature.ListenerCollector;
+import io.github.togar2.pvp.feature.config.DefinedFeature;
+import net.minestom.server.event.player.PlayerTickEvent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Implementation of {@link PlayerTickFeature} which calls all {@link PlayerTickHook}s
+ * registered to the same {@link ListenerCollector} from one {@link PlayerTickEvent} listener.
+ * <p>
+ * The listener is added to the collector of the first hook, so the hooks only run where the features are registered.
+ * All features of a compiled feature set (see {@link io.github.togar2.pvp.feature.CombatFeatureSet#createCompiledNode()})
+ * share one collector, and are therefore called from one listener.
+ * With a normal feature set, every feature has its own node, so every hook keeps its own listener.
+ * <p>
+ * Hooks are called in order of registration, which for a compiled feature set is the order of the feature priorities.
+ */
+public class FusedPlayerTickFeature implements PlayerTickFeature {
+	public static final DefinedFeature<FusedPlayerTickFeature> DEFINED = new DefinedFeature<>(
+			FeatureType.PLAYER_TICK, configuration -> new FusedPlayerTickFeature()
+	);
+	
+	private final Map<ListenerCollector, Hooks> hooks = new WeakHashMap<>();
+	
+	@Override
+	public synchronized void register(ListenerCollector collector, PlayerTickHook hook) {
+		Hooks hooks = this.hooks.get(collector);
+		if (hooks == null) {
+			Hooks created = new Hooks();
+			collector.addListener(PlayerTickEvent.class, event -> created.call(PlayerTickContext.of(event.getPlayer())));
+			this.hooks.put(collector, created);
+			hooks = created;
+		}
+		
+		hooks.add(hook);
+	}
+	
+	private static final class Hooks {
+		private volatile PlayerTickHook[] hooks = new PlayerTickHook[0];
+		
+		private void add(PlayerTickHook hook) {
+			// Features can be initialized more than once, but should only tick once
+			for (PlayerTickHook registered : hooks) {
+				if (registered == hook) return;
+			}
+			
+			PlayerTickHook[] newHooks = Arrays.copyOf(hooks, hooks.length + 1);
+			newHooks[hooks.length] = hook;
+			hooks = newHooks;
+		}
+		
+		private void call(PlayerTickContext context) {
+			for (PlayerTickHook hook : hooks) {
+				hook.onPlayerTick(context);
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package io.github.togar2.pvp.feature.tick;
+
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.feature.provider.DifficultyProvider;
+import net.minestom.server.entity.GameMode;
+import net.minestom.server.entity.Player;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.world.Difficulty;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Values of a player which are used by multiple {@link PlayerTickHook}s, computed once per tick.
+ * <p>
+ * The values are taken at the start of the tick, so they do not reflect changes made by hooks during the same tick.
+ * Values which are more expensive to compute are only computed when they are first requested.
+ * <p>
+ * Use {@link PlayerTickContext#of(Player)} to get the context which is shared by all hooks during the current tick.
+ */
+public final class PlayerTickContext {
+	private static final CombatState.ObjectSlot<PlayerTickContext> CONTEXT = CombatState.objectSlot("playerTickContext");
+	
+	private final Player player;
+	private final long tick;
+	private final GameMode gameMode;
+	private final float health;
+	private final boolean eating;
+	
+	private double maxHealth = Double.NaN;
+	private @Nullable Player.Hand activeHand;
+	private @Nullable ItemStack activeItem;
+	private @Nullable Difficulty difficulty;
+	
+	public PlayerTickContext(@NotNull Player player) {
+		this.player = player;
+		this.tick = player.getAliveTicks();
+		this.gameMode = player.getGameMode();
+		this.health = player.getHealth();
+		this.eating = player.isEating();
+	}
+	
+	/**
+	 * Gets the context of the player for the current tick, creating it if this is the first request during this tick.
+	 *
+	 * @param player the player
+	 * @return the context
+	 */
+	public static @NotNull PlayerTickContext of(@NotNull Player player) {
+		CombatState state = CombatState.of(player);
+		PlayerTickContext context = CONTEXT.get(state);
+		if (context == null || context.tick != player.getAliveTicks()) {
+			context = new PlayerTickContext(player);
+			CONTEXT.set(state, context);
+		}
+		return context;
+	}
+	
+	public @NotNull Player getPlayer() {
+		return player;
+	}
+	
+	public @NotNull GameMode getGameMode() {
+		return gameMode;
+	}
+	
+	public float getHealth() {
+		return health;
+	}
+	
+	public double getMaxHealth() {
+		if (Double.isNaN(maxHealth)) maxHealth = player.getAttributeValue(Attribute.GENERIC_MAX_HEALTH);
+		return maxHealth;
+	}
+	
+	/**
+	 * @return whether the player is eating (or drinking)
+	 */
+	public boolean isEating() {
+		return eating;
+	}
+	
+	/**
+	 * @return the hand the player is using an item with, or null if the player is not using an item
+	 */
+	public @Nullable Player.Hand getActiveHand() {
+		if (activeItem == null) computeActiveItem();
+		return activeHand;
+	}
+	
+	/**
+	 * @return the item the player is using, or {@link ItemStack#AIR} if the player is not using an item
+	 */
+	public @NotNull ItemStack getActiveItem() {
+		if (activeItem == null) computeActiveItem();
+		return activeItem;
+	}
+	
+	private void computeActiveItem() {
+		activeHand = player.getItemUseHand();
+		activeItem = activeHand == null ? ItemStack.AIR : player.getItemInHand(activeHand);
+	}
+	
+	/**
+	 * Gets the difficulty for the player. The result of the first call is reused,
+	 * which is fine because all features of a feature set share the same difficulty provider.
+	 *
+	 * @param provider the difficulty provider to use
+	 * @return the difficulty
+	 */
+	public @NotNull Difficulty getDifficulty(@NotNull DifficultyProvider provider) {
+		if (difficulty == null) difficulty = provider.getValue(player);
+		return difficulty;
+	}
+}
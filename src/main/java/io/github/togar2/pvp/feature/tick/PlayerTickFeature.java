@@ -0,0 +1,26 @@
+package io.github.togar2.pvp.feature.tick;
+
+import io.github.togar2.pvp.feature.CombatFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
+import net.minestom.server.event.player.PlayerTickEvent;
+
+/**
+ * Combat feature which decides how the {@link PlayerTickHook}s of other features are called.
+ * <p>
+ * The default ({@link PlayerTickFeature#DEFAULT}) adds a separate {@link PlayerTickEvent} listener for every hook.
+ * {@link FusedPlayerTickFeature} calls all hooks of a collector from a single listener instead.
+ * Both share one {@link PlayerTickContext} per player per tick between all hooks.
+ */
+public interface PlayerTickFeature extends CombatFeature {
+	PlayerTickFeature DEFAULT = (collector, hook) -> collector.addListener(PlayerTickEvent.class,
+			event -> hook.onPlayerTick(PlayerTickContext.of(event.getPlayer())));
+	
+	/**
+	 * Makes sure the given hook will be called every tick for every player within the scope of the collector.
+	 * This should be called by features in {@link io.github.togar2.pvp.feature.CompilableFeature#init(ListenerCollector)}.
+	 *
+	 * @param collector the collector the feature is adding its listeners to
+	 * @param hook the hook to call
+	 */
+	void register(ListenerCollector collector, PlayerTickHook hook);
+}
@@ -0,0 +1,16 @@
+package io.github.togar2.pvp.feature.tick;
+
+/**
+ * A feature which has logic that should run every tick for every player.
+ * <p>
+ * Features implementing this should register themselves using {@link PlayerTickFeature#register(io.github.togar2.pvp.feature.ListenerCollector, PlayerTickHook)}
+ * instead of listening for {@link net.minestom.server.event.player.PlayerTickEvent} directly.
+ */
+public interface PlayerTickHook {
+	/**
+	 * Called every tick for every player.
+	 *
+	 * @param context the tick context of the player
+	 */
+	void onPlayerTick(PlayerTickContext context);
+}
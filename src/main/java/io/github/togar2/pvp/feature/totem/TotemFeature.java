@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.feature.totem;
 
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.feature.CombatFeature;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.damage.DamageType;
@@ -18,4 +19,12 @@ public interface TotemFeature extends CombatFeature {
 	 * @return whether the entity is protected by a totem
 	 */
 	boolean tryProtect(LivingEntity entity, DamageType type);
+	
+	/**
+	 * Same as {@link #tryProtect(LivingEntity, DamageType)},
+	 * but with the profile of the damage type which has already been resolved.
+	 */
+	default boolean tryProtect(LivingEntity entity, DamageProfile profile) {
+		return tryProtect(entity, profile.type());
+	}
 }
@@ -1,12 +1,11 @@
 package io.github.togar2.pvp.feature.totem;
 
-import io.github.togar2.pvp.damage.DamageTypeInfo;
+import io.github.togar2.pvp.damage.DamageProfile;
 import io.github.togar2.pvp.events.TotemUseEvent;
 import io.github.togar2.pvp.feature.CombatFeature;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.utils.PotionFlags;
-import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.DamageType;
@@ -26,7 +25,12 @@ public class VanillaTotemFeature implements TotemFeature, CombatFeature {
 	
 	@Override
 	public boolean tryProtect(LivingEntity entity, DamageType type) {
-		if (DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(type)).outOfWorld()) return false;
+		return tryProtect(entity, DamageProfile.of(type));
+	}
+	
+	@Override
+	public boolean tryProtect(LivingEntity entity, DamageProfile profile) {
+		if (profile.info().outOfWorld()) return false;
 		
 		boolean hasTotem = false;
 		for (Player.Hand hand : Player.Hand.values()) {
@@ -1,32 +1,33 @@
 package io.github.togar2.pvp.feature.tracking;
 
 import io.github.togar2.pvp.damage.combat.CombatManager;
+import io.github.togar2.pvp.feature.CompilableFeature;
 import io.github.togar2.pvp.feature.FeatureType;
-import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.ListenerCollector;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.fall.FallFeature;
 import io.github.togar2.pvp.feature.state.PlayerStateFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickContext;
+import io.github.togar2.pvp.feature.tick.PlayerTickFeature;
+import io.github.togar2.pvp.feature.tick.PlayerTickHook;
 import net.kyori.adventure.text.Component;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.Damage;
-import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerDeathEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
-import net.minestom.server.event.player.PlayerTickEvent;
-import net.minestom.server.event.trait.EntityInstanceEvent;
 import net.minestom.server.tag.Tag;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * Vanilla implementation of {@link TrackingFeature}
  */
-public class VanillaDeathMessageFeature implements TrackingFeature, RegistrableFeature {
+public class VanillaDeathMessageFeature implements TrackingFeature, CompilableFeature, PlayerTickHook {
 	public static final DefinedFeature<VanillaDeathMessageFeature> DEFINED = new DefinedFeature<>(
 			FeatureType.TRACKING, VanillaDeathMessageFeature::new,
 			VanillaDeathMessageFeature::initPlayer,
-			FeatureType.FALL, FeatureType.PLAYER_STATE
+			FeatureType.FALL, FeatureType.PLAYER_STATE, FeatureType.PLAYER_TICK
 	);
 	
 	public static final Tag<CombatManager> COMBAT_MANAGER = Tag.Transient("combatManager");
@@ -35,6 +36,7 @@ public class VanillaDeathMessageFeature implements TrackingFeature, RegistrableF
 	
 	private FallFeature fallFeature;
 	private PlayerStateFeature playerStateFeature;
+	private PlayerTickFeature playerTickFeature;
 	
 	public VanillaDeathMessageFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
@@ -44,6 +46,7 @@ public class VanillaDeathMessageFeature implements TrackingFeature, RegistrableF
 	public void initDependencies() {
 		this.fallFeature = configuration.get(FeatureType.FALL);
 		this.playerStateFeature = configuration.get(FeatureType.PLAYER_STATE);
+		this.playerTickFeature = configuration.get(FeatureType.PLAYER_TICK);
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
@@ -51,18 +54,23 @@ public class VanillaDeathMessageFeature implements TrackingFeature, RegistrableF
 	}
 	
 	@Override
-	public void init(EventNode<EntityInstanceEvent> node) {
-		node.addListener(PlayerSpawnEvent.class, event -> event.getPlayer().getTag(COMBAT_MANAGER).reset());
+	public void init(ListenerCollector collector) {
+		collector.addListener(PlayerSpawnEvent.class, event -> event.getPlayer().getTag(COMBAT_MANAGER).reset());
 		
-		node.addListener(PlayerTickEvent.class, event -> event.getPlayer().getTag(COMBAT_MANAGER).tick());
+		playerTickFeature.register(collector, this);
 		
-		node.addListener(PlayerDeathEvent.class, event -> {
+		collector.addListener(PlayerDeathEvent.class, event -> {
 			Component message = getDeathMessage(event.getPlayer());
 			event.setChatMessage(message);
 			event.setDeathText(message);
 		});
 	}
 	
+	@Override
+	public void onPlayerTick(PlayerTickContext context) {
+		context.getPlayer().getTag(COMBAT_MANAGER).tick();
+	}
+	
 	@Override
 	public void recordDamage(Player player, @Nullable Entity attacker, Damage damage) {
 		int id = attacker == null ? -1 : attacker.getEntityId();
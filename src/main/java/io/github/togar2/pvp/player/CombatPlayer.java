@@ -3,8 +3,6 @@ package io.github.togar2.pvp.player;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
-import net.minestom.server.entity.Player;
-import net.minestom.server.event.Event;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerMoveEvent;
 import net.minestom.server.potion.PotionEffect;
@@ -46,12 +44,18 @@ public interface CombatPlayer {
     
     void sendImmediateVelocityUpdate();
     
-    static void init(EventNode<Event> node) {
+    /**
+     * Adds the listener which makes {@link CombatPlayer}s jump to the given node.
+     * This can be the global event handler, or the event node of an instance to only handle jumps within that instance.
+     *
+     * @param node the node to add the listener to
+     */
+    static void init(EventNode<? super PlayerMoveEvent> node) {
         node.addListener(PlayerMoveEvent.class, event -> {
-            Player player = event.getPlayer();
-            if (player.isOnGround()
-                    && event.getNewPosition().y() > player.getPosition().y()
-                    && player instanceof CombatPlayer combatPlayer) {
+            if (!(event.getPlayer() instanceof CombatPlayer combatPlayer)) return;
+            
+            MoveEnvironment environment = MoveEnvironment.of(event);
+            if (environment.wasOnGround() && environment.getDeltaY() > 0) {
                 combatPlayer.jump();
             }
         });
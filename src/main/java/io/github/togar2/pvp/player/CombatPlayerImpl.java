@@ -1,5 +1,7 @@
 package io.github.togar2.pvp.player;
 
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.feature.effect.ActiveEffects;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.collision.Aerodynamics;
 import net.minestom.server.collision.PhysicsResult;
@@ -15,12 +17,14 @@ import net.minestom.server.potion.PotionEffect;
 import net.minestom.server.potion.TimedPotion;
 import net.minestom.server.utils.chunk.ChunkUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 import java.util.function.Function;
 
 @SuppressWarnings("UnstableApiUsage")
-public class CombatPlayerImpl extends Player implements CombatPlayer {
+public class CombatPlayerImpl extends Player implements CombatPlayer, CombatState.Holder {
+	private final CombatState combatState = new CombatState();
 	private boolean velocityUpdate = false;
 	private PhysicsResult previousPhysicsResult = null;
 	
@@ -33,6 +37,11 @@ public class CombatPlayerImpl extends Player implements CombatPlayer {
 		getAttribute(Attribute.GENERIC_ATTACK_DAMAGE).setBaseValue(1.0);
 	}
 	
+	@Override
+	public @NotNull CombatState getCombatState() {
+		return combatState;
+	}
+	
 	@Override
 	public void setVelocity(@NotNull Vec velocity) {
 		EntityVelocityEvent entityVelocityEvent = new EntityVelocityEvent(this, velocity);
@@ -62,9 +71,11 @@ public class CombatPlayerImpl extends Player implements CombatPlayer {
 		
 		final double tps = ServerFlag.SERVER_TICKS_PER_SECOND;
 		
+		ActiveEffects effects = ActiveEffects.get(this);
+		
 		// Slow falling effect
 		Aerodynamics aerodynamics = getAerodynamics();
-		if (velocity.y() < 0 && hasEffect(PotionEffect.SLOW_FALLING))
+		if (velocity.y() < 0 && hasActiveEffect(effects, PotionEffect.SLOW_FALLING))
 			aerodynamics = aerodynamics.withGravity(0.01);
 		
 		PhysicsResult physicsResult = PhysicsUtils.simulateMovement(position, velocity.div(ServerFlag.SERVER_TICKS_PER_SECOND), boundingBox,
@@ -78,11 +89,10 @@ public class CombatPlayerImpl extends Player implements CombatPlayer {
 		onGround = physicsResult.isOnGround();
 		
 		// Levitation effect
-		TimedPotion levitation = getEffect(PotionEffect.LEVITATION);
-		if (levitation != null) {
+		if (hasActiveEffect(effects, PotionEffect.LEVITATION)) {
 			velocity = velocity.withY(
 					((0.05 * (double)
-							(levitation.potion().amplifier() + 1)
+							(getActiveAmplifier(effects, PotionEffect.LEVITATION) + 1)
 							- (velocity.y() / tps)) * 0.2) * tps
 			);
 		}
@@ -93,4 +103,22 @@ public class CombatPlayerImpl extends Player implements CombatPlayer {
 		//}
 		sendImmediateVelocityUpdate();
 	}
+	
+	@Override
+	public double getJumpBoostVelocityModifier() {
+		ActiveEffects effects = ActiveEffects.get(this);
+		return hasActiveEffect(effects, PotionEffect.JUMP_BOOST) ?
+				(0.1 * (getActiveAmplifier(effects, PotionEffect.JUMP_BOOST) + 1)) : 0.0;
+	}
+	
+	// The active effects are only tracked when an effect feature is used, otherwise the effects are looked up
+	private boolean hasActiveEffect(@Nullable ActiveEffects effects, PotionEffect effect) {
+		return effects != null ? effects.has(effect) : hasEffect(effect);
+	}
+	
+	private byte getActiveAmplifier(@Nullable ActiveEffects effects, PotionEffect effect) {
+		if (effects != null) return effects.getAmplifier(effect);
+		TimedPotion potion = getEffect(effect);
+		return potion == null ? 0 : potion.potion().amplifier();
+	}
 }
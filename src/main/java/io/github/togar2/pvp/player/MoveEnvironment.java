@@ -0,0 +1,138 @@
+package io.github.togar2.pvp.player;
+
+import io.github.togar2.pvp.entity.CombatState;
+import io.github.togar2.pvp.utils.CombatClassification;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.player.PlayerMoveEvent;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A snapshot of the environment of a player during a {@link PlayerMoveEvent}, shared by all listeners of the event.
+ * Use {@link MoveEnvironment#of(PlayerMoveEvent)} to get the snapshot of an event.
+ * <p>
+ * Values which require a block lookup are only computed when they are first requested,
+ * and then reused by the other listeners of the same event.
+ * Block values are taken at the position of the player before the move, like the listeners did before.
+ * The snapshot should not be kept after the event has been handled.
+ */
+public final class MoveEnvironment {
+	private static final CombatState.ObjectSlot<MoveEnvironment> CURRENT = CombatState.objectSlot("moveEnvironment");
+	
+	private final PlayerMoveEvent event;
+	private final Player player;
+	private final Pos previousPosition;
+	private final boolean wasOnGround;
+	
+	private Block feetBlock;
+	private byte climbable = -1;
+	
+	private MoveEnvironment(PlayerMoveEvent event) {
+		this.event = event;
+		this.player = event.getPlayer();
+		this.previousPosition = player.getPosition();
+		this.wasOnGround = player.isOnGround();
+	}
+	
+	/**
+	 * Gets the environment snapshot of a move event, creating it for the first listener which requests it.
+	 *
+	 * @param event the move event
+	 * @return the environment snapshot
+	 */
+	public static @NotNull MoveEnvironment of(@NotNull PlayerMoveEvent event) {
+		CombatState state = CombatState.of(event.getPlayer());
+		MoveEnvironment environment = CURRENT.get(state);
+		if (environment == null || environment.event != event) {
+			environment = new MoveEnvironment(event);
+			CURRENT.set(state, environment);
+		}
+		
+		return environment;
+	}
+	
+	public @NotNull Player getPlayer() {
+		return player;
+	}
+	
+	/**
+	 * @return the position of the player before the move
+	 */
+	public @NotNull Pos getPreviousPosition() {
+		return previousPosition;
+	}
+	
+	/**
+	 * @return the position the player is moving to
+	 */
+	public @NotNull Pos getNewPosition() {
+		return event.getNewPosition();
+	}
+	
+	public double getDeltaX() {
+		return event.getNewPosition().x() - previousPosition.x();
+	}
+	
+	public double getDeltaY() {
+		return event.getNewPosition().y() - previousPosition.y();
+	}
+	
+	public double getDeltaZ() {
+		return event.getNewPosition().z() - previousPosition.z();
+	}
+	
+	/**
+	 * @return whether the player was on ground before the move
+	 */
+	public boolean wasOnGround() {
+		return wasOnGround;
+	}
+	
+	/**
+	 * @return whether the player is on ground after the move
+	 */
+	public boolean isOnGround() {
+		return event.isOnGround();
+	}
+	
+	/**
+	 * @return the block at the feet of the player
+	 */
+	public @NotNull Block getFeetBlock() {
+		if (feetBlock == null) {
+			Instance instance = Objects.requireNonNull(player.getInstance());
+			feetBlock = instance.getBlock(previousPosition);
+		}
+		
+		return feetBlock;
+	}
+	
+	/**
+	 * @return whether the block at the feet of the player is climbable (e.g. a ladder)
+	 */
+	public boolean isClimbable() {
+		if (climbable == -1) climbable = (byte) (isClimbable(getFeetBlock()) ? 1 : 0);
+		return climbable == 1;
+	}
+	
+	/**
+	 * @return whether the block at the feet of the player is water
+	 */
+	public boolean isInWater() {
+		return getFeetBlock() == Block.WATER;
+	}
+	
+	/**
+	 * Checks whether a block is in the {@code minecraft:climbable} tag, see {@link CombatClassification#isClimbable(Block)}.
+	 *
+	 * @param block the block to check
+	 * @return whether the block is climbable
+	 */
+	public static boolean isClimbable(@NotNull Block block) {
+		return CombatClassification.isClimbable(block);
+	}
+}
@@ -134,6 +134,20 @@ public class CombatPotionEffect {
 	public boolean canApplyUpdateEffect(int duration, byte amplifier) {
 		if (isInstant()) return duration >= 1;
 		
+		int applyInterval = getUpdateInterval(amplifier);
+		return applyInterval > 0 && duration % applyInterval == 0;
+	}
+	
+	/**
+	 * Gets the interval in ticks between the updates of this effect, as determined by {@link #canApplyUpdateEffect(int, byte)}.
+	 * Subclasses which override {@link #canApplyUpdateEffect(int, byte)} should override this method accordingly.
+	 *
+	 * @param amplifier the amplifier of the effect
+	 * @return the interval, or 0 if the effect never updates
+	 */
+	public int getUpdateInterval(byte amplifier) {
+		if (isInstant()) return 1;
+		
 		int applyInterval;
 		if (potionEffect == PotionEffect.REGENERATION) {
 			applyInterval = 50 >> amplifier;
@@ -142,14 +156,10 @@ public class CombatPotionEffect {
 		} else if (potionEffect == PotionEffect.WITHER) {
 			applyInterval = 40 >> amplifier;
 		} else {
-			return potionEffect == PotionEffect.HUNGER;
+			return potionEffect == PotionEffect.HUNGER ? 1 : 0;
 		}
 		
-		if (applyInterval > 0) {
-			return duration % applyInterval == 0;
-		} else {
-			return true;
-		}
+		return Math.max(applyInterval, 1);
 	}
 	
 	public boolean isInstant() {
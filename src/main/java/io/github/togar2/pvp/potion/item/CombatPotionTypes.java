@@ -10,6 +10,7 @@ import java.util.Map;
 
 public class CombatPotionTypes {
 	private static final Map<PotionType, CombatPotionType> POTION_EFFECTS = new HashMap<>();
+	private static volatile int version = 0;
 	
 	public static CombatPotionType get(PotionType potionType) {
 		return POTION_EFFECTS.get(potionType);
@@ -19,6 +20,14 @@ public class CombatPotionTypes {
 		for (CombatPotionType potionType : potionTypes) {
 			POTION_EFFECTS.put(potionType.getPotionType(), potionType);
 		}
+		version++;
+	}
+	
+	/**
+	 * @return a number which changes every time potion types are registered, so cached lookups can be invalidated
+	 */
+	public static int getVersion() {
+		return version;
 	}
 	
 	public static void registerAll() {
@@ -0,0 +1,151 @@
+package io.github.togar2.pvp.utils;
+
+import io.github.togar2.pvp.enchantment.EntityGroup;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.gamedata.tags.Tag;
+import net.minestom.server.instance.block.Block;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed classifications of blocks and entity types, which are used very often by combat features.
+ * Each classification is stored in an array indexed by block id or entity type id,
+ * so checking it is a single array read instead of a tag lookup or a chain of comparisons.
+ * <p>
+ * The tables are built by {@link io.github.togar2.pvp.MinestomPvP#init()}, or the first time they are used.
+ * If the tags are changed afterward, {@link #refresh()} should be called.
+ */
+public final class CombatClassification {
+	private static final byte CLIMBABLE = 1;
+	private static final byte FENCE_LIKE = 1 << 1;
+	private static final byte LADDER_LIKE = 1 << 2;
+	
+	private static volatile Tables tables;
+	
+	private record Tables(byte[] blockFlags, boolean[] freezeHurtsExtra, EntityGroup[] entityGroups) {}
+	
+	private CombatClassification() {}
+	
+	/**
+	 * Rebuilds all the classification tables from the current tags.
+	 */
+	public static void refresh() {
+		tables = build();
+	}
+	
+	private static Tables tables() {
+		Tables tables = CombatClassification.tables;
+		if (tables == null) {
+			tables = build();
+			CombatClassification.tables = tables;
+		}
+		return tables;
+	}
+	
+	/**
+	 * @param block the block
+	 * @return whether the block is in the {@code minecraft:climbable} tag
+	 */
+	public static boolean isClimbable(@NotNull Block block) {
+		return hasBlockFlag(block, CLIMBABLE);
+	}
+	
+	/**
+	 * Returns whether an entity standing on top of this block is considered to be standing on the block below,
+	 * which is the case for blocks in the {@code minecraft:fences}, {@code minecraft:walls}
+	 * and {@code minecraft:fence_gates} tags.
+	 *
+	 * @param block the block
+	 * @return whether the block is a fence, wall or fence gate
+	 */
+	public static boolean isFenceLike(@NotNull Block block) {
+		return hasBlockFlag(block, FENCE_LIKE);
+	}
+	
+	/**
+	 * @param block the block
+	 * @return whether the block is a ladder or in the {@code minecraft:trapdoors} tag,
+	 * which is used for death messages of entities falling from it
+	 */
+	public static boolean isLadderLike(@NotNull Block block) {
+		return hasBlockFlag(block, LADDER_LIKE);
+	}
+	
+	/**
+	 * @param entityType the entity type
+	 * @return whether the entity type is in the {@code minecraft:freeze_hurts_extra_types} tag
+	 */
+	public static boolean isFreezeHurtsExtra(@NotNull EntityType entityType) {
+		boolean[] freezeHurtsExtra = tables().freezeHurtsExtra();
+		int id = entityType.id();
+		return id >= 0 && id < freezeHurtsExtra.length && freezeHurtsExtra[id];
+	}
+	
+	/**
+	 * @param entityType the entity type
+	 * @return the entity group of the entity type
+	 */
+	public static @NotNull EntityGroup getEntityGroup(@NotNull EntityType entityType) {
+		EntityGroup[] entityGroups = tables().entityGroups();
+		int id = entityType.id();
+		return id >= 0 && id < entityGroups.length ? entityGroups[id] : EntityGroup.DEFAULT;
+	}
+	
+	private static boolean hasBlockFlag(Block block, byte flag) {
+		byte[] blockFlags = tables().blockFlags();
+		int id = block.id();
+		return id >= 0 && id < blockFlags.length && (blockFlags[id] & flag) != 0;
+	}
+	
+	private static Tables build() {
+		Tag climbable = blockTag("minecraft:climbable");
+		Tag fences = blockTag("minecraft:fences");
+		Tag walls = blockTag("minecraft:walls");
+		Tag fenceGates = blockTag("minecraft:fence_gates");
+		Tag trapdoors = blockTag("minecraft:trapdoors");
+		
+		int maxBlockId = 0;
+		for (Block block : Block.values()) {
+			maxBlockId = Math.max(maxBlockId, block.id());
+		}
+		
+		byte[] blockFlags = new byte[maxBlockId + 1];
+		for (Block block : Block.values()) {
+			byte flags = 0;
+			if (contains(climbable, block)) flags |= CLIMBABLE;
+			if (contains(fences, block) || contains(walls, block) || contains(fenceGates, block)) flags |= FENCE_LIKE;
+			if (block.compare(Block.LADDER) || contains(trapdoors, block)) flags |= LADDER_LIKE;
+			blockFlags[block.id()] = flags;
+		}
+		
+		Tag freezeHurtsExtraTag = MinecraftServer.getTagManager()
+				.getTag(Tag.BasicType.ENTITY_TYPES, "minecraft:freeze_hurts_extra_types");
+		
+		int maxEntityId = 0;
+		for (EntityType entityType : EntityType.values()) {
+			maxEntityId = Math.max(maxEntityId, entityType.id());
+		}
+		
+		boolean[] freezeHurtsExtra = new boolean[maxEntityId + 1];
+		EntityGroup[] entityGroups = new EntityGroup[maxEntityId + 1];
+		Arrays.fill(entityGroups, EntityGroup.DEFAULT);
+		for (EntityType entityType : EntityType.values()) {
+			freezeHurtsExtra[entityType.id()] = freezeHurtsExtraTag != null
+					&& freezeHurtsExtraTag.contains(entityType.namespace());
+			entityGroups[entityType.id()] = EntityGroup.classify(entityType);
+		}
+		
+		return new Tables(blockFlags, freezeHurtsExtra, entityGroups);
+	}
+	
+	private static @Nullable Tag blockTag(String name) {
+		return MinecraftServer.getTagManager().getTag(Tag.BasicType.BLOCKS, name);
+	}
+	
+	private static boolean contains(@Nullable Tag tag, Block block) {
+		return tag != null && tag.contains(block.namespace());
+	}
+}
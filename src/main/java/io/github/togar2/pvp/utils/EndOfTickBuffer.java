@@ -0,0 +1,96 @@
+package io.github.togar2.pvp.utils;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.tag.Tag;
+import net.minestom.server.tag.Taggable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Contents which are collected per instance during a tick, and flushed once at the end of the tick.
+ * <p>
+ * The contents of an instance are created atomically the first time they are used,
+ * so all threads ticking the chunks of the instance add to the same contents.
+ * Before flushing, the contents are replaced by new contents, so anything added during the flush ends up in the next one.
+ *
+ * @param <T> the type of the contents (e.g. a map of entities)
+ */
+public final class EndOfTickBuffer<T> {
+	private final Tag<Holder<T>> tag;
+	private final Supplier<T> factory;
+	private final Consumer<T> flush;
+	
+	/**
+	 * @param name the name of the tag which stores the contents in the instance
+	 * @param factory creates empty contents
+	 * @param flush handles the contents of a tick, called at the end of the tick
+	 */
+	public EndOfTickBuffer(@NotNull String name, @NotNull Supplier<T> factory, @NotNull Consumer<T> flush) {
+		this.tag = Tag.Transient(name);
+		this.factory = factory;
+		this.flush = flush;
+	}
+	
+	/**
+	 * Runs an action on the contents of an instance while holding their lock,
+	 * and schedules the flush of the contents if it has not been scheduled yet.
+	 *
+	 * @param instance the instance
+	 * @param action the action, which can add to the contents
+	 * @return the result of the action
+	 */
+	public <R> R update(@NotNull Instance instance, @NotNull Function<T, R> action) {
+		return getOrCreate(instance, tag, () -> new Holder<>(this)).update(action);
+	}
+	
+	/**
+	 * Gets the value of a tag, atomically setting it to a new value if it is not present yet.
+	 * Threads which race to create the value all get the same value.
+	 *
+	 * @param taggable the holder of the tag (e.g. an instance)
+	 * @param tag the tag
+	 * @param factory creates the value if it is not present
+	 * @return the value of the tag
+	 */
+	public static <V> @NotNull V getOrCreate(@NotNull Taggable taggable, @NotNull Tag<V> tag,
+	                                         @NotNull Supplier<V> factory) {
+		V value = taggable.getTag(tag);
+		if (value != null) return value;
+		return taggable.updateAndGetTag(tag, current -> current != null ? current : factory.get());
+	}
+	
+	private static final class Holder<T> {
+		private final EndOfTickBuffer<T> buffer;
+		private T contents;
+		private boolean scheduled = false;
+		
+		private Holder(EndOfTickBuffer<T> buffer) {
+			this.buffer = buffer;
+			this.contents = buffer.factory.get();
+		}
+		
+		private synchronized <R> R update(Function<T, R> action) {
+			if (!scheduled) {
+				scheduled = true;
+				MinecraftServer.getSchedulerManager().scheduleEndOfTick(this::flush);
+			}
+			
+			return action.apply(contents);
+		}
+		
+		private void flush() {
+			T flushed;
+			synchronized (this) {
+				flushed = contents;
+				contents = buffer.factory.get();
+				scheduled = false;
+			}
+			
+			buffer.flush.accept(flushed);
+		}
+	}
+}
@@ -10,7 +10,8 @@ import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.utils.time.TimeUnit;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
 
 public class EntityUtil {
@@ -36,14 +37,38 @@ public class EntityUtil {
 		}
 	}
 	
+	/**
+	 * Resolves the fields which are accessed by this class, so a missing field is noticed at startup.
+	 *
+	 * @throws IllegalStateException if a field could not be found
+	 */
+	public static void init() {
+		if (LastDamage.FAILURE != null)
+			throw new IllegalStateException("Could not access LivingEntity#lastDamage, is this Minestom version supported?", LastDamage.FAILURE);
+	}
+	
 	public static void setLastDamage(LivingEntity livingEntity, Damage lastDamage) {
-		// Use reflection to set lastDamage field
-		try {
-			Field field = LivingEntity.class.getDeclaredField("lastDamage");
-			field.setAccessible(true);
-			field.set(livingEntity, lastDamage);
-		} catch (NoSuchFieldException | IllegalAccessException e) {
-			e.printStackTrace();
+		LastDamage.HANDLE.set(livingEntity, lastDamage);
+	}
+	
+	// Minestom does not provide a setter for lastDamage, so it is set using a VarHandle which is resolved only once.
+	// A failure is kept instead of thrown, so init() can report it instead of an ExceptionInInitializerError.
+	private static final class LastDamage {
+		private static final VarHandle HANDLE;
+		private static final ReflectiveOperationException FAILURE;
+		
+		static {
+			VarHandle handle = null;
+			ReflectiveOperationException failure = null;
+			try {
+				handle = MethodHandles.privateLookupIn(LivingEntity.class, MethodHandles.lookup())
+						.findVarHandle(LivingEntity.class, "lastDamage", Damage.class);
+			} catch (ReflectiveOperationException e) {
+				failure = e;
+			}
+			
+			HANDLE = handle;
+			FAILURE = failure;
 		}
 	}
 }
@@ -0,0 +1,58 @@
+package io.github.togar2.pvp.feature;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.feature.tracking.VanillaDeathMessageFeature;
+import net.kyori.adventure.text.Component;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventDispatcher;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.player.PlayerDeathEvent;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.player.PlayerConnection;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.UUID;
+
+/**
+ * Checks that a player death still gets its death message when the vanilla feature set is compiled.
+ * {@link PlayerDeathEvent} extends {@link net.minestom.server.event.entity.EntityDeathEvent},
+ * which is also listened to, but whose listeners do not receive player deaths.
+ * <p>
+ * Exits with status 1 if the death message is missing.
+ */
+public class CompiledDeathMessageCheck {
+	public static void main(String[] args) {
+		MinecraftServer.init();
+		MinestomPvP.init();
+		
+		CompiledFeatureSet compiled = CombatFeatures.modernVanilla().compile();
+		EventNode<EntityInstanceEvent> node = compiled.createNode();
+		MinecraftServer.getGlobalEventHandler().addChild(node);
+		
+		Player player = new Player(UUID.randomUUID(), "Steve", new PlayerConnection() {
+			@Override
+			public void sendPacket(SendablePacket packet) {}
+			
+			@Override
+			public SocketAddress getRemoteAddress() {
+				return new InetSocketAddress("localhost", 25565);
+			}
+		});
+		VanillaDeathMessageFeature.initPlayer(player, true);
+		
+		PlayerDeathEvent event = new PlayerDeathEvent(player, null, null);
+		EventDispatcher.call(event);
+		Component message = event.getChatMessage();
+		System.out.println("Death message: " + message);
+		
+		MinecraftServer.getGlobalEventHandler().removeChild(node);
+		MinecraftServer.stopCleanly();
+		if (message == null) {
+			System.err.println("The compiled feature set did not set the death message");
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package io.github.togar2.pvp.feature.attack;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.feature.CombatFeatures;
+import io.github.togar2.pvp.feature.FeatureType;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated to calculate a melee attack, using the {@link AttackContext} pipeline
+ * and the deprecated pipeline which returns {@link AttackValues.Final}.
+ * <p>
+ * Exits with status 1 if the context pipeline allocates more bytes per attack than allowed
+ * (the first argument, 0 by default).
+ */
+public class AttackAllocationCheck {
+	private static final int WARMUP = 200_000;
+	private static final int ATTACKS = 1_000_000;
+	
+	public static void main(String[] args) {
+		long allowed = args.length > 0 ? Long.parseLong(args[0]) : 0;
+		
+		MinecraftServer.init();
+		MinestomPvP.init();
+		
+		Instance instance = MinecraftServer.getInstanceManager().createInstanceContainer();
+		instance.setGenerator(unit -> unit.modifier().fillHeight(0, 40, Block.STONE));
+		instance.loadChunk(0, 0).join();
+		
+		LivingEntity attacker = new LivingEntity(EntityType.ZOMBIE);
+		LivingEntity target = new LivingEntity(EntityType.ZOMBIE);
+		attacker.setInstance(instance, new Pos(0, 40, 0)).join();
+		target.setInstance(instance, new Pos(1, 40, 0)).join();
+		
+		VanillaAttackFeature feature = (VanillaAttackFeature) CombatFeatures.modernVanilla().get(FeatureType.ATTACK);
+		
+		Runnable context = () -> {
+			AttackContext attack = AttackContext.acquire(attacker, target);
+			try {
+				feature.readAttacker(attack);
+				feature.prepareAttack(attack);
+			} finally {
+				attack.release();
+			}
+		};
+		@SuppressWarnings("deprecation")
+		Runnable values = () -> feature.prepareAttack(attacker, target);
+		
+		long contextBytes = measure(context);
+		long valuesBytes = measure(values);
+		System.out.printf("AttackContext:      %d bytes/attack%n", contextBytes);
+		System.out.printf("AttackValues.Final: %d bytes/attack%n", valuesBytes);
+		
+		MinecraftServer.stopCleanly();
+		if (contextBytes > allowed) {
+			System.err.printf("Attack calculation allocates %d bytes, at most %d allowed%n", contextBytes, allowed);
+			System.exit(1);
+		}
+	}
+	
+	private static long measure(Runnable attack) {
+		for (int i = 0; i < WARMUP; i++) {
+			attack.run();
+		}
+		
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().threadId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < ATTACKS; i++) {
+			attack.run();
+		}
+		return (threads.getThreadAllocatedBytes(thread) - before) / ATTACKS;
+	}
+}
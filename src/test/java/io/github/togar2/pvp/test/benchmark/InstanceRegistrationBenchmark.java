@@ -0,0 +1,90 @@
+package io.github.togar2.pvp.test.benchmark;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.feature.CombatFeatureSet;
+import io.github.togar2.pvp.feature.CombatFeatures;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.event.EventDispatcher;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.entity.EntityTickEvent;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.event.trait.InstanceEvent;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the cost of entity events when the combat node is added to the global event handler,
+ * to when it is only added to the instance which has combat (see {@link MinestomPvP#register(Instance, CombatFeatureSet)}).
+ * <p>
+ * Only one of the instances has combat, the others act as lobbies.
+ * Events are called for an entity in every instance in turn.
+ */
+public class InstanceRegistrationBenchmark {
+	private static final int[] INSTANCE_COUNTS = { 1, 10, 50, 200 };
+	private static final int WARMUP = 500_000;
+	private static final int EVENTS = 2_000_000;
+	
+	public static void main(String[] args) {
+		MinecraftServer.init();
+		MinestomPvP.init(false);
+		
+		for (int count : INSTANCE_COUNTS) {
+			System.out.printf("%d instances: global %.1f ns/event, instance-scoped %.1f ns/event%n",
+					count, measure(count, false), measure(count, true));
+		}
+		
+		MinecraftServer.stopCleanly();
+	}
+	
+	private static double measure(int instanceCount, boolean scoped) {
+		List<Instance> instances = new ArrayList<>(instanceCount);
+		LivingEntity[] entities = new LivingEntity[instanceCount];
+		for (int i = 0; i < instanceCount; i++) {
+			Instance instance = MinecraftServer.getInstanceManager().createInstanceContainer();
+			instance.setGenerator(unit -> unit.modifier().fillHeight(0, 40, Block.STONE));
+			instance.loadChunk(0, 0).join();
+			instances.add(instance);
+			
+			entities[i] = new LivingEntity(EntityType.ZOMBIE);
+			entities[i].setInstance(instance, new Pos(0, 40, 0)).join();
+		}
+		
+		CombatFeatureSet featureSet = CombatFeatures.modernVanilla();
+		EventNode<InstanceEvent> scopedNode = null;
+		EventNode<EntityInstanceEvent> globalNode = null;
+		if (scoped) {
+			scopedNode = MinestomPvP.register(instances.getFirst(), featureSet);
+		} else {
+			globalNode = featureSet.createNode();
+			MinecraftServer.getGlobalEventHandler().addChild(globalNode);
+		}
+		
+		for (int i = 0; i < WARMUP; i++) {
+			EventDispatcher.call(new EntityTickEvent(entities[i % instanceCount]));
+		}
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < EVENTS; i++) {
+			EventDispatcher.call(new EntityTickEvent(entities[i % instanceCount]));
+		}
+		double result = (double) (System.nanoTime() - start) / EVENTS;
+		
+		if (scoped) {
+			instances.getFirst().eventNode().removeChild(scopedNode);
+		} else {
+			MinecraftServer.getGlobalEventHandler().removeChild(globalNode);
+		}
+		for (int i = 0; i < instanceCount; i++) {
+			entities[i].remove();
+			MinecraftServer.getInstanceManager().unregisterInstance(instances.get(i));
+		}
+		
+		return result;
+	}
+}
@@ -0,0 +1,61 @@
+package io.github.togar2.pvp.test.benchmark;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.utils.EntityUtil;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.damage.Damage;
+import net.minestom.server.entity.damage.DamageType;
+
+import java.lang.reflect.Field;
+
+/**
+ * Compares setting {@code LivingEntity#lastDamage} with a field lookup on every call,
+ * as {@link EntityUtil#setLastDamage(LivingEntity, Damage)} used to do, to the VarHandle it uses now.
+ */
+public class LastDamageBenchmark {
+	private static final int WARMUP = 1_000_000;
+	private static final int ITERATIONS = 10_000_000;
+	
+	public static void main(String[] args) throws Exception {
+		MinecraftServer.init();
+		MinestomPvP.init();
+		
+		LivingEntity entity = new LivingEntity(EntityType.ZOMBIE);
+		Damage[] damages = new Damage[16];
+		for (int i = 0; i < damages.length; i++) {
+			damages[i] = new Damage(DamageType.GENERIC, null, null, null, i);
+		}
+		
+		Setter reflection = (living, damage) -> {
+			Field field = LivingEntity.class.getDeclaredField("lastDamage");
+			field.setAccessible(true);
+			field.set(living, damage);
+		};
+		Setter varHandle = EntityUtil::setLastDamage;
+		
+		System.out.printf("Reflection: %.1f ns/call%n", measure(reflection, entity, damages));
+		System.out.printf("VarHandle:  %.1f ns/call%n", measure(varHandle, entity, damages));
+		
+		// Make sure the stores are not optimized away
+		System.out.println("Last damage: " + entity.getLastDamageSource().getAmount());
+		MinecraftServer.stopCleanly();
+	}
+	
+	private static double measure(Setter setter, LivingEntity entity, Damage[] damages) throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			setter.set(entity, damages[i & 15]);
+		}
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			setter.set(entity, damages[i & 15]);
+		}
+		return (double) (System.nanoTime() - start) / ITERATIONS;
+	}
+	
+	private interface Setter {
+		void set(LivingEntity entity, Damage damage) throws Exception;
+	}
+}